@@ -0,0 +1,162 @@
+package com.app.backend.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.dto.ArticleClusterDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_CLUSTER;
+import static com.app.backend.constant.RedisConstant.ARTICLE_CLUSTER_DIRTY;
+
+/**
+ * 地图聚合结果缓存
+ * 缩放级别决定聚合网格的geohash精度，聚合结果按比聚合网格粗两级（至少1位）的瓦片缓存在
+ * article:cluster:{聚合精度}:{瓦片geohash}，一次地图请求通常只涉及少量瓦片；
+ * 博文新增、删除或修改位置时清除其所在的各级瓦片，点赞数变化导致的代表博文变化由过期时间兜底；
+ * 低缩放级别的瓦片覆盖范围大、重算代价高，写入时不清除，而是记入article:cluster:dirty，由定时任务异步重算后覆盖
+ */
+@Slf4j
+@Component
+public class ArticleClusterCache {
+
+    // 各缩放级别对应的聚合精度，使聚合网格在屏幕上约为32~128像素
+    private static final int[] ZOOM_PRECISIONS = {1, 1, 1, 2, 2, 3, 3, 3, 4, 4, 5, 5, 5, 6, 6, 7, 7, 7, 8};
+
+    private static final long CLUSTER_CACHE_TTL_MINUTES = 10;
+
+    /**
+     * 不超过该精度（缩放级别0~7）的聚合结果异步重算，这些精度的瓦片精度都为1
+     */
+    public static final int MAX_REFRESHED_PRECISION = 3;
+
+    // 异步重算的瓦片有定时任务维护，过期时间只用于兜底点赞数变化
+    private static final long REFRESHED_CACHE_TTL_MINUTES = 60;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 缩放级别对应的聚合网格geohash精度
+     */
+    public static int clusterPrecision(int zoom) {
+        return ZOOM_PRECISIONS[Math.max(0, Math.min(zoom, ZOOM_PRECISIONS.length - 1))];
+    }
+
+    /**
+     * 聚合精度对应的瓦片geohash精度，至少为1，查询时总能按geohash前缀过滤
+     */
+    public static int tilePrecision(int clusterPrecision) {
+        return Math.max(1, clusterPrecision - 2);
+    }
+
+    /**
+     * 批量读取瓦片的聚合结果
+     * @return 瓦片geohash到聚合点的映射，只包含命中的瓦片
+     */
+    public Map<String, List<ArticleClusterDTO>> get(int precision, List<String> tiles) {
+        Map<String, List<ArticleClusterDTO>> result = new HashMap<>();
+        try {
+            List<Object> cached = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    tiles.forEach(tile -> redisOperations.opsForValue().get(tileKey(precision, tile)));
+                    return null;
+                }
+            });
+            for (int i = 0; i < tiles.size(); i++) {
+                if (cached.get(i) != null) {
+                    result.put(tiles.get(i), JSON.parseArray(cached.get(i).toString(), ArticleClusterDTO.class));
+                }
+            }
+        } catch (Exception e) {
+            log.error("读取地图聚合缓存失败", e);
+        }
+        return result;
+    }
+
+    /**
+     * 写入瓦片的聚合结果，没有博文的瓦片同样缓存
+     */
+    public void put(int precision, Map<String, List<ArticleClusterDTO>> clusters) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    long ttl = precision <= MAX_REFRESHED_PRECISION ? REFRESHED_CACHE_TTL_MINUTES : CLUSTER_CACHE_TTL_MINUTES;
+                    clusters.forEach((tile, tileClusters) -> redisOperations.opsForValue()
+                            .set(tileKey(precision, tile), JSON.toJSONString(tileClusters), ttl, TimeUnit.MINUTES));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("写入地图聚合缓存失败", e);
+        }
+    }
+
+    /**
+     * 清除包含这些位置的各级瓦片，低缩放级别的瓦片只标记为待重算
+     * @param geohashes 发生变化的博文位置
+     */
+    public void evict(String... geohashes) {
+        List<String> keys = new ArrayList<>();
+        Set<String> dirtyTiles = new HashSet<>();
+        for (String geohash : geohashes) {
+            if (geohash == null || geohash.isEmpty()) {
+                continue;
+            }
+            dirtyTiles.add(geohash.substring(0, tilePrecision(MAX_REFRESHED_PRECISION)));
+            for (int precision = MAX_REFRESHED_PRECISION + 1; precision <= ZOOM_PRECISIONS[ZOOM_PRECISIONS.length - 1]; precision++) {
+                keys.add(tileKey(precision, geohash.substring(0, tilePrecision(precision))));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(keys);
+            redisTemplate.opsForSet().add(ARTICLE_CLUSTER_DIRTY, dirtyTiles.toArray());
+        } catch (Exception e) {
+            log.error("清除地图聚合缓存失败, keys: {}", keys, e);
+        }
+    }
+
+    /**
+     * 取出待重算的低缩放级别瓦片，多个节点同时重算时各自取出不同的瓦片
+     */
+    public List<String> popDirtyTiles(int count) {
+        List<Object> tiles = redisTemplate.opsForSet().pop(ARTICLE_CLUSTER_DIRTY, count);
+        return tiles == null ? new ArrayList<>() : tiles.stream().map(Object::toString).toList();
+    }
+
+    /**
+     * 重算失败时放回待重算集合
+     */
+    public void markDirty(Collection<String> tiles) {
+        try {
+            redisTemplate.opsForSet().add(ARTICLE_CLUSTER_DIRTY, tiles.toArray());
+        } catch (Exception e) {
+            log.error("标记待重算的地图聚合瓦片失败, tiles: {}", tiles, e);
+        }
+    }
+
+    private String tileKey(int precision, String tile) {
+        return ARTICLE_CLUSTER + precision + ":" + tile;
+    }
+}
@@ -0,0 +1,146 @@
+package com.app.backend.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.vo.ArticleDetailVO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_DETAIL;
+import static com.app.backend.constant.RedisConstant.ARTICLE_DETAIL_INVALIDATE_CHANNEL;
+
+/**
+ * 博文详情两级缓存
+ * 一级为本地Caffeine缓存，二级为Redis Hash article:detail:{articleId}，字段为：
+ * version 版本号，body 组装好的详情
+ * 评论、编辑、删除时递增版本号并删除body，重建时只有版本号未变才写回，避免并发重建写入旧数据；
+ * 点赞数不随详情缓存，从Redis读取详情时通过点赞Set重新计数，本地缓存过期时间很短，点赞数最多延迟该时间
+ * 失效时通过Redis频道广播，其他节点同步清除本地缓存
+ */
+@Slf4j
+@Component
+public class ArticleDetailCache implements MessageListener {
+
+    private static final long LOCAL_MAX_SIZE = 10000;
+
+    private static final Duration LOCAL_TTL = Duration.ofSeconds(5);
+
+    private static final long REDIS_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    // 版本号未变化时写入详情，版本号不存在视为0
+    private static final DefaultRedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('HGET', KEYS[1], 'version') or '0' " +
+            "if version ~= ARGV[1] then return 0 end " +
+            "redis.call('HSET', KEYS[1], 'version', version, 'body', ARGV[2]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return 1", Long.class);
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private final Cache<Long, ArticleDetailVO> localCache = Caffeine.newBuilder()
+            .maximumSize(LOCAL_MAX_SIZE)
+            .expireAfterWrite(LOCAL_TTL)
+            .build();
+
+    /**
+     * 读取博文详情，两级缓存都未命中时通过loader组装并写回
+     * @param articleId 博文ID
+     * @param loader 从数据库组装详情（含当前点赞数），博文不存在时返回null
+     * @param likeCounter 读取博文当前点赞数，命中Redis缓存时调用
+     * @return 博文详情
+     */
+    public ArticleDetailVO get(Long articleId, Function<Long, ArticleDetailVO> loader, Function<Long, Long> likeCounter) {
+        ArticleDetailVO local = localCache.getIfPresent(articleId);
+        if (local != null) {
+            return local;
+        }
+
+        String key = ARTICLE_DETAIL + articleId;
+        String version = "0";
+        try {
+            Map<Object, Object> entry = redisTemplate.opsForHash().entries(key);
+            Object body = entry.get("body");
+            if (body != null) {
+                ArticleDetailVO articleDetailVO = JSON.parseObject(body.toString(), ArticleDetailVO.class);
+                articleDetailVO.setLikeCount(likeCounter.apply(articleId));
+                localCache.put(articleId, articleDetailVO);
+                return articleDetailVO;
+            }
+            if (entry.get("version") != null) {
+                version = entry.get("version").toString();
+            }
+        } catch (Exception e) {
+            log.error("读取博文详情缓存失败, articleId: {}", articleId, e);
+            return loader.apply(articleId);
+        }
+
+        ArticleDetailVO articleDetailVO = loader.apply(articleId);
+        if (articleDetailVO == null) {
+            return null;
+        }
+        try {
+            Long stored = redisTemplate.execute(PUT_SCRIPT, Collections.singletonList(key), version,
+                    JSON.toJSONString(articleDetailVO), String.valueOf(REDIS_TTL_SECONDS));
+            if (stored != null && stored == 1) {
+                localCache.put(articleId, articleDetailVO);
+            }
+        } catch (Exception e) {
+            log.error("写入博文详情缓存失败, articleId: {}", articleId, e);
+        }
+        return articleDetailVO;
+    }
+
+    /**
+     * 博文内容或评论变化后使详情缓存失效
+     * @param articleId 博文ID
+     */
+    public void invalidate(Long articleId) {
+        String key = ARTICLE_DETAIL + articleId;
+        localCache.invalidate(articleId);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    // 先递增版本号，正在重建的旧数据将无法写入
+                    redisOperations.opsForHash().increment(key, "version", 1);
+                    redisOperations.opsForHash().delete(key, "body");
+                    redisOperations.expire(key, REDIS_TTL_SECONDS, TimeUnit.SECONDS);
+                    return null;
+                }
+            });
+            redisTemplate.convertAndSend(ARTICLE_DETAIL_INVALIDATE_CHANNEL, articleId.toString());
+        } catch (Exception e) {
+            log.error("清除博文详情缓存失败, articleId: {}", articleId, e);
+        }
+    }
+
+    /**
+     * 收到其他节点的失效广播，清除本地缓存
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            localCache.invalidate(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (NumberFormatException e) {
+            log.warn("无效的博文详情失效消息: {}", message);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.app.backend.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.TypeReference;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.dto.PagedArticleDTO;
+import com.app.backend.vo.PagedArticleVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_PAGE;
+import static com.app.backend.constant.RedisConstant.ARTICLE_PAGE_VERSION;
+
+/**
+ * 博文列表分页结果缓存
+ * key为 article:page:{type}:{版本号}:{查询条件摘要}，未按类型筛选的查询使用 all 作为类型；
+ * 博文增删改时递增对应类型和 all 的版本号，旧版本的缓存不再被读取，由过期时间自然清理
+ * 缓存内容不含当前用户的点赞状态，由调用方在读取后补充
+ */
+@Slf4j
+@Component
+public class ArticlePageCache {
+
+    private static final String ALL_TYPES = "all";
+
+    // 分页结果缓存时间，点赞数等异步更新的字段最多延迟该时间
+    private static final long PAGE_CACHE_TTL_SECONDS = 60;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 生成查询对应的缓存key，必须在查询数据库之前生成，
+     * 保证查询期间发生的修改会使本次结果写入已失效的旧版本
+     * @return 缓存key，读取版本号失败时返回null，本次请求不使用缓存
+     */
+    public String keyOf(PagedArticleVO pagedArticleVO) {
+        String scope = normalize(pagedArticleVO.getType());
+        if (scope.isEmpty()) {
+            scope = ALL_TYPES;
+        }
+        try {
+            Object version = redisTemplate.opsForValue().get(ARTICLE_PAGE_VERSION + scope);
+            String condition = "type=" + normalize(pagedArticleVO.getType())
+                    + "&title=" + normalize(pagedArticleVO.getTitle())
+                    + "&address=" + normalize(pagedArticleVO.getAddress())
+                    + "&sort=" + normalize(pagedArticleVO.getSort())
+                    + "&latitude=" + pagedArticleVO.getLatitude()
+                    + "&longitude=" + pagedArticleVO.getLongitude()
+                    + "&radius=" + pagedArticleVO.getRadius()
+                    + "&page=" + Objects.requireNonNullElse(pagedArticleVO.getPage(), 1)
+                    + "&size=" + Objects.requireNonNullElse(pagedArticleVO.getSize(), 10)
+                    + "&cursor=" + Objects.requireNonNullElse(pagedArticleVO.getCursor(), "")
+                    + "&fields=" + normalize(pagedArticleVO.getFields());
+            return ARTICLE_PAGE + scope + ":" + (version == null ? 0 : version) + ":"
+                    + DigestUtils.md5DigestAsHex(condition.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("读取博文列表缓存版本号失败", e);
+            return null;
+        }
+    }
+
+    public CursorPage<PagedArticleDTO> get(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            Object value = redisTemplate.opsForValue().get(key);
+            return value == null ? null : JSON.parseObject(value.toString(), new TypeReference<CursorPage<PagedArticleDTO>>() {});
+        } catch (Exception e) {
+            log.warn("读取博文列表缓存失败, key: {}", key, e);
+            return null;
+        }
+    }
+
+    public void put(String key, CursorPage<PagedArticleDTO> page) {
+        if (key == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, JSON.toJSONString(page), PAGE_CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.warn("写入博文列表缓存失败, key: {}", key, e);
+        }
+    }
+
+    /**
+     * 使涉及这些类型的分页缓存失效，未按类型筛选的分页同时失效
+     * @param types 发生变化的博文类型
+     */
+    public void invalidate(Collection<String> types) {
+        Set<String> scopes = new LinkedHashSet<>();
+        scopes.add(ALL_TYPES);
+        for (String type : types) {
+            String scope = normalize(type);
+            if (!scope.isEmpty()) {
+                scopes.add(scope);
+            }
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    scopes.forEach(scope -> redisOperations.opsForValue().increment(ARTICLE_PAGE_VERSION + scope));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("递增博文列表缓存版本号失败, types: {}", scopes, e);
+        }
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,628 @@
+package com.app.backend.cache;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.app.backend.common.PinyinUtils;
+import com.app.backend.dto.ArticleSuggestDTO;
+import com.app.backend.entity.Article;
+import com.app.backend.mapper.ArticleMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_SUGGEST_CHANNEL;
+
+/**
+ * 博文搜索联想索引
+ * 博文的地点名称、标题、地址以及其中汉字的全拼和首字母（多音字取有限个读音组合）各作为一个词条写入本地基数树，
+ * 只有一个子节点且不是词条结尾的路径压缩为一条边，每个节点预先保存以该节点为前缀的点赞数最多的若干篇博文，
+ * 查询只需沿输入走到对应节点（输入在边的中间结束时取边的终点），不访问数据库和Redis；
+ * 博文增删改和点赞数变化通过Redis频道广播，各节点收到后增量更新自己的索引；
+ * 广播不保证送达，各节点再定时与数据库对账，修正遗漏的变更和累计的点赞数偏差
+ */
+@Slf4j
+@Component
+public class ArticleSuggestIndex implements MessageListener {
+
+    // 每个节点保留的博文数，即单次联想返回数量的上限
+    public static final int MAX_SUGGEST_SIZE = 10;
+
+    // 词条截断长度，输入超过该长度后不再细分
+    private static final int MAX_TERM_LENGTH = 32;
+
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    // 每段文字最多索引的拼音读音组合数
+    private static final int MAX_PINYIN_VARIANTS = 4;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private final Node root = new Node("");
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 启动时从数据库分批加载全部博文
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            long lastId = 0;
+            List<Article> articles;
+            do {
+                articles = articleMapper.selectList(columns()
+                        .gt(Article::getId, lastId)
+                        .orderByAsc(Article::getId)
+                        .last("LIMIT " + LOAD_BATCH_SIZE));
+                if (!articles.isEmpty()) {
+                    apply(articles, Set.of());
+                    lastId = articles.get(articles.size() - 1).getId();
+                }
+            } while (articles.size() == LOAD_BATCH_SIZE);
+            log.info("已加载搜索联想索引, 共{}篇博文", entries.size());
+        } catch (Exception e) {
+            log.error("加载搜索联想索引失败", e);
+        }
+    }
+
+    /**
+     * 按主键顺序分批与数据库对账：内容不一致或已删除的博文重新加载，只有点赞数不一致的调整排名
+     * 对账期间收到的广播可能与对账结果交错，产生的偏差留到下次对账修正
+     */
+    public void reconcile() {
+        try {
+            long lastId = 0;
+            int reloaded = 0;
+            int likeFixed = 0;
+            List<Article> articles;
+            Set<Long> seen = new HashSet<>();
+            do {
+                articles = articleMapper.selectList(columns()
+                        .gt(Article::getId, lastId)
+                        .orderByAsc(Article::getId)
+                        .last("LIMIT " + LOAD_BATCH_SIZE));
+                List<Article> changed = new ArrayList<>();
+                Map<Long, Long> likeCounts = new HashMap<>();
+                lock.readLock().lock();
+                try {
+                    for (Article article : articles) {
+                        seen.add(article.getId());
+                        Entry entry = entries.get(article.getId());
+                        long likeCount = article.getLikeCount() == null ? 0 : article.getLikeCount();
+                        if (entry == null || !Objects.equals(entry.title, article.getTitle())
+                                || !Objects.equals(entry.name, article.getName()) || !Objects.equals(entry.address, article.getAddress())) {
+                            changed.add(article);
+                        } else if (entry.likeCount != likeCount) {
+                            likeCounts.put(article.getId(), likeCount);
+                        }
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (!changed.isEmpty()) {
+                    apply(changed, Set.of());
+                    reloaded += changed.size();
+                }
+                if (!likeCounts.isEmpty()) {
+                    setLikeCounts(likeCounts);
+                    likeFixed += likeCounts.size();
+                }
+                if (!articles.isEmpty()) {
+                    lastId = articles.get(articles.size() - 1).getId();
+                }
+            } while (articles.size() == LOAD_BATCH_SIZE);
+
+            // 只删除扫描范围内数据库中已不存在的博文，扫描结束后新增的博文不受影响
+            long maxScannedId = lastId;
+            List<Long> removed;
+            lock.readLock().lock();
+            try {
+                removed = entries.keySet().stream().filter(id -> id <= maxScannedId && !seen.contains(id)).toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!removed.isEmpty()) {
+                apply(List.of(), removed);
+            }
+            log.info("搜索联想索引对账完成, 重新加载{}篇, 修正点赞数{}篇, 移除{}篇", reloaded, likeFixed, removed.size());
+        } catch (Exception e) {
+            // 本次失败不影响下次对账
+            log.error("搜索联想索引对账失败", e);
+        }
+    }
+
+    /**
+     * 按前缀查询联想结果
+     * @param query 用户输入，可以是原文、全拼或拼音首字母的前缀
+     * @param limit 返回数量，不超过MAX_SUGGEST_SIZE
+     * @return 按点赞数从高到低排序的博文
+     */
+    public List<ArticleSuggestDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        List<ArticleSuggestDTO> suggestions = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            return suggestions;
+        }
+        lock.readLock().lock();
+        try {
+            Node node = find(prefix);
+            if (node == null) {
+                return suggestions;
+            }
+            for (int i = 0; i < node.top.length && i < limit; i++) {
+                Entry entry = entries.get(node.top[i]);
+                ArticleSuggestDTO articleSuggestDTO = new ArticleSuggestDTO();
+                articleSuggestDTO.setId(entry.id);
+                articleSuggestDTO.setTitle(entry.title);
+                articleSuggestDTO.setName(entry.name);
+                articleSuggestDTO.setAddress(entry.address);
+                articleSuggestDTO.setLikeCount(entry.likeCount);
+                suggestions.add(articleSuggestDTO);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 博文新增、修改或删除后通知所有节点重新加载这些博文
+     * @param articleIds 博文ID
+     */
+    public void publishArticles(Collection<Long> articleIds) {
+        publish("articleIds", articleIds);
+    }
+
+    /**
+     * 点赞数变化后通知所有节点调整排序
+     * @param deltas 博文ID到点赞数增量的映射
+     */
+    public void publishLikeCounts(Map<Long, Long> deltas) {
+        publish("likeDeltas", deltas);
+    }
+
+    private void publish(String field, Object value) {
+        try {
+            JSONObject message = new JSONObject();
+            message.put(field, value);
+            redisTemplate.convertAndSend(ARTICLE_SUGGEST_CHANNEL, message.toJSONString());
+        } catch (Exception e) {
+            log.error("广播搜索联想索引变更失败, {}: {}", field, value, e);
+        }
+    }
+
+    /**
+     * 收到变更广播（包括本节点发出的），增量更新本地索引
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            JSONObject body = JSON.parseObject(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (body.containsKey("articleIds")) {
+                reload(body.getList("articleIds", Long.class));
+            }
+            if (body.containsKey("likeDeltas")) {
+                Map<Long, Long> deltas = new HashMap<>();
+                body.getJSONObject("likeDeltas").forEach((articleId, delta) ->
+                        deltas.put(Long.valueOf(articleId), ((Number) delta).longValue()));
+                addLikeCounts(deltas);
+            }
+        } catch (Exception e) {
+            log.error("处理搜索联想索引变更失败: {}", message, e);
+        }
+    }
+
+    private void reload(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+        List<Article> articles = articleMapper.selectList(columns().in(Article::getId, articleIds));
+        Set<Long> removed = new HashSet<>(articleIds);
+        articles.forEach(article -> removed.remove(article.getId()));
+        apply(articles, removed);
+    }
+
+    private LambdaQueryWrapper<Article> columns() {
+        return new LambdaQueryWrapper<Article>()
+                .select(Article::getId, Article::getTitle, Article::getName, Article::getAddress, Article::getLikeCount);
+    }
+
+    /**
+     * 写入博文的最新内容，并移除已删除的博文
+     */
+    void apply(List<Article> articles, Collection<Long> removedIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long articleId : removedIds) {
+                // 先移除词条再删除博文，补位时仍可能经由尚未移除的词条访问到该博文
+                Entry old = entries.get(articleId);
+                if (old != null) {
+                    old.terms.forEach(term -> removeTerm(term, old));
+                    entries.remove(articleId);
+                }
+            }
+            for (Article article : articles) {
+                Entry entry = new Entry(article);
+                Entry old = entries.put(entry.id, entry);
+                if (old != null) {
+                    old.terms.forEach(term -> removeTerm(term, old));
+                }
+                entry.terms.forEach(term -> addTerm(term, entry));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void addLikeCounts(Map<Long, Long> deltas) {
+        lock.writeLock().lock();
+        try {
+            deltas.forEach((articleId, delta) -> {
+                Entry entry = entries.get(articleId);
+                if (entry != null && delta != 0) {
+                    updateLikeCount(entry, Math.max(0, entry.likeCount + delta));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void setLikeCounts(Map<Long, Long> likeCounts) {
+        lock.writeLock().lock();
+        try {
+            likeCounts.forEach((articleId, likeCount) -> {
+                Entry entry = entries.get(articleId);
+                if (entry != null && entry.likeCount != likeCount) {
+                    updateLikeCount(entry, likeCount);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void updateLikeCount(Entry entry, long likeCount) {
+        entry.likeCount = likeCount;
+        for (String term : entry.terms) {
+            for (Node node : path(term)) {
+                reposition(node, entry);
+            }
+        }
+    }
+
+    /**
+     * 查找前缀对应的节点，前缀在某条边的中间结束时返回边的终点
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int matched = commonPrefixLength(child.label, prefix, i);
+            if (matched < child.label.length() && i + matched < prefix.length()) {
+                return null;
+            }
+            node = child;
+            i += matched;
+        }
+        return node;
+    }
+
+    /**
+     * 词条经过的节点（不含根节点），词条不存在时返回空列表
+     */
+    private List<Node> path(String term) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        while (i < term.length()) {
+            Node child = node.child(term.charAt(i));
+            if (child == null || !term.startsWith(child.label, i)) {
+                return new ArrayList<>();
+            }
+            path.add(child);
+            node = child;
+            i += child.label.length();
+        }
+        return path;
+    }
+
+    private void addTerm(String term, Entry entry) {
+        Node node = root;
+        int i = 0;
+        while (i < term.length()) {
+            Node child = node.child(term.charAt(i));
+            if (child == null) {
+                child = new Node(term.substring(i));
+                node.addChild(child);
+            } else {
+                int matched = commonPrefixLength(child.label, term, i);
+                if (matched < child.label.length()) {
+                    // 词条在边的中间分叉，拆出中间节点，中间节点的子树与原节点相同，排名直接复制
+                    Node middle = new Node(child.label.substring(0, matched));
+                    middle.top = child.top;
+                    child.label = child.label.substring(matched);
+                    middle.addChild(child);
+                    node.replaceChild(middle);
+                    child = middle;
+                }
+            }
+            offer(child, entry);
+            node = child;
+            i += child.label.length();
+        }
+        if (node.ids == null) {
+            node.ids = new HashSet<>();
+        }
+        node.ids.add(entry.id);
+    }
+
+    private void removeTerm(String term, Entry entry) {
+        List<Node> path = path(term);
+        if (path.isEmpty()) {
+            return;
+        }
+        Node last = path.get(path.size() - 1);
+        if (last.ids != null) {
+            last.ids.remove(entry.id);
+            if (last.ids.isEmpty()) {
+                last.ids = null;
+            }
+        }
+        // 从下往上清理空节点、合并只剩一个子节点的节点，并为排名中移除了该博文的节点从子树补位
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Node parent = i == 0 ? root : path.get(i - 1);
+            if (node.ids == null && node.children.length == 0) {
+                parent.removeChild(node.label.charAt(0));
+            } else if (node.ids == null && node.children.length == 1) {
+                // 子节点的子树与该节点相同，排名已是最新
+                Node child = node.children[0];
+                child.label = node.label + child.label;
+                parent.replaceChild(child);
+            } else if (node.indexOf(entry.id) >= 0) {
+                refill(node);
+            }
+        }
+    }
+
+    private static int commonPrefixLength(String label, String text, int offset) {
+        int length = Math.min(label.length(), text.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == text.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 博文排名可能进入前列时插入到对应位置
+     */
+    private void offer(Node node, Entry entry) {
+        int index = node.indexOf(entry.id);
+        if (index >= 0) {
+            node.top = remove(node.top, index);
+        }
+        int position = 0;
+        while (position < node.top.length && compare(entries.get(node.top[position]), entry) < 0) {
+            position++;
+        }
+        if (position >= MAX_SUGGEST_SIZE) {
+            return;
+        }
+        long[] top = new long[Math.min(MAX_SUGGEST_SIZE, node.top.length + 1)];
+        System.arraycopy(node.top, 0, top, 0, position);
+        top[position] = entry.id;
+        System.arraycopy(node.top, position, top, position + 1, top.length - position - 1);
+        node.top = top;
+    }
+
+    /**
+     * 点赞数变化后调整排名，只有原本在列且下降到末位之后时才需要从子树补位
+     */
+    private void reposition(Node node, Entry entry) {
+        int index = node.indexOf(entry.id);
+        if (index >= 0 && node.top.length == MAX_SUGGEST_SIZE) {
+            long[] rest = remove(node.top, index);
+            if (compare(entry, entries.get(rest[rest.length - 1])) > 0) {
+                refill(node);
+                return;
+            }
+        }
+        offer(node, entry);
+    }
+
+    /**
+     * 遍历子树重新计算节点的排名，只在博文被移除或排名下降时调用
+     */
+    private void refill(Node node) {
+        Set<Long> ids = new LinkedHashSet<>();
+        collect(node, ids);
+        node.top = ids.stream()
+                .map(entries::get)
+                .sorted(this::compare)
+                .limit(MAX_SUGGEST_SIZE)
+                .mapToLong(entry -> entry.id)
+                .toArray();
+    }
+
+    private void collect(Node node, Set<Long> ids) {
+        if (node.ids != null) {
+            ids.addAll(node.ids);
+        }
+        for (Node child : node.children) {
+            collect(child, ids);
+        }
+    }
+
+    // 点赞数多的在前，相同时新发布的在前
+    private int compare(Entry a, Entry b) {
+        int result = Long.compare(b.likeCount, a.likeCount);
+        return result != 0 ? result : Long.compare(b.id, a.id);
+    }
+
+    private static long[] remove(long[] array, int index) {
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+        return result;
+    }
+
+    /**
+     * 统一转为小写并去掉空白，超出长度的部分截断
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder();
+        for (int i = 0; i < text.length() && normalized.length() < MAX_TERM_LENGTH; i++) {
+            char ch = text.charAt(i);
+            if (!Character.isWhitespace(ch)) {
+                normalized.append(Character.toLowerCase(ch));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static class Entry {
+
+        private final long id;
+
+        private final String title;
+
+        private final String name;
+
+        private final String address;
+
+        private final Set<String> terms = new HashSet<>();
+
+        private long likeCount;
+
+        Entry(Article article) {
+            this.id = article.getId();
+            this.title = article.getTitle();
+            this.name = article.getName();
+            this.address = article.getAddress();
+            this.likeCount = article.getLikeCount() == null ? 0 : article.getLikeCount();
+            for (String text : Arrays.asList(name, title, address)) {
+                if (text == null || text.isBlank()) {
+                    continue;
+                }
+                terms.add(normalize(text));
+                for (String[] pinyin : PinyinUtils.toPinyin(text, MAX_PINYIN_VARIANTS)) {
+                    terms.add(normalize(pinyin[0]));
+                    terms.add(normalize(pinyin[1]));
+                }
+            }
+            terms.remove("");
+        }
+    }
+
+    /**
+     * 基数树节点，label为从父节点到该节点的边上的字符，子节点按边的首字符有序存放在数组中以节省内存
+     */
+    private static class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private static final long[] NO_TOP = new long[0];
+
+        private String label;
+
+        private char[] keys = NO_KEYS;
+
+        private Node[] children = NO_CHILDREN;
+
+        // 以该节点为前缀的排名靠前的博文ID
+        private long[] top = NO_TOP;
+
+        // 恰好以该节点结尾的词条所属的博文ID
+        private Set<Long> ids;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            char key = child.label.charAt(0);
+            int position = -Arrays.binarySearch(keys, key) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(children, 0, newChildren, 0, position);
+            newKeys[position] = key;
+            newChildren[position] = child;
+            System.arraycopy(keys, position, newKeys, position + 1, keys.length - position);
+            System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * 替换边首字符相同的子节点
+         */
+        void replaceChild(Node child) {
+            children[Arrays.binarySearch(keys, child.label.charAt(0))] = child;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        int indexOf(long id) {
+            for (int i = 0; i < top.length; i++) {
+                if (top[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.app.backend.cache;
+
+import com.app.backend.config.properties.LikeProperties;
+import com.app.backend.entity.Article;
+import com.app.backend.mapper.ArticleMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_TRENDING;
+
+/**
+ * 博文热度榜
+ * 每次点赞按 2^((t - 周期起点) / 半衰期) 的权重累加到ZSET，越新的点赞权重越大，
+ * 等价于所有历史点赞按半衰期指数衰减，写入时只需一次ZINCRBY，无需定时重算分数；
+ * 为避免权重无限增长，每个周期使用独立的ZSET，读取时把上一周期按 2^(-周期 / 半衰期) 折算后合并
+ * 全站榜为 article:trending:all:{周期}，分类型榜为 article:trending:{type}:{周期}
+ */
+@Slf4j
+@Component
+public class ArticleTrendingRanker {
+
+    private static final String ALL_TYPES = "all";
+
+    // 每个ZSET累加的时间跨度
+    private static final long EPOCH_PERIOD = TimeUnit.DAYS.toMillis(7);
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private LikeProperties likeProperties;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    /**
+     * 累加本批次新增点赞对热度榜的贡献
+     * @param newLikes 博文ID到本批次新增点赞数的映射（取消点赞不扣减热度）
+     */
+    public void recordLikes(Map<Long, Long> newLikes) {
+        if (newLikes.isEmpty()) {
+            return;
+        }
+        Map<Long, String> articleTypes = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                        .select(Article::getId, Article::getType)
+                        .in(Article::getId, newLikes.keySet()))
+                .stream()
+                .filter(article -> article.getType() != null)
+                .collect(Collectors.toMap(Article::getId, Article::getType));
+
+        long now = System.currentTimeMillis();
+        long epoch = now / EPOCH_PERIOD;
+        double weight = Math.pow(2, (double) (now - epoch * EPOCH_PERIOD) / likeProperties.getTrendingHalfLife());
+        Set<String> touchedKeys = new HashSet<>();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                ZSetOperations<String, Object> zSetOperations = redisOperations.opsForZSet();
+                newLikes.forEach((articleId, count) -> {
+                    String member = articleId.toString();
+                    String allKey = trendingKey(ALL_TYPES, epoch);
+                    zSetOperations.incrementScore(allKey, member, count * weight);
+                    touchedKeys.add(allKey);
+                    String type = articleTypes.get(articleId);
+                    if (type != null) {
+                        String typeKey = trendingKey(type, epoch);
+                        zSetOperations.incrementScore(typeKey, member, count * weight);
+                        touchedKeys.add(typeKey);
+                    }
+                });
+                for (String key : touchedKeys) {
+                    // 只保留热度最高的博文，上一周期的ZSET在读取合并时仍需使用
+                    zSetOperations.removeRange(key, 0, -likeProperties.getTrendingSize() - 1);
+                    redisOperations.expire(key, 2 * EPOCH_PERIOD + TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 当前热度最高的博文ID
+     * @param type 博文类型，为空时返回全站榜
+     * @param limit 返回数量
+     * @return 按热度从高到低排序的博文ID
+     */
+    public List<Long> topArticleIds(String type, int limit) {
+        String scope = type == null || type.isEmpty() ? ALL_TYPES : type;
+        String resultKey = ARTICLE_TRENDING + scope + ":top";
+        if (!Boolean.TRUE.equals(redisTemplate.hasKey(resultKey))) {
+            // 合并当前周期与上一周期，多个请求同时重建时结果一致，无需加锁
+            long epoch = System.currentTimeMillis() / EPOCH_PERIOD;
+            double previousWeight = Math.pow(2, -(double) EPOCH_PERIOD / likeProperties.getTrendingHalfLife());
+            redisTemplate.opsForZSet().unionAndStore(trendingKey(scope, epoch),
+                    Collections.singletonList(trendingKey(scope, epoch - 1)),
+                    resultKey, Aggregate.SUM, Weights.of(1, previousWeight));
+            redisTemplate.expire(resultKey, likeProperties.getTrendingCacheTtl(), TimeUnit.MILLISECONDS);
+        }
+        Set<Object> members = redisTemplate.opsForZSet().reverseRange(resultKey, 0, limit - 1);
+        if (members == null) {
+            return Collections.emptyList();
+        }
+        return members.stream().map(member -> Long.valueOf(member.toString())).toList();
+    }
+
+    private String trendingKey(String scope, long epoch) {
+        return ARTICLE_TRENDING + scope + ":" + epoch;
+    }
+}
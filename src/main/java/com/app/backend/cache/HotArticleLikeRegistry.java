@@ -0,0 +1,491 @@
+package com.app.backend.cache;
+
+import com.app.backend.config.properties.LikeProperties;
+import com.app.backend.entity.Like;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_LIKED_USERS;
+import static com.app.backend.constant.RedisConstant.ARTICLE_LIKE_RATE;
+import static com.app.backend.constant.RedisConstant.ARTICLE_LIKE_SPLIT;
+import static com.app.backend.constant.RedisConstant.ARTICLE_LIKE_SPLITTING;
+import static com.app.backend.constant.RedisConstant.ARTICLE_LIKE_VERSION;
+import static com.app.backend.constant.RedisConstant.HOT_LIKE_ARTICLES;
+
+/**
+ * 博文点赞Set及热点博文拆分
+ * 原Set为 article:liked:users:{articleId}，与版本号、拆分标记共用哈希标签，落在同一个slot；
+ * 热点博文按userId拆分出子Set article:liked:users:{articleId:shard}，shard = userId % hotShards，
+ * 每个子Set带有自己的版本号 article:liked:version:{articleId:shard}，分散到不同的Redis分片；
+ * 每个脚本只访问同一个哈希标签下的key，可以在Redis Cluster上执行。
+ * 原Set和子Set都固定包含占位成员，原Set不存在时说明尚未加载，需要从数据库重建；
+ * 读取时以拆分标记为准，标记存在时汇总原Set和所有子Set，不依赖本节点对热点博文的感知；
+ * 拆分完成后才发布到热点博文列表，感知延迟期间的点赞写入原Set，同样会被汇总
+ */
+@Slf4j
+@Component
+public class HotArticleLikeRegistry {
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private LikeProperties likeProperties;
+
+    // Set中固定包含的占位成员，Set存在即说明已完整加载，点赞数为SCARD减一
+    public static final String PLACEHOLDER_MEMBER = "0";
+
+    // 版本号的过期时间（秒），只需覆盖从读取版本号到写回Set之间的加载耗时
+    public static final long VERSION_TTL_SECONDS = 3600;
+
+    // 拆分或合并热点博文时持有的锁，同一博文同一时刻只有一个节点调整
+    private static final Duration SPLITTING_TIMEOUT = Duration.ofMinutes(1);
+
+    // 递增Set的版本号，Set存在时增删成员；Set不存在时返回-1，由调用方决定是否改写原Set
+    private static final DefaultRedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end " +
+            "if ARGV[2] == '1' then return redis.call('SADD', KEYS[1], ARGV[1]) end " +
+            "return redis.call('SREM', KEYS[1], ARGV[1])", Long.class);
+
+    // Set不存在、未拆分（原Set才带拆分标记KEYS[3]）且读取数据源期间版本号未变化时才整体写入，成员过多时分段SADD
+    private static final DefaultRedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "if KEYS[3] and redis.call('EXISTS', KEYS[3]) == 1 then return 0 end " +
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "for i = 2, #ARGV, 1000 do " +
+            "redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end " +
+            "return 1", Long.class);
+
+    // 原Set仍存在时写入拆分标记，并移除已迁移到子Set的成员；迁移之后写入原Set的成员保留
+    private static final DefaultRedisScript<Long> SPLIT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('SET', KEYS[2], '1') " +
+            "for i = 1, #ARGV, 1000 do " +
+            "redis.call('SREM', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end " +
+            "return 1", Long.class);
+
+    // 删除Set（原Set同时删除拆分标记KEYS[3]）并递增版本号，使进行中的加载作废
+    private static final DefaultRedisScript<Long> DROP_SCRIPT = new DefaultRedisScript<>(
+            "local removed = redis.call('DEL', KEYS[1]) " +
+            "if KEYS[3] then redis.call('DEL', KEYS[3]) end " +
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+            "return removed", Long.class);
+
+    private final Set<Long> hotArticles = ConcurrentHashMap.newKeySet();
+
+    public boolean isHot(Long articleId) {
+        return hotArticles.contains(articleId);
+    }
+
+    /**
+     * 按点赞记录的最终状态写入博文一侧的点赞关系
+     * 每次写入都递增对应Set的版本号，使读取版本号之后才开始的加载结果作废；
+     * 热点博文的点赞只写入userId对应的子Set，子Set不存在（已合并）时改写原Set；
+     * 取消点赞不依赖本节点对热点博文的感知，只清理原Set和userId对应的一个子Set，成员不会出现在其他子Set中
+     */
+    public void writeLikes(List<Like> likes) {
+        // 本节点的热点博文列表会被定时刷新，路由结果先固定下来，按同样的顺序解析pipeline返回值
+        List<Boolean> routed = likes.stream().map(like -> like.getStatus() == 1 && isHot(like.getArticleId().longValue())).toList();
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (int i = 0; i < likes.size(); i++) {
+                    Like like = likes.get(i);
+                    Long articleId = like.getArticleId().longValue();
+                    int shard = shardOf(like.getUserId());
+                    if (!routed.get(i)) {
+                        write(redisOperations, List.of(setKey(articleId), versionKey(articleId)), like);
+                    }
+                    if (routed.get(i) || like.getStatus() != 1) {
+                        write(redisOperations, List.of(shardKey(articleId, shard), shardVersionKey(articleId, shard)), like);
+                    }
+                }
+                return null;
+            }
+        });
+
+        List<Like> unrouted = new ArrayList<>();
+        int reply = 0;
+        for (int i = 0; i < likes.size(); i++) {
+            if (routed.get(i) && Long.valueOf(-1).equals(replies.get(reply))) {
+                unrouted.add(likes.get(i));
+            }
+            reply += routed.get(i) || likes.get(i).getStatus() == 1 ? 1 : 2;
+        }
+        if (unrouted.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                unrouted.forEach(like -> write(redisOperations,
+                        List.of(setKey(like.getArticleId().longValue()), versionKey(like.getArticleId().longValue())), like));
+                return null;
+            }
+        });
+    }
+
+    private void write(RedisOperations<String, Object> operations, List<String> keys, Like like) {
+        operations.execute(WRITE_SCRIPT, keys, like.getUserId().toString(),
+                like.getStatus() == 1 ? "1" : "0", String.valueOf(VERSION_TTL_SECONDS));
+    }
+
+    /**
+     * 两次pipeline读取已加载博文的点赞数：先取原Set的SCARD和拆分标记，再汇总已拆分博文的所有子Set
+     * @return 博文ID到点赞数的映射，原Set不存在（尚未加载）的博文不包含在内
+     */
+    public Map<Long, Long> readCounts(List<Long> articleIds) {
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (Long articleId : articleIds) {
+                    redisOperations.opsForSet().size(setKey(articleId));
+                    redisOperations.hasKey(splitKey(articleId));
+                }
+                return null;
+            }
+        });
+        Map<Long, Long> result = new HashMap<>();
+        List<Long> splitIds = new ArrayList<>();
+        for (int i = 0; i < articleIds.size(); i++) {
+            Long size = (Long) replies.get(2 * i);
+            if (size != null && size > 0) {
+                result.put(articleIds.get(i), size - 1);
+                if (Boolean.TRUE.equals(replies.get(2 * i + 1))) {
+                    splitIds.add(articleIds.get(i));
+                }
+            }
+        }
+        if (splitIds.isEmpty()) {
+            return result;
+        }
+
+        int shards = likeProperties.getHotShards();
+        List<Object> shardSizes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (Long articleId : splitIds) {
+                    for (int shard = 0; shard < shards; shard++) {
+                        redisOperations.opsForSet().size(shardKey(articleId, shard));
+                    }
+                }
+                return null;
+            }
+        });
+        for (int i = 0; i < splitIds.size(); i++) {
+            long size = 0;
+            for (int shard = 0; shard < shards; shard++) {
+                Long shardSize = (Long) shardSizes.get(i * shards + shard);
+                if (shardSize != null && shardSize > 0) {
+                    size += shardSize - 1;
+                }
+            }
+            result.merge(splitIds.get(i), size, Long::sum);
+        }
+        return result;
+    }
+
+    /**
+     * 一次pipeline读取博文原Set的版本号，需在查询数据库之前调用
+     * @return 博文ID到版本号的映射，版本号不存在时为"0"
+     */
+    public Map<Long, String> readVersions(List<Long> articleIds) {
+        List<Object> versions = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                articleIds.forEach(articleId -> redisOperations.opsForValue().get(versionKey(articleId)));
+                return null;
+            }
+        });
+        Map<Long, String> result = new HashMap<>();
+        for (int i = 0; i < articleIds.size(); i++) {
+            Object version = versions.get(i);
+            result.put(articleIds.get(i), version != null ? version.toString() : "0");
+        }
+        return result;
+    }
+
+    /**
+     * 把从数据库读取的点赞用户整体写入博文的原Set，可在pipeline中调用
+     * 原Set已存在、博文已拆分或版本号已变化时不写入，避免覆盖或复活加载期间同步的变更；
+     * 已拆分的博文原Set缺失时不重建，读取点赞数一直回源数据库，直到合并时清理子Set
+     * @param version 查询数据库之前读取的版本号
+     * @param userIds 博文当前的点赞用户，可以为空（写入只有占位成员的Set，缓存点赞数0）
+     */
+    public void loadLikes(RedisOperations<String, Object> operations, Long articleId, String version, List<String> userIds) {
+        List<Object> args = new ArrayList<>(userIds.size() + 2);
+        args.add(version);
+        args.add(PLACEHOLDER_MEMBER);
+        args.addAll(userIds);
+        operations.execute(LOAD_SCRIPT, List.of(setKey(articleId), versionKey(articleId), splitKey(articleId)), args.toArray());
+    }
+
+    /**
+     * 累计本批次各博文新增的点赞次数，超过阈值的博文升级为热点博文
+     * @param likesPerArticle 博文ID到本批次点赞次数的映射
+     */
+    public void recordLikes(Map<Long, Long> likesPerArticle) {
+        List<Long> articleIds = new ArrayList<>(likesPerArticle.keySet());
+        if (articleIds.isEmpty()) {
+            return;
+        }
+        // 按分钟划分计数窗口，热点博文同样计数，用于判断是否可以合并
+        long window = System.currentTimeMillis() / 60000;
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (Long articleId : articleIds) {
+                    String rateKey = ARTICLE_LIKE_RATE + articleId + ":" + window;
+                    redisOperations.opsForValue().increment(rateKey, likesPerArticle.get(articleId));
+                    redisOperations.expire(rateKey, 2, TimeUnit.MINUTES);
+                }
+                return null;
+            }
+        });
+        for (int i = 0; i < articleIds.size(); i++) {
+            Long rate = (Long) replies.get(2 * i);
+            if (rate != null && rate >= likeProperties.getHotThreshold() && !isHot(articleIds.get(i))) {
+                promote(articleIds.get(i));
+            }
+        }
+    }
+
+    /**
+     * 从Redis同步热点博文列表，并把上一分钟和当前分钟点赞速率都低于阈值一半的热点博文合并回原Set
+     */
+    @Scheduled(fixedDelayString = "#{@likeProperties.hotRefreshInterval}")
+    public void refresh() {
+        try {
+            Set<Object> members = redisTemplate.opsForSet().members(HOT_LIKE_ARTICLES);
+            Set<Long> current = new HashSet<>();
+            if (members != null) {
+                members.forEach(member -> current.add(Long.valueOf(member.toString())));
+            }
+            hotArticles.addAll(current);
+            hotArticles.retainAll(current);
+            demoteCooledArticles(new ArrayList<>(current));
+        } catch (Exception e) {
+            log.warn("同步热点博文列表失败", e);
+        }
+    }
+
+    private void demoteCooledArticles(List<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+        long window = System.currentTimeMillis() / 60000;
+        List<Object> rates = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (Long articleId : articleIds) {
+                    redisOperations.opsForValue().get(ARTICLE_LIKE_RATE + articleId + ":" + window);
+                    redisOperations.opsForValue().get(ARTICLE_LIKE_RATE + articleId + ":" + (window - 1));
+                }
+                return null;
+            }
+        });
+        long coolThreshold = likeProperties.getHotThreshold() / 2;
+        for (int i = 0; i < articleIds.size(); i++) {
+            if (rateOf(rates.get(2 * i)) < coolThreshold && rateOf(rates.get(2 * i + 1)) < coolThreshold) {
+                demote(articleIds.get(i));
+            }
+        }
+    }
+
+    private long rateOf(Object rate) {
+        return rate == null ? 0 : Long.parseLong(rate.toString());
+    }
+
+    /**
+     * 将博文拆分为热点博文，完成后才加入热点博文列表，此前所有节点仍写入原Set
+     * 先读取子Set版本号，再按userId把原Set的成员写入各自的子Set；期间有取消点赞写入子Set时版本号变化，
+     * 该子Set不写入，本次拆分放弃并删除已写入的子Set，等待下一批点赞再次触发；
+     * 移除原Set成员之后再次核对版本号，期间有取消点赞时删除原Set和子Set，由下次读取从数据库重建
+     */
+    private void promote(Long articleId) {
+        String lockKey = ARTICLE_LIKE_SPLITTING + articleId;
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "1", SPLITTING_TIMEOUT))) {
+            return;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(splitKey(articleId)))) {
+                // 已由其他节点拆分
+                publishHot(articleId);
+                return;
+            }
+            int shards = likeProperties.getHotShards();
+            List<String> versions = readShardVersions(articleId);
+            Set<Object> members = redisTemplate.opsForSet().members(setKey(articleId));
+            if (members == null || members.isEmpty()) {
+                // 原Set尚未加载，等待加载后再拆分
+                return;
+            }
+
+            List<List<String>> shardMembers = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                shardMembers.add(new ArrayList<>());
+            }
+            List<String> migrated = new ArrayList<>();
+            for (Object member : members) {
+                String userId = member.toString();
+                if (!PLACEHOLDER_MEMBER.equals(userId)) {
+                    shardMembers.get(shardOf(Long.valueOf(userId))).add(userId);
+                    migrated.add(userId);
+                }
+            }
+            List<Object> loaded = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    for (int shard = 0; shard < shards; shard++) {
+                        List<Object> args = new ArrayList<>(shardMembers.get(shard).size() + 2);
+                        args.add(versions.get(shard));
+                        args.add(PLACEHOLDER_MEMBER);
+                        args.addAll(shardMembers.get(shard));
+                        redisOperations.execute(LOAD_SCRIPT,
+                                List.of(shardKey(articleId, shard), shardVersionKey(articleId, shard)), args.toArray());
+                    }
+                    return null;
+                }
+            });
+            if (loaded.stream().anyMatch(reply -> !Long.valueOf(1).equals(reply))
+                    || !Long.valueOf(1).equals(redisTemplate.execute(SPLIT_SCRIPT,
+                            List.of(setKey(articleId), splitKey(articleId)), migrated.toArray()))) {
+                log.info("博文{}拆分期间点赞关系发生变化，放弃本次拆分", articleId);
+                dropShards(articleId);
+                return;
+            }
+            if (!versions.equals(readShardVersions(articleId))) {
+                // 写入子Set之后、移除原Set成员之前有取消点赞，重新点赞可能已写入原Set并被移除，整体从数据库重建
+                log.info("博文{}拆分期间有取消点赞，删除点赞Set等待从数据库重建", articleId);
+                dropShards(articleId);
+                redisTemplate.execute(DROP_SCRIPT, List.of(setKey(articleId), versionKey(articleId), splitKey(articleId)),
+                        String.valueOf(VERSION_TTL_SECONDS));
+                return;
+            }
+            publishHot(articleId);
+            log.info("博文{}点赞过于集中，已拆分为{}个子Set, 迁移{}个点赞用户", articleId, shards, migrated.size());
+        } finally {
+            redisTemplate.delete(lockKey);
+        }
+    }
+
+    /**
+     * 将热点博文降级：先删除所有子Set，再删除原Set和拆分标记，由下次读取从数据库重建未拆分的原Set
+     * 删除子Set后感知延迟的节点写入子Set失败，改写原Set，原Set删除时递增版本号，加载期间的写入不会丢失
+     */
+    private void demote(Long articleId) {
+        String lockKey = ARTICLE_LIKE_SPLITTING + articleId;
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, "1", SPLITTING_TIMEOUT))) {
+            return;
+        }
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(HOT_LIKE_ARTICLES, articleId.toString()))) {
+                // 已由其他节点合并
+                hotArticles.remove(articleId);
+                return;
+            }
+            dropShards(articleId);
+            redisTemplate.execute(DROP_SCRIPT, List.of(setKey(articleId), versionKey(articleId), splitKey(articleId)),
+                    String.valueOf(VERSION_TTL_SECONDS));
+            redisTemplate.opsForSet().remove(HOT_LIKE_ARTICLES, articleId.toString());
+            hotArticles.remove(articleId);
+            log.info("博文{}点赞速率已回落，已删除{}个子Set，点赞Set将从数据库重建", articleId, likeProperties.getHotShards());
+        } finally {
+            redisTemplate.delete(lockKey);
+        }
+    }
+
+    private void publishHot(Long articleId) {
+        redisTemplate.opsForSet().add(HOT_LIKE_ARTICLES, articleId.toString());
+        hotArticles.add(articleId);
+    }
+
+    private List<String> readShardVersions(Long articleId) {
+        List<Object> versions = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (int shard = 0; shard < likeProperties.getHotShards(); shard++) {
+                    redisOperations.opsForValue().get(shardVersionKey(articleId, shard));
+                }
+                return null;
+            }
+        });
+        return versions.stream().map(version -> version != null ? version.toString() : "0").toList();
+    }
+
+    private void dropShards(Long articleId) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (int shard = 0; shard < likeProperties.getHotShards(); shard++) {
+                    redisOperations.execute(DROP_SCRIPT, List.of(shardKey(articleId, shard), shardVersionKey(articleId, shard)),
+                            String.valueOf(VERSION_TTL_SECONDS));
+                }
+                return null;
+            }
+        });
+    }
+
+    private String setKey(Long articleId) {
+        return ARTICLE_LIKED_USERS + "{" + articleId + "}";
+    }
+
+    private String versionKey(Long articleId) {
+        return ARTICLE_LIKE_VERSION + "{" + articleId + "}";
+    }
+
+    private String splitKey(Long articleId) {
+        return ARTICLE_LIKE_SPLIT + "{" + articleId + "}";
+    }
+
+    private String shardKey(Long articleId, int shard) {
+        return ARTICLE_LIKED_USERS + "{" + articleId + ":" + shard + "}";
+    }
+
+    private String shardVersionKey(Long articleId, int shard) {
+        return ARTICLE_LIKE_VERSION + "{" + articleId + ":" + shard + "}";
+    }
+
+    private int shardOf(Long userId) {
+        return (int) Math.floorMod(userId, (long) likeProperties.getHotShards());
+    }
+}
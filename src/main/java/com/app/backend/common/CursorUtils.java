@@ -0,0 +1,47 @@
+package com.app.backend.common;
+
+import com.app.backend.exception.BizException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 游标分页工具类
+ * 游标由排序方式、最后一条记录的排序值和ID组成，Base64编码后返回给前端，前端原样回传即可
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 生成游标
+     * @param sort 排序方式
+     * @param sortValue 最后一条记录的排序字段值
+     * @param id 最后一条记录的ID
+     * @return 游标
+     */
+    public static String encode(String sort, Object sortValue, Long id) {
+        String position = sort + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     * @param cursor 游标
+     * @param sort 当前请求的排序方式，必须与生成游标时一致
+     * @return 排序字段值和ID
+     */
+    public static String[] decode(String cursor, String sort) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\" + SEPARATOR, -1);
+            if (parts.length == 3 && parts[0].equals(sort) && !parts[1].isEmpty()) {
+                Long.parseLong(parts[2]);
+                return new String[]{parts[1], parts[2]};
+            }
+        } catch (IllegalArgumentException e) {
+            // 非法的Base64或ID，统一按无效游标处理
+        }
+        throw new BizException("无效的分页游标");
+    }
+}
@@ -0,0 +1,252 @@
+package com.app.backend.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 地理位置工具类
+ * geohash按经度、纬度交替二分编码，每5位映射为一个base32字符，前缀相同的点位于同一网格内，
+ * 因此范围查询可转换为对geohash索引的若干区间查询
+ */
+public class GeoUtils {
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    /**
+     * 存储的geohash长度，12位精度约为3.7cm x 1.9cm
+     */
+    public static final int GEOHASH_LENGTH = 12;
+
+    // 平均地球半径（米）
+    private static final double EARTH_RADIUS = 6371008.8;
+
+    // 每纬度对应的距离（米）
+    private static final double METERS_PER_DEGREE = 111320.0;
+
+    /**
+     * 计算geohash
+     * @param latitude 纬度
+     * @param longitude 经度
+     * @param length geohash长度
+     * @return geohash
+     */
+    public static String encode(double latitude, double longitude, int length) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        StringBuilder geohash = new StringBuilder(length);
+        boolean isLng = true;
+        int bit = 0, ch = 0;
+        while (geohash.length() < length) {
+            if (isLng) {
+                double mid = (minLng + maxLng) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLng = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLng = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            isLng = !isLng;
+            if (++bit == 5) {
+                geohash.append(BASE32.charAt(ch));
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return geohash.toString();
+    }
+
+    /**
+     * 计算覆盖矩形范围的geohash网格，选择网格数不超过maxCells的最大精度
+     * @return 网格geohash列表，范围过大无法用maxCells个网格覆盖时返回空列表
+     */
+    public static List<String> coverBox(double minLat, double maxLat, double minLng, double maxLng, int maxCells) {
+        for (int length = GEOHASH_LENGTH; length >= 1; length--) {
+            if (countCells(minLat, maxLat, minLng, maxLng, length) <= maxCells) {
+                return cellsInBox(minLat, maxLat, minLng, maxLng, length);
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 与矩形范围相交的指定精度的geohash网格数
+     */
+    public static long countCells(double minLat, double maxLat, double minLng, double maxLng, int length) {
+        double cellLat = cellHeight(length);
+        double cellLng = cellWidth(length);
+        return (cellIndex(maxLat, -90, 180, cellLat) - cellIndex(minLat, -90, 180, cellLat) + 1)
+                * (cellIndex(maxLng, -180, 360, cellLng) - cellIndex(minLng, -180, 360, cellLng) + 1);
+    }
+
+    /**
+     * 与矩形范围相交的指定精度的geohash网格，调用前应先通过countCells确认数量
+     */
+    public static List<String> cellsInBox(double minLat, double maxLat, double minLng, double maxLng, int length) {
+        List<String> cells = new ArrayList<>();
+        if (length == 0) {
+            // 精度为0时整个地球为一个网格
+            cells.add("");
+            return cells;
+        }
+        double cellLat = cellHeight(length);
+        double cellLng = cellWidth(length);
+        // 以每个网格的中心点计算其geohash
+        for (long i = cellIndex(minLat, -90, 180, cellLat); i <= cellIndex(maxLat, -90, 180, cellLat); i++) {
+            for (long j = cellIndex(minLng, -180, 360, cellLng); j <= cellIndex(maxLng, -180, 360, cellLng); j++) {
+                cells.add(encode(-90 + (i + 0.5) * cellLat, -180 + (j + 0.5) * cellLng, length));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 将geohash前缀转换为索引区间，前缀相邻的网格合并为一个区间
+     * 前缀p对应的区间为[p, p的下一个前缀)，用范围比较代替LIKE，多个前缀时优化器仍可对索引做区间扫描
+     * @param prefixes geohash网格
+     * @return 按起点升序排列的区间
+     */
+    public static List<GeohashRange> prefixRanges(List<String> prefixes) {
+        List<GeohashRange> ranges = new ArrayList<>();
+        List<String> sorted = prefixes.stream().distinct().sorted().toList();
+        String start = null;
+        String end = null;
+        for (String prefix : sorted) {
+            if (start != null && end != null && end.equals(prefix)) {
+                end = nextPrefix(prefix);
+                continue;
+            }
+            if (start != null) {
+                ranges.add(new GeohashRange(start, end));
+            }
+            start = prefix;
+            end = nextPrefix(prefix);
+        }
+        if (start != null) {
+            ranges.add(new GeohashRange(start, end));
+        }
+        return ranges;
+    }
+
+    /**
+     * 字典序上紧跟在所有以prefix开头的geohash之后的前缀，如"wx4"的下一个前缀为"wx5"，"wz"的下一个前缀为"x"
+     * @return 下一个前缀，prefix全部为z（没有更大的geohash）时返回null
+     */
+    public static String nextPrefix(String prefix) {
+        StringBuilder next = new StringBuilder(prefix);
+        while (next.length() > 0) {
+            int index = BASE32.indexOf(next.charAt(next.length() - 1));
+            if (index < BASE32.length() - 1) {
+                next.setCharAt(next.length() - 1, BASE32.charAt(index + 1));
+                return next.toString();
+            }
+            // 末位为z时进位
+            next.setLength(next.length() - 1);
+        }
+        return null;
+    }
+
+    /**
+     * 两点之间的球面距离（米）
+     */
+    public static double distance(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * 以某点为中心、radius为半径的圆的外接矩形，经度超出±180的部分被截掉，跨越±180经线时应使用boundingBoxes
+     * @return {minLat, maxLat, minLng, maxLng}
+     */
+    public static double[] boundingBox(double latitude, double longitude, double radius) {
+        double dLat = radius / METERS_PER_DEGREE;
+        double dLng = lngDelta(latitude, radius);
+        return new double[]{
+                Math.max(-90, latitude - dLat), Math.min(90, latitude + dLat),
+                Math.max(-180, longitude - dLng), Math.min(180, longitude + dLng)
+        };
+    }
+
+    /**
+     * 以某点为中心、radius为半径的圆的外接矩形，跨越±180经线时在经线处拆分为两个矩形
+     * @return {minLat, maxLat, minLng, maxLng}列表
+     */
+    public static List<double[]> boundingBoxes(double latitude, double longitude, double radius) {
+        double[] box = boundingBox(latitude, longitude, radius);
+        double dLng = lngDelta(latitude, radius);
+        List<double[]> boxes = new ArrayList<>();
+        boxes.add(box);
+        if (dLng >= 180) {
+            box[2] = -180;
+            box[3] = 180;
+        } else if (longitude - dLng < -180) {
+            boxes.add(new double[]{box[0], box[1], longitude - dLng + 360, 180});
+        } else if (longitude + dLng > 180) {
+            boxes.add(new double[]{box[0], box[1], -180, longitude + dLng - 360});
+        }
+        return boxes;
+    }
+
+    /**
+     * 外接矩形的经度半宽，圆覆盖或靠近两极时为180，即全部经度
+     */
+    private static double lngDelta(double latitude, double radius) {
+        double dLat = radius / METERS_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(latitude));
+        if (cos < 1e-6 || Math.abs(latitude) + dLat >= 90) {
+            return 180;
+        }
+        return Math.min(180, radius / (METERS_PER_DEGREE * cos));
+    }
+
+    private static double cellWidth(int length) {
+        int lngBits = (5 * length + 1) / 2;
+        return 360.0 / (1L << lngBits);
+    }
+
+    private static double cellHeight(int length) {
+        int latBits = 5 * length / 2;
+        return 180.0 / (1L << latBits);
+    }
+
+    private static long cellIndex(double value, double origin, double span, double cellSize) {
+        // 最大值落在边界上时归入最后一个网格
+        long lastIndex = Math.round(span / cellSize) - 1;
+        return Math.min(lastIndex, (long) Math.floor((value - origin) / cellSize));
+    }
+
+    /**
+     * geohash索引区间[start, end)，end为null时没有上界
+     */
+    public static class GeohashRange {
+
+        private final String start;
+
+        private final String end;
+
+        public GeohashRange(String start, String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getStart() {
+            return start;
+        }
+
+        public String getEnd() {
+            return end;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.app.backend.common;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 拼音工具类
+ */
+public class PinyinUtils {
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    /**
+     * 转换为不带声调的小写拼音，非汉字原样保留（字母转小写）
+     * 多音字（如重庆的重、厦门的厦）按各个读音组合，组合数达到maxVariants后不再展开，
+     * 各字都取最常用读音的组合总在第一个
+     * @param text 原文
+     * @param maxVariants 最多返回的读音组合数
+     * @return 各读音组合的{全拼, 首字母}，原文不含汉字时返回空列表
+     */
+    public static List<String[]> toPinyin(String text, int maxVariants) {
+        List<StringBuilder[]> variants = new ArrayList<>();
+        variants.add(new StringBuilder[]{new StringBuilder(), new StringBuilder()});
+        boolean hasChinese = false;
+        for (char ch : text.toCharArray()) {
+            Set<String> readings = readings(ch);
+            if (readings.isEmpty()) {
+                char lower = Character.toLowerCase(ch);
+                variants.forEach(variant -> {
+                    variant[0].append(lower);
+                    variant[1].append(lower);
+                });
+                continue;
+            }
+            hasChinese = true;
+            List<StringBuilder[]> expanded = new ArrayList<>();
+            for (StringBuilder[] variant : variants) {
+                for (String reading : readings) {
+                    if (expanded.size() >= maxVariants) {
+                        break;
+                    }
+                    expanded.add(new StringBuilder[]{
+                            new StringBuilder(variant[0]).append(reading),
+                            new StringBuilder(variant[1]).append(reading.charAt(0))
+                    });
+                }
+            }
+            variants = expanded;
+        }
+        List<String[]> result = new ArrayList<>();
+        if (hasChinese) {
+            variants.forEach(variant -> result.add(new String[]{variant[0].toString(), variant[1].toString()}));
+        }
+        return result;
+    }
+
+    /**
+     * 汉字去掉声调后的不同读音，非汉字返回空集合
+     */
+    private static Set<String> readings(char ch) {
+        Set<String> readings = new LinkedHashSet<>();
+        try {
+            String[] pinyin = PinyinHelper.toHanyuPinyinStringArray(ch, FORMAT);
+            if (pinyin != null) {
+                for (String reading : pinyin) {
+                    if (reading != null && !reading.isEmpty()) {
+                        readings.add(reading);
+                    }
+                }
+            }
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            // 输出格式固定，不会出现
+        }
+        return readings;
+    }
+}
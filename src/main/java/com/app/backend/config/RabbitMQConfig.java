@@ -3,9 +3,28 @@ package com.app.backend.config;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import com.app.backend.config.properties.LikeProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.app.backend.constant.RabbitMQConstant.*;
 
 @Configuration
@@ -26,6 +45,24 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(articleQueue()).to(maxWellExchange());
     }
 
+    /**
+     * 重试耗尽仍同步失败的Maxwell变更事件
+     */
+    @Bean
+    public Queue maxwellDeadQueue() {
+        return new Queue(MAXWELL_DEAD_QUEUE, true);
+    }
+
+    @Bean
+    public FanoutExchange maxwellDeadExchange() {
+        return new FanoutExchange(MAXWELL_DEAD_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Binding bindingMaxwellDeadFanout() {
+        return BindingBuilder.bind(maxwellDeadQueue()).to(maxwellDeadExchange());
+    }
+
     @Bean
     public Queue emailQueue() {
         return new Queue(EMAIL_QUEUE, true);
@@ -57,6 +94,9 @@ public class RabbitMQConfig {
     }
 
 
+    /**
+     * 旧的单队列点赞拓扑，仅保留用于消费升级前遗留的消息
+     */
     @Bean
     public Queue likeQueue() {
         return new Queue(LIKE_QUEUE, true);
@@ -72,6 +112,168 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(likeQueue()).to(likeExchange());
     }
 
+    /**
+     * 重试耗尽仍落库失败的点赞消息
+     */
+    @Bean
+    public Queue likeDeadQueue() {
+        return new Queue(LIKE_DEAD_QUEUE, true);
+    }
+
+    @Bean
+    public FanoutExchange likeDeadExchange() {
+        return new FanoutExchange(LIKE_DEAD_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Binding bindingLikeDeadFanout() {
+        return BindingBuilder.bind(likeDeadQueue()).to(likeDeadExchange());
+    }
+
+    @Bean
+    public DirectExchange likePartitionExchange() {
+        return new DirectExchange(LIKE_PARTITION_EXCHANGE, true, false);
+    }
+
+    /**
+     * 点赞分区队列，routingKey为分区号
+     * 队列开启single-active-consumer，多节点部署时每个分区同一时刻只有一个消费者，保证同一用户对同一博文的操作按序落库
+     */
+    @Bean
+    public Declarables likePartitionDeclarables(LikeProperties likeProperties) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int i = 0; i < likeProperties.getPartitionCount(); i++) {
+            Queue queue = QueueBuilder.durable(LIKE_PARTITION_QUEUE_PREFIX + i).singleActiveConsumer().build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(likePartitionExchange()).with(String.valueOf(i)));
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * 点赞消息批量消费容器
+     * 每个队列只有一个消费线程；每批最多拉取batchSize条消息，或等待receiveTimeout毫秒无新消息后交付当前批次；
+     * 监听方法正常返回（即批量落库提交）后才统一ack，抛出异常则按指数退避重试整批，重试耗尽后转入死信队列
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory likeBatchListenerFactory(ConnectionFactory connectionFactory,
+                                                                         LikeProperties likeProperties,
+                                                                         RabbitTemplate rabbitTemplate) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(likeProperties.getBatchSize());
+        factory.setReceiveTimeout(likeProperties.getReceiveTimeout());
+        factory.setPrefetchCount(likeProperties.getBatchSize());
+        factory.setAdviceChain(batchRetryInterceptor(rabbitTemplate, LIKE_DEAD_EXCHANGE));
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * 收藏队列，被拒绝的消息转入死信队列
+     */
+    @Bean
+    public Queue collectQueue() {
+        return QueueBuilder.durable(COLLECT_QUEUE)
+                .deadLetterExchange(COLLECT_DEAD_EXCHANGE)
+                .build();
+    }
+
+    @Bean
+    public FanoutExchange collectExchange() {
+        return new FanoutExchange(COLLECT_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Binding bindingCollectFanout() {
+        return BindingBuilder.bind(collectQueue()).to(collectExchange());
+    }
+
+    @Bean
+    public Queue collectDeadQueue() {
+        return new Queue(COLLECT_DEAD_QUEUE, true);
+    }
+
+    @Bean
+    public FanoutExchange collectDeadExchange() {
+        return new FanoutExchange(COLLECT_DEAD_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Binding bindingCollectDeadFanout() {
+        return BindingBuilder.bind(collectDeadQueue()).to(collectDeadExchange());
+    }
+
+    /**
+     * 收藏消息批量消费容器
+     * 单线程消费，保证同一用户对同一博文的操作按序落库
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory collectBatchListenerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(COLLECT_BATCH_SIZE);
+        factory.setReceiveTimeout(COLLECT_RECEIVE_TIMEOUT);
+        factory.setPrefetchCount(COLLECT_BATCH_SIZE);
+        // 不重新入队，避免落库持续失败的批次反复投递阻塞后续消息
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * Maxwell变更事件批量消费容器
+     * 单线程消费以保持binlog顺序，同一批次内的事件合并后统一更新缓存和索引；
+     * 单张表同步失败由消费者自行重试和转入死信，这里只兜底监听方法抛出的异常
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory maxwellBatchListenerFactory(ConnectionFactory connectionFactory,
+                                                                            RabbitTemplate rabbitTemplate) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(MAXWELL_BATCH_SIZE);
+        factory.setReceiveTimeout(MAXWELL_RECEIVE_TIMEOUT);
+        factory.setPrefetchCount(MAXWELL_BATCH_SIZE);
+        factory.setAdviceChain(batchRetryInterceptor(rabbitTemplate, MAXWELL_DEAD_EXCHANGE));
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
+    /**
+     * 批量监听方法的重试拦截器：在消费线程内按指数退避重试整批，重试耗尽后将整批消息转发到死信交换机并ack
+     * 旧版本创建的队列没有死信参数，重新声明会失败，因此由应用转发而不是依赖队列的x-dead-letter-exchange；
+     * 转发失败时整批重新入队，避免消息丢失
+     */
+    private RetryOperationsInterceptor batchRetryInterceptor(RabbitTemplate rabbitTemplate, String deadExchange) {
+        RepublishMessageRecoverer republisher = new RepublishMessageRecoverer(rabbitTemplate, deadExchange);
+        MessageBatchRecoverer recoverer = (messages, cause) -> {
+            try {
+                messages.forEach(message -> republisher.recover(message, cause));
+            } catch (AmqpException e) {
+                throw new ImmediateRequeueAmqpException("转入死信队列失败: " + deadExchange, e);
+            }
+        };
+        return RetryInterceptorBuilder.stateless()
+                .maxAttempts(LISTENER_MAX_ATTEMPTS)
+                .backOffOptions(LISTENER_RETRY_INITIAL_INTERVAL, LISTENER_RETRY_MULTIPLIER, LISTENER_RETRY_MAX_INTERVAL)
+                .recoverer(recoverer)
+                .build();
+    }
+
 
 
 }
@@ -1,11 +1,18 @@
 package com.app.backend.config;
 
+import com.app.backend.cache.ArticleDetailCache;
+import com.app.backend.cache.ArticleSuggestIndex;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import static com.app.backend.constant.RedisConstant.ARTICLE_DETAIL_INVALIDATE_CHANNEL;
+import static com.app.backend.constant.RedisConstant.ARTICLE_SUGGEST_CHANNEL;
+
 /**
  * Redis配置类
  */
@@ -27,4 +34,18 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
-}
\ No newline at end of file
+
+    /**
+     * 订阅博文详情失效和搜索联想变更广播，同步各节点的本地缓存和索引
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       ArticleDetailCache articleDetailCache,
+                                                                       ArticleSuggestIndex articleSuggestIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(articleDetailCache, new ChannelTopic(ARTICLE_DETAIL_INVALIDATE_CHANNEL));
+        container.addMessageListener(articleSuggestIndex, new ChannelTopic(ARTICLE_SUGGEST_CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.backend.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Objects;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "like")
+public class LikeProperties {
+
+    /**
+     * 点赞消息分区数（生产者与所有消费节点必须一致）
+     */
+    private Integer partitionCount = 4;
+
+    /**
+     * 每批最多消费的消息数
+     */
+    private Integer batchSize = 200;
+
+    /**
+     * 等待新消息的超时时间（毫秒），超时后交付当前批次
+     */
+    private Long receiveTimeout = 200L;
+
+    /**
+     * 点赞数增量刷入pd_article.like_count的间隔（毫秒）
+     */
+    private Long countFlushInterval = 5000L;
+
+    /**
+     * 启动时缓存为空是否从数据库预热点赞Set
+     */
+    private Boolean warmUpEnabled = true;
+
+    /**
+     * 预热时每批检查的博文数
+     */
+    private Integer warmUpBatchSize = 200;
+
+    /**
+     * 等待其他线程重建点赞Set的超时时间（毫秒），超时后直接查询数据库
+     */
+    private Long loadTimeout = 3000L;
+
+    /**
+     * 点赞消息发送缓冲区容量
+     */
+    private Integer publishBufferSize = 65536;
+
+    /**
+     * 每批发送并等待确认的消息数
+     */
+    private Integer publishBatchSize = 100;
+
+    /**
+     * 等待broker确认的超时时间（毫秒）
+     */
+    private Long confirmTimeout = 5000L;
+
+    /**
+     * broker不可用时本地日志文件路径
+     */
+    private String journalPath = "data/like-journal.dat";
+
+    /**
+     * 本地日志文件大小（字节）
+     */
+    private Integer journalSize = 64 * 1024 * 1024;
+
+    /**
+     * broker不可用时重试回放日志的间隔（毫秒）
+     */
+    private Long journalRetryInterval = 5000L;
+
+    /**
+     * 每分钟点赞次数达到该值的博文拆分为多个子Set
+     */
+    private Long hotThreshold = 1000L;
+
+    /**
+     * 热点博文拆分的子Set数量
+     */
+    private Integer hotShards = 8;
+
+    /**
+     * 从Redis同步热点博文列表的间隔（毫秒）
+     */
+    private Long hotRefreshInterval = 5000L;
+
+    /**
+     * 热度榜点赞权重的半衰期（毫秒）
+     */
+    private Long trendingHalfLife = 6 * 60 * 60 * 1000L;
+
+    /**
+     * 每个热度榜最多保留的博文数
+     */
+    private Integer trendingSize = 1000;
+
+    /**
+     * 热度榜合并结果的缓存时间（毫秒）
+     */
+    private Long trendingCacheTtl = 10000L;
+
+    /**
+     * 同一用户对同一博文的消息始终路由到同一分区，保证点赞/取消的先后顺序
+     */
+    public int partitionOf(Long userId, Integer articleId) {
+        return Math.floorMod(Objects.hash(userId, articleId), partitionCount);
+    }
+}
@@ -6,6 +6,14 @@ public interface RabbitMQConstant {
 
     String MAXWELL_EXCHANGE = "maxwell_exchange";
 
+    int MAXWELL_BATCH_SIZE = 500;
+
+    long MAXWELL_RECEIVE_TIMEOUT = 500L;
+
+    String MAXWELL_DEAD_QUEUE = "maxwell_dead_queue";
+
+    String MAXWELL_DEAD_EXCHANGE = "maxwell_dead_exchange";
+
     String EMAIL_QUEUE = "email_queue";
 
     String EMAIL_EXCHANGE = "email_exchange";
@@ -18,4 +26,33 @@ public interface RabbitMQConstant {
 
     String LIKE_EXCHANGE="like_exchange";
 
+    String LIKE_PARTITION_QUEUE_PREFIX = "like_queue_";
+
+    String LIKE_PARTITION_EXCHANGE = "like_partition_exchange";
+
+    String LIKE_DEAD_QUEUE = "like_dead_queue";
+
+    String LIKE_DEAD_EXCHANGE = "like_dead_exchange";
+
+    String COLLECT_QUEUE = "collect_queue";
+
+    String COLLECT_EXCHANGE = "collect_exchange";
+
+    String COLLECT_DEAD_QUEUE = "collect_dead_queue";
+
+    String COLLECT_DEAD_EXCHANGE = "collect_dead_exchange";
+
+    int COLLECT_BATCH_SIZE = 500;
+
+    long COLLECT_RECEIVE_TIMEOUT = 500L;
+
+    // 批量消费失败时的重试次数（含首次）及指数退避参数，重试耗尽后转入死信队列
+    int LISTENER_MAX_ATTEMPTS = 5;
+
+    long LISTENER_RETRY_INITIAL_INTERVAL = 1000L;
+
+    double LISTENER_RETRY_MULTIPLIER = 2.0;
+
+    long LISTENER_RETRY_MAX_INTERVAL = 30000L;
+
 }
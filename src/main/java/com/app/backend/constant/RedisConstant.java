@@ -0,0 +1,63 @@
+package com.app.backend.constant;
+
+public interface RedisConstant {
+
+    String USER_LIKED_ARTICLES = "user:liked:articles:";
+
+    String USER_LIKE_VERSION = "user:liked:version:";
+
+    String USER_COLLECTED_ARTICLES = "user:collected:articles:";
+
+    String USER_COLLECT_VERSION = "user:collected:version:";
+
+    String ARTICLE_COLLECT_COUNT = "article:collect:count:";
+
+    String ARTICLE_LIKED_USERS = "article:liked:users:";
+
+    String ARTICLE_LIKE_VERSION = "article:liked:version:";
+
+    String ARTICLE_LIKE_RATE = "article:like:rate:";
+
+    String HOT_LIKE_ARTICLES = "article:liked:hot";
+
+    String ARTICLE_LIKE_SPLIT = "article:liked:split:";
+
+    String ARTICLE_LIKE_SPLITTING = "article:liked:splitting:";
+
+    String ARTICLE_TRENDING = "article:trending:";
+
+    String ARTICLE_IMAGES = "article:images:";
+
+    String ARTICLE_IMAGES_VERSION = "article:images:version:";
+
+    String ARTICLE_PAGE = "article:page:";
+
+    String ARTICLE_PAGE_VERSION = "article:page:version:";
+
+    String ARTICLE_DETAIL = "article:detail:";
+
+    String ARTICLE_DETAIL_INVALIDATE_CHANNEL = "article:detail:invalidate";
+
+    String ARTICLE_RECENT_COMMENTS = "article:comments:recent:";
+
+    String ARTICLE_RECENT_COMMENTS_VERSION = "article:comments:recent:version:";
+
+    String ARTICLE_COMMENT_COUNT = "article:comment:count";
+
+    String ARTICLE_COMMENT_COUNT_VERSION = "article:comment:count:version:";
+
+    String COMMENT_COUNT_RECONCILING = "comment:count:reconciling";
+
+    String ARTICLE_CLUSTER = "article:cluster:";
+
+    String ARTICLE_CLUSTER_DIRTY = "article:cluster:dirty";
+
+    String ARTICLE_SUGGEST_CHANNEL = "article:suggest:sync";
+
+    String SEARCH_ARTICLE_PENDING = "search:article:pending";
+
+    String SEARCH_INDEX_REBUILDING = "search:index:rebuilding";
+
+    String LIKE_CACHE_WARMING = "like:cache:warming";
+
+}
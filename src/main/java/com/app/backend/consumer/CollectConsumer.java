@@ -0,0 +1,47 @@
+package com.app.backend.consumer;
+
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.service.CollectService;
+import com.app.backend.vo.CollectVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.app.backend.constant.RabbitMQConstant.COLLECT_QUEUE;
+
+@Slf4j
+@Component
+public class CollectConsumer {
+
+    @Autowired
+    private CollectService collectService;
+
+    /**
+     * 批量消费收藏消息，整批落库成功后由容器统一ack
+     * 无法解析的消息逐条丢弃；落库失败时整批拒绝，转入死信队列等待排查
+     */
+    @RabbitListener(queues = COLLECT_QUEUE, containerFactory = "collectBatchListenerFactory")
+    public void process(List<Message> messages) {
+        List<CollectVO> collectVOs = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            CollectVO collectVO;
+            try {
+                collectVO = JSON.parseObject(new String(message.getBody()), CollectVO.class);
+            } catch (Exception e) {
+                log.warn("丢弃无法解析的收藏消息: {}", new String(message.getBody()));
+                continue;
+            }
+            if (collectVO == null || collectVO.getUserId() == null || collectVO.getArticleId() == null || collectVO.getOperationType() == null) {
+                log.warn("丢弃无效的收藏消息: {}", new String(message.getBody()));
+                continue;
+            }
+            collectVOs.add(collectVO);
+        }
+        collectService.submitCollectMessages(collectVOs);
+    }
+}
@@ -1,26 +1,70 @@
 package com.app.backend.consumer;
 
 import com.alibaba.fastjson2.JSON;
+import com.app.backend.config.properties.LikeProperties;
 import com.app.backend.service.LikeService;
 import com.app.backend.vo.LikeVO;
-import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.app.backend.constant.RabbitMQConstant.LIKE_PARTITION_QUEUE_PREFIX;
 import static com.app.backend.constant.RabbitMQConstant.LIKE_QUEUE;
 
+@Slf4j
 @Component
-@RabbitListener(queues = LIKE_QUEUE)
-public class LikeConsumer {
+public class LikeConsumer implements RabbitListenerConfigurer {
 
     @Autowired
     private LikeService likeService;
 
-    @RabbitHandler
-    public void process(byte[] data){
-        LikeVO likeVO= JSON.parseObject(new String(data),LikeVO.class);
-        likeService.submitLikeMessage(likeVO);
+    @Autowired
+    private LikeProperties likeProperties;
+
+    @Autowired
+    @Qualifier("likeBatchListenerFactory")
+    private SimpleRabbitListenerContainerFactory likeBatchListenerFactory;
+
+    /**
+     * 为每个点赞分区队列注册一个单线程的批量消费者
+     */
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (int i = 0; i < likeProperties.getPartitionCount(); i++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("like-partition-" + i);
+            endpoint.setQueueNames(LIKE_PARTITION_QUEUE_PREFIX + i);
+            endpoint.setMessageListener((BatchMessageListener) this::process);
+            registrar.registerEndpoint(endpoint, likeBatchListenerFactory);
+        }
+    }
+
+    /**
+     * 批量消费点赞消息，整批落库成功后由容器统一ack
+     */
+    @RabbitListener(queues = LIKE_QUEUE, containerFactory = "likeBatchListenerFactory")
+    public void process(List<Message> messages){
+        List<LikeVO> likeVOs=new ArrayList<>(messages.size());
+        for(Message message : messages){
+            LikeVO likeVO= JSON.parseObject(new String(message.getBody()),LikeVO.class);
+            if(likeVO==null || likeVO.getUserId()==null || likeVO.getArticleId()==null || likeVO.getOperationType()==null){
+                log.warn("丢弃无效的点赞消息: {}", new String(message.getBody()));
+                continue;
+            }
+            likeVOs.add(likeVO);
+        }
+        likeService.submitLikeMessages(likeVOs);
     }
 
 }
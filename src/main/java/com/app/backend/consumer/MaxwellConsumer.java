@@ -0,0 +1,91 @@
+package com.app.backend.consumer;
+
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.dto.MaxwellEventDTO;
+import com.app.backend.service.MaxwellSyncService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.app.backend.constant.RabbitMQConstant.LISTENER_MAX_ATTEMPTS;
+import static com.app.backend.constant.RabbitMQConstant.LISTENER_RETRY_INITIAL_INTERVAL;
+import static com.app.backend.constant.RabbitMQConstant.LISTENER_RETRY_MAX_INTERVAL;
+import static com.app.backend.constant.RabbitMQConstant.LISTENER_RETRY_MULTIPLIER;
+import static com.app.backend.constant.RabbitMQConstant.MAXWELL_DEAD_EXCHANGE;
+import static com.app.backend.constant.RabbitMQConstant.MAXWELL_QUEUE;
+
+@Slf4j
+@Component
+public class MaxwellConsumer {
+
+    @Autowired
+    private MaxwellSyncService maxwellSyncService;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    // 只重试同步失败的表的事件，在消费线程内退避以保持binlog顺序
+    private final RetryTemplate retryTemplate = RetryTemplate.builder()
+            .maxAttempts(LISTENER_MAX_ATTEMPTS)
+            .exponentialBackoff(LISTENER_RETRY_INITIAL_INTERVAL, LISTENER_RETRY_MULTIPLIER, LISTENER_RETRY_MAX_INTERVAL)
+            .build();
+
+    /**
+     * 批量消费Maxwell变更事件，按批次同步缓存和搜索索引
+     * 无法解析的消息直接丢弃；某张表同步失败时只按指数退避重试该表的事件，重试耗尽后将对应消息转入死信队列，
+     * 整批消息随后正常ack，不会阻塞后续的变更事件
+     */
+    @RabbitListener(queues = MAXWELL_QUEUE, containerFactory = "maxwellBatchListenerFactory")
+    public void process(List<Message> messages) {
+        List<MaxwellEventDTO> events = new ArrayList<>(messages.size());
+        Map<MaxwellEventDTO, Message> sources = new IdentityHashMap<>();
+        for (Message message : messages) {
+            MaxwellEventDTO event;
+            try {
+                event = JSON.parseObject(new String(message.getBody()), MaxwellEventDTO.class);
+            } catch (Exception e) {
+                log.warn("丢弃无法解析的Maxwell消息: {}", new String(message.getBody()));
+                continue;
+            }
+            if (event == null || event.getTable() == null || event.getType() == null || event.getData() == null) {
+                // 建表、改表等DDL事件没有行数据
+                continue;
+            }
+            events.add(event);
+            sources.put(event, message);
+        }
+
+        AtomicReference<List<MaxwellEventDTO>> pending = new AtomicReference<>(events);
+        retryTemplate.execute(context -> {
+            List<MaxwellEventDTO> failed = maxwellSyncService.syncEvents(pending.get());
+            pending.set(failed);
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException("同步变更事件失败, 剩余" + failed.size() + "条");
+            }
+            return null;
+        }, context -> {
+            deadLetter(pending.get().stream().map(sources::get).toList(), context.getLastThrowable());
+            return null;
+        });
+    }
+
+    /**
+     * 转发到死信交换机，转发失败时异常抛给容器，由容器重试后整批转入死信或重新入队
+     */
+    private void deadLetter(List<Message> messages, Throwable cause) {
+        log.error("Maxwell变更事件重试{}次后仍同步失败，转入死信队列, 共{}条", LISTENER_MAX_ATTEMPTS, messages.size(), cause);
+        RepublishMessageRecoverer recoverer = new RepublishMessageRecoverer(rabbitTemplate, MAXWELL_DEAD_EXCHANGE);
+        messages.forEach(message -> recoverer.recover(message, cause));
+    }
+}
@@ -1,8 +1,11 @@
 package com.app.backend.controller;
 
+import com.app.backend.dto.ArticleClusterDTO;
+import com.app.backend.dto.CollectedArticleDTO;
+import com.app.backend.dto.NearbyArticlesDTO;
 import com.app.backend.dto.PagedArticleDTO;
 import com.app.backend.entity.ArticleImage;
-import com.app.backend.entity.Comment;
+import com.app.backend.enums.ArticleFieldsEnum;
 import com.app.backend.enums.FilePathEnum;
 import com.app.backend.service.*;
 import com.app.backend.strategy.context.UploadStrategyContext;
@@ -11,15 +14,24 @@ import com.app.backend.vo.ArticleVO;
 import com.app.backend.vo.PagedArticleVO;
 import com.app.backend.vo.ResultVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import com.app.backend.entity.Article;
 import com.app.backend.exception.UnauthorizedException;
 import org.checkerframework.checker.units.qual.A;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -44,9 +56,20 @@ public class ArticleController {
     @Autowired
     private LikeService likeService;
 
+    @Autowired
+    private CollectService collectService;
+
     @Autowired
     private CommentService commentService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 流式输出时每写出多少篇博文flush一次
+    private static final int STREAM_FLUSH_SIZE = 100;
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     
     /**
      * 从请求中获取用户ID
@@ -79,7 +102,7 @@ public class ArticleController {
             ArticleImage articleImage =new ArticleImage();
             articleImage.setArticleId(articleId);
             articleImage.setImageUrl(url);
-            articleImage.setOrderIndex(idx);
+            articleImage.setOrderIndex(idx++);
             articleImagesToSave.add(articleImage);
         }
 
@@ -98,12 +121,69 @@ public class ArticleController {
     }
     
     /**
-     * 根据类型查询博文列表
+     * 根据类型查询博文列表，边从数据库读取边写出，内存占用与博文数量无关
+     * 请求头Accept包含application/x-ndjson时每行输出一篇博文，否则输出{"success":true,"articles":[...]}
+     * fields可选card、map-pin，只返回列表卡片或地图标记点需要的字段
      */
     @GetMapping("/type/{type}")
-    public Map<String, Object> getArticlesByType(@PathVariable String type) {
-        List<Article> articles = articleService.getArticlesByType(type);
-        
+    public void getArticlesByType(@PathVariable String type,
+                                  @RequestParam(required = false) String fields,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                  HttpServletResponse response) throws IOException {
+        ArticleFieldsEnum articleFields = ArticleFieldsEnum.getFields(fields);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (!articleService.isValidType(type)) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("message", "无效的博文类型");
+            body.put("success", false);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+            return;
+        }
+
+        boolean ndjson = accept != null && accept.contains(APPLICATION_NDJSON);
+        response.setContentType(ndjson ? APPLICATION_NDJSON : MediaType.APPLICATION_JSON_VALUE);
+        // 逐篇写出时不自动flush，改为每STREAM_FLUSH_SIZE篇flush一次
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        try (JsonGenerator generator = writer.createGenerator(response.getOutputStream())) {
+            if (!ndjson) {
+                generator.writeStartObject();
+                generator.writeBooleanField("success", true);
+                generator.writeArrayFieldStart("articles");
+            }
+            int[] written = {0};
+            articleService.streamArticlesByType(type, articleFields, article -> {
+                try {
+                    writer.writeValue(generator, article);
+                    if (++written[0] % STREAM_FLUSH_SIZE == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    // 客户端断开时中止读取，游标随事务关闭
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (ndjson) {
+                generator.writeRaw('\n');
+            } else {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+    }
+
+    /**
+     * 分页查询博文（按类型），每页最多100篇
+     */
+    @GetMapping("/type/{type}/page")
+    public Map<String, Object> getArticlesByTypePaged(@PathVariable String type,
+                                                      @RequestParam(required = false) String fields,
+                                                      @RequestParam(defaultValue = "1") Integer page,
+                                                      @RequestParam(defaultValue = "10") Integer size) {
+        IPage<Object> articles = articleService.getArticlesByTypePaged(type, ArticleFieldsEnum.getFields(fields), page, size);
+
         Map<String, Object> response = new HashMap<>();
         if (articles != null) {
             response.put("articles", articles);
@@ -112,26 +192,63 @@ public class ArticleController {
             response.put("message", "无效的博文类型");
             response.put("success", false);
         }
-        
+
+        return response;
+    }
+
+    /**
+     * 热门机位榜
+     */
+    @GetMapping("/trending")
+    public Map<String, Object> getTrendingArticles(@RequestParam(required = false) String type,
+                                                   @RequestParam(defaultValue = "10") Integer limit) {
+        List<Article> articles = articleService.getTrendingArticles(type, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        if (articles != null) {
+            response.put("articles", articles);
+            response.put("success", true);
+        } else {
+            response.put("message", "无效的博文类型");
+            response.put("success", false);
+        }
+
         return response;
     }
     
+    /**
+     * 搜索联想
+     */
+    @GetMapping("/suggest")
+    public Map<String, Object> suggestArticles(@RequestParam String q,
+                                               @RequestParam(defaultValue = "10") Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("articles", articleService.suggestArticles(q, limit));
+        response.put("success", true);
+        return response;
+    }
+
     /**
      * 分页查询博文（按类型）
      */
     @PostMapping("/page")
     public IPage<PagedArticleDTO> getArticlesPaged(@RequestBody PagedArticleVO pagedArticleVO,
                                                 @RequestParam(defaultValue = "1") Integer page,
-                                                @RequestParam(defaultValue = "10") Integer size) {
+                                                @RequestParam(defaultValue = "10") Integer size,
+                                                @RequestAttribute("username") String username) {
+        // 点赞数直接取自pd_article.like_count，列表页不再访问点赞表
         IPage<PagedArticleDTO> articlePage = articleService.getArticlesPaged(pagedArticleVO);
 
+        // 一次批量查询当前用户对整页博文的点赞、收藏状态，以及整页博文的评论数
         List<Long> articleIds=articlePage.getRecords().stream().map(PagedArticleDTO::getId).toList();
-
-        Map<Long,Long> articleLikes=likeService.getLikeCountByArticleList(articleIds);
-
+        Long userId=getCurrentUserId(username).longValue();
+        Map<Long,Boolean> likeStatus=likeService.getLikeStatusByArticleList(userId,articleIds);
+        Map<Long,Boolean> collectStatus=collectService.getCollectStatusByArticleList(userId,articleIds);
+        Map<Long,Long> commentCounts=commentService.getCommentCountByArticleList(articleIds);
         for(PagedArticleDTO pagedArticleDTO : articlePage.getRecords()){
-            Long count=articleLikes.get(pagedArticleDTO.getId());
-            pagedArticleDTO.setLikeCount(count);
+            pagedArticleDTO.setLiked(likeStatus.get(pagedArticleDTO.getId()));
+            pagedArticleDTO.setCollected(collectStatus.get(pagedArticleDTO.getId()));
+            pagedArticleDTO.setCommentCount(commentCounts.get(pagedArticleDTO.getId()));
         }
 //        Map<String, Object> response = new HashMap<>();
 //        if (articlePage != null) {
@@ -153,7 +270,7 @@ public class ArticleController {
      * 获取我的博文列表
      */
     @PostMapping("/myArticle")
-    public IPage<Article> getMyArticles(@RequestBody  PagedArticleVO pagedArticleVO,
+    public IPage<Object> getMyArticles(@RequestBody  PagedArticleVO pagedArticleVO,
                                            @RequestParam(defaultValue = "1") Integer page,
                                            @RequestParam(defaultValue = "10") Integer size) {
 
@@ -165,7 +282,7 @@ public class ArticleController {
      * 获取我的博文列表
      */
     @PostMapping("/myCollect")
-    public IPage<Article> getMyACollect(@RequestBody  PagedArticleVO pagedArticleVO,
+    public IPage<CollectedArticleDTO> getMyACollect(@RequestBody  PagedArticleVO pagedArticleVO,
                                         @RequestParam(defaultValue = "1") Integer page,
                                         @RequestParam(defaultValue = "10") Integer size) {
 
@@ -179,8 +296,10 @@ public class ArticleController {
     public Map<String, Object> getArticlesByLocation(@RequestParam Double minLat,
                                                     @RequestParam Double maxLat,
                                                     @RequestParam Double minLng,
-                                                    @RequestParam Double maxLng) {
-        List<Article> articles = articleService.getArticlesByLocationRange(minLat, maxLat, minLng, maxLng);
+                                                    @RequestParam Double maxLng,
+                                                    @RequestParam(required = false) String fields) {
+        List<Object> articles = articleService.getArticlesByLocationRange(minLat, maxLat, minLng, maxLng,
+                ArticleFieldsEnum.getFields(fields));
         
         Map<String, Object> response = new HashMap<>();
         if (articles != null) {
@@ -194,6 +313,53 @@ public class ArticleController {
         return response;
     }
     
+    /**
+     * 地图聚合点，缩放级别越小聚合范围越大
+     */
+    @GetMapping("/clusters")
+    public Map<String, Object> getArticleClusters(@RequestParam Double minLat,
+                                                  @RequestParam Double maxLat,
+                                                  @RequestParam Double minLng,
+                                                  @RequestParam Double maxLng,
+                                                  @RequestParam Integer zoom) {
+        List<ArticleClusterDTO> clusters = articleService.getArticleClusters(minLat, maxLat, minLng, maxLng, zoom);
+
+        Map<String, Object> response = new HashMap<>();
+        if (clusters != null) {
+            response.put("clusters", clusters);
+            response.put("success", true);
+        } else {
+            response.put("message", "无效的地理位置参数");
+            response.put("success", false);
+        }
+
+        return response;
+    }
+    
+    /**
+     * 查询附近的博文，按距离由近到远排序
+     */
+    @GetMapping("/nearby")
+    public Map<String, Object> getNearbyArticles(@RequestParam Double lat,
+                                                 @RequestParam Double lng,
+                                                 @RequestParam(required = false) Double radius,
+                                                 @RequestParam(defaultValue = "20") Integer limit) {
+        NearbyArticlesDTO nearby = articleService.getNearbyArticles(lat, lng, radius, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        if (nearby != null) {
+            response.put("articles", nearby.getArticles());
+            response.put("radius", nearby.getRadius());
+            response.put("radiusCapped", nearby.getRadiusCapped());
+            response.put("success", true);
+        } else {
+            response.put("message", "无效的地理位置参数");
+            response.put("success", false);
+        }
+
+        return response;
+    }
+    
     /**
      * 更新博文
      */
@@ -254,28 +420,8 @@ public class ArticleController {
      */
     @GetMapping("/{id}")
     public ArticleDetailVO getArticleById(@PathVariable Long id) {
-        Article article = articleService.getById(id);
-        List<Long> articleId=new ArrayList<>();
-        articleId.add(article.getId());
-        Map<Long,Long> articleLikeCount=likeService.getLikeCountByArticleList(articleId);
-        ArticleDetailVO articleDetailVO=new ArticleDetailVO();
-
-        BeanUtils.copyProperties(article,articleDetailVO);
-        articleDetailVO.setLikeCount(articleLikeCount.get(article.getId()));
-
-        List<Comment> comments=commentService.getCommentsByArticleId(id);
-        articleDetailVO.setComments(comments);
-
-//        Map<String, Object> response = new HashMap<>();
-//        if (article != null) {
-//            response.put("article", article);
-//            response.put("success", true);
-//        } else {
-//            response.put("message", "博文不存在");
-//            response.put("success", false);
-//        }
-        
-        return articleDetailVO;
+        // 详情整体缓存，评论、编辑、点赞时由对应服务更新或失效
+        return articleService.getArticleDetail(id);
     }
 
 
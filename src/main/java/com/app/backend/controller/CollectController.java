@@ -0,0 +1,101 @@
+package com.app.backend.controller;
+
+import com.app.backend.service.CollectService;
+import com.app.backend.service.UserService;
+import com.app.backend.vo.CollectVO;
+import com.app.backend.vo.ResultVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 收藏控制器
+ */
+@RestController
+@RequestMapping("/api/collects")
+public class CollectController {
+
+    @Autowired
+    private CollectService collectService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * 获取当前用户ID
+     * @param username 从JWT token中解析出的用户名
+     * @return 用户ID
+     */
+    private Long getCurrentUserId(String username) {
+        Integer userId = userService.getUserIdByUsername(username);
+        if (userId == null) {
+            throw new RuntimeException("用户不存在");
+        }
+        return userId.longValue();
+    }
+
+    /**
+     * 切换收藏状态（收藏/取消收藏）
+     */
+    @PostMapping("/toggle/collect")
+    public ResultVO<?> toggleCollect(@RequestBody CollectVO collectVO,
+                                     @RequestAttribute("username") String username) {
+        try {
+            collectVO.setUserId(getCurrentUserId(username));
+            collectService.toggleCollect(collectVO);
+        } catch (Exception e) {
+            return ResultVO.fail("操作失败: " + e.getMessage());
+        }
+        return ResultVO.ok();
+    }
+
+    /**
+     * 检查用户是否已收藏某博文
+     */
+    @GetMapping("/status/{articleId}")
+    public ResultVO<Map<String, Object>> getCollectStatus(@PathVariable Long articleId,
+                                                         @RequestAttribute("username") String username) {
+        try {
+            Long userId = getCurrentUserId(username);
+            List<Long> articleIds = Collections.singletonList(articleId);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("isCollected", collectService.getCollectStatusByArticleList(userId, articleIds).get(articleId));
+            result.put("collectCount", collectService.getCollectCountByArticleList(articleIds).get(articleId));
+
+            return ResultVO.ok(result);
+        } catch (Exception e) {
+            return ResultVO.fail("查询失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量检查用户是否已收藏多篇博文
+     */
+    @PostMapping("/status/batch")
+    public ResultVO<Map<Long, Boolean>> getCollectStatusBatch(@RequestBody List<Long> articleIds,
+                                                             @RequestAttribute("username") String username) {
+        try {
+            Long userId = getCurrentUserId(username);
+            return ResultVO.ok(collectService.getCollectStatusByArticleList(userId, articleIds));
+        } catch (Exception e) {
+            return ResultVO.fail("查询失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量获取博文的收藏数量
+     */
+    @PostMapping("/count/batch")
+    public ResultVO<Map<Long, Long>> getCollectCountBatch(@RequestBody List<Long> articleIds) {
+        try {
+            return ResultVO.ok(collectService.getCollectCountByArticleList(articleIds));
+        } catch (Exception e) {
+            return ResultVO.fail("查询失败: " + e.getMessage());
+        }
+    }
+}
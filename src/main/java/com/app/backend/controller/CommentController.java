@@ -1,5 +1,6 @@
 package com.app.backend.controller;
 
+import com.app.backend.dto.CursorPage;
 import com.app.backend.entity.Comment;
 import com.app.backend.service.ArticleService;
 import com.app.backend.service.CommentService;
@@ -72,4 +73,39 @@ public class CommentController {
             return ResultVO.fail("评论添加失败: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 按评论时间倒序分页获取博文的评论
+     * @param cursor 上一页返回的nextCursor，为空时从最新一条开始
+     * @return 评论分页，不统计总数
+     */
+    @GetMapping("/article/{articleId}")
+    public ResultVO<CursorPage<Comment>> getComments(@PathVariable Long articleId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "10") Integer size) {
+        try {
+            return ResultVO.ok(commentService.getCommentsPaged(articleId, cursor, size));
+        } catch (Exception e) {
+            return ResultVO.fail("查询失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除自己的评论（软删除）
+     */
+    @DeleteMapping("/{commentId}")
+    public ResultVO<String> deleteComment(@PathVariable Integer commentId, @RequestAttribute("username") String username) {
+        try {
+            Integer userId = userService.getUserIdByUsername(username);
+            if (userId == null) {
+                return ResultVO.fail("用户不存在");
+            }
+            if (commentService.deleteComment(commentId, userId.longValue())) {
+                return ResultVO.ok("评论删除成功");
+            }
+            return ResultVO.fail("评论不存在或无权删除");
+        } catch (Exception e) {
+            return ResultVO.fail("评论删除失败: " + e.getMessage());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -76,6 +77,20 @@ public class LikeController {
         }
     }
     
+    /**
+     * 批量检查用户是否已点赞多篇博文
+     */
+    @PostMapping("/status/batch")
+    public ResultVO<Map<Long, Boolean>> getLikeStatusBatch(@RequestBody List<Long> articleIds,
+                                                          @RequestAttribute("username") String username) {
+        try {
+            Long userId = getCurrentUserId(username);
+            return ResultVO.ok(likeService.getLikeStatusByArticleList(userId, articleIds));
+        } catch (Exception e) {
+            return ResultVO.fail("查询失败: " + e.getMessage());
+        }
+    }
+    
     /**
      * 获取博文的点赞数量
      */
@@ -0,0 +1,34 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 博文卡片，不含描述、摄影提示等长文本
+ */
+@Data
+public class ArticleCardDTO {
+
+    private Long id;
+
+    private String title;
+
+    //地点名称
+    private String name;
+
+    private String type;
+
+    private String address;
+
+    private Long authorId;
+
+    private BigDecimal latitude;
+
+    private BigDecimal longitude;
+
+    private Long likeCount;
+
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,29 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 地图聚合点
+ */
+@Data
+public class ArticleClusterDTO {
+
+    //聚合网格的geohash
+    private String geohash;
+
+    //网格内博文数量
+    private Long count;
+
+    //网格内博文的中心点
+    private Double latitude;
+
+    private Double longitude;
+
+    //网格内点赞数最多的博文ID
+    private Long topArticleId;
+
+    //网格内各类型博文的数量
+    private Map<String, Long> types;
+}
@@ -0,0 +1,9 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class ArticleCollectDTO {
+    private Integer article;
+    private Integer collectCount;
+}
@@ -0,0 +1,10 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class ArticleLikeDeltaDTO {
+    private Long id;
+    private Long articleId;
+    private Long delta;
+}
@@ -0,0 +1,24 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 地图标记点
+ */
+@Data
+public class ArticleMapPinDTO {
+
+    private Long id;
+
+    private String title;
+
+    private String type;
+
+    private BigDecimal latitude;
+
+    private BigDecimal longitude;
+
+    private Long likeCount;
+}
@@ -0,0 +1,43 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.GeoPointField;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+
+/**
+ * 博文搜索索引文档，同时作为搜索结果返回匹配并高亮后的标题、地址
+ * 文本字段使用ES内置的cjk分析器（中日韩文字按二元组切分），单节点ES无需安装分词插件即可使用
+ * pd_article是指向带版本号的实际索引的别名，由EsSearchStrategyImpl在重建完成后切换，不自动创建
+ */
+@Data
+@Document(indexName = "pd_article", createIndex = false)
+public class ArticleSearchDTO {
+
+    @Id
+    @Field(type = FieldType.Long)
+    private Long id;
+
+    @Field(type = FieldType.Text, analyzer = "cjk")
+    private String title;
+
+    @Field(type = FieldType.Text, analyzer = "cjk")
+    private String name;
+
+    @Field(type = FieldType.Text, analyzer = "cjk")
+    private String address;
+
+    @Field(type = FieldType.Keyword)
+    private String type;
+
+    @GeoPointField
+    private GeoPoint location;
+
+    // 写入索引时的点赞数，仅用于sort=like排序，随博文同步和定时重建刷新
+    @Field(type = FieldType.Long)
+    private Long likeCount;
+
+}
@@ -0,0 +1,21 @@
+package com.app.backend.dto;
+
+import lombok.Data;
+
+/**
+ * 搜索联想结果
+ */
+@Data
+public class ArticleSuggestDTO {
+
+    private Long id;
+
+    private String title;
+
+    //地点名称
+    private String name;
+
+    private String address;
+
+    private Long likeCount;
+}
@@ -0,0 +1,20 @@
+package com.app.backend.dto;
+
+import com.app.backend.entity.Article;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户收藏的博文
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class CollectedArticleDTO extends Article {
+
+    //收藏记录ID，与收藏时间一起作为分页游标
+    private Long collectId;
+
+    private LocalDateTime collectTime;
+}
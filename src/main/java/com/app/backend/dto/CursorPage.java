@@ -0,0 +1,26 @@
+package com.app.backend.dto;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 支持游标的分页结果
+ * 按游标查询时不统计总数，total为0，是否还有下一页以nextCursor是否为空为准
+ */
+@Getter
+@Setter
+public class CursorPage<T> extends Page<T> {
+
+    /**
+     * 下一页游标，没有更多数据时为null
+     */
+    private String nextCursor;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(long current, long size) {
+        super(current, size);
+    }
+}
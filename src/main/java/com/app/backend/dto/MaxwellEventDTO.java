@@ -0,0 +1,31 @@
+package com.app.backend.dto;
+
+import com.alibaba.fastjson2.JSONObject;
+import lombok.Data;
+
+/**
+ * Maxwell解析binlog后发送的行变更事件
+ */
+@Data
+public class MaxwellEventDTO {
+
+    private String database;
+
+    private String table;
+
+    //insert/update/delete，全量同步时为bootstrap-insert
+    private String type;
+
+    //binlog时间戳（秒）
+    private Long ts;
+
+    private Long xid;
+
+    private Boolean commit;
+
+    //变更后的整行数据，删除时为删除前的数据
+    private JSONObject data;
+
+    //更新时被修改列的旧值
+    private JSONObject old;
+}
@@ -0,0 +1,14 @@
+package com.app.backend.dto;
+
+import com.app.backend.entity.Article;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NearbyArticleDTO extends Article {
+
+    //与查询位置的距离（米）
+    private Double distance;
+
+}
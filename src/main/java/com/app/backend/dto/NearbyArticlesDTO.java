@@ -0,0 +1,24 @@
+package com.app.backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 附近博文查询结果
+ */
+@Getter
+@Setter
+public class NearbyArticlesDTO {
+
+    //按距离由近到远排序的博文
+    private List<NearbyArticleDTO> articles;
+
+    //实际搜索的半径（米）
+    private Double radius;
+
+    //未指定半径时搜索已扩大到半径上限仍不足limit篇，更远的博文不会返回
+    private Boolean radiusCapped;
+
+}
@@ -10,8 +10,15 @@ import java.util.List;
 public class PagedArticleDTO extends Article {
     private List<String> accessUrls;
 
-    private Long likeCount;
-
     private String authorName;
 
+    //当前用户是否已点赞
+    private Boolean liked;
+
+    //当前用户是否已收藏
+    private Boolean collected;
+
+    //评论数量
+    private Long commentCount;
+
 }
@@ -1,6 +1,8 @@
 package com.app.backend.entity;
 
+import com.baomidou.mybatisplus.annotation.FieldStrategy;
 import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableId;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
@@ -61,6 +63,17 @@ public class Article implements Serializable {
     private String tools;
 
     private String address;
+
+    /**
+     * 经纬度的geohash，创建和修改位置时同步计算，用于地图范围和附近查询
+     */
+    private String geohash;
+
+    /**
+     * 点赞数量（由点赞增量定时累加，普通的插入和更新不写该字段）
+     */
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private Long likeCount;
     
     /**
      * 创建时间
@@ -0,0 +1,44 @@
+package com.app.backend.enums;
+
+import com.app.backend.exception.BizException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 博文列表返回的字段集，列与ArticleMapper.xml中的同名投影保持一致
+ * create_time和like_count用于生成分页游标，各字段集都需要包含
+ */
+@Getter
+@AllArgsConstructor
+public enum ArticleFieldsEnum {
+
+    CARD("card", Set.of("id", "title", "name", "type", "address", "author_id", "latitude", "longitude",
+            "like_count", "create_time")),
+
+    MAP_PIN("map-pin", Set.of("id", "title", "type", "latitude", "longitude", "like_count", "create_time")),
+
+    FULL("full", null);
+
+    private final String fields;
+
+    //需要查询的列，为null时查询全部列
+    private final Set<String> columns;
+
+    /**
+     * @param fields 请求中的字段集名称，为空时返回全部字段
+     */
+    public static ArticleFieldsEnum getFields(String fields) {
+        if (fields == null || fields.isEmpty()) {
+            return FULL;
+        }
+        for (ArticleFieldsEnum value : ArticleFieldsEnum.values()) {
+            if (value.getFields().equals(fields)) {
+                return value;
+            }
+        }
+        throw new BizException("无效的字段集: " + fields);
+    }
+
+}
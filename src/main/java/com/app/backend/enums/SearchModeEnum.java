@@ -0,0 +1,27 @@
+package com.app.backend.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum SearchModeEnum {
+
+    MYSQL("mysql", "mySqlSearchStrategyImpl"),
+
+    ELASTICSEARCH("elasticsearch", "esSearchStrategyImpl");
+
+    private final String mode;
+
+    private final String strategy;
+
+    public static String getStrategy(String mode) {
+        for (SearchModeEnum value : SearchModeEnum.values()) {
+            if (value.getMode().equals(mode)) {
+                return value.getStrategy();
+            }
+        }
+        return null;
+    }
+
+}
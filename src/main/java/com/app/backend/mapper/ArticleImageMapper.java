@@ -1,11 +1,20 @@
 package com.app.backend.mapper;
 
-import com.app.backend.entity.Article;
 import com.app.backend.entity.ArticleImage;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
-import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface ArticleImageMapper extends BaseMapper<ArticleImage> {
+
+    /**
+     * 批量查询多篇博文的图片，按博文ID、图片顺序排序
+     * @param articleIds 博文ID列表
+     * @return 图片列表
+     */
+    List<ArticleImage> findByArticleIds(@Param("articleIds") Collection<Long> articleIds);
 }
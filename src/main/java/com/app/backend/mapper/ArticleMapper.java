@@ -3,21 +3,27 @@ package com.app.backend.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.app.backend.common.GeoUtils;
+import com.app.backend.dto.ArticleLikeDeltaDTO;
 import com.app.backend.entity.Article;
+import com.app.backend.enums.ArticleFieldsEnum;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface ArticleMapper extends BaseMapper<Article> {
     
     /**
-     * 根据类型查询博文列表
+     * 流式读取某类型的博文，需在事务内使用
      * @param type 博文类型
-     * @return 博文列表
+     * @param fields 需要查询的字段集
+     * @return 按发布时间倒序的博文游标
      */
-    List<Article> findByType(@Param("type") String type);
+    Cursor<Article> findByType(@Param("type") String type, @Param("fields") ArticleFieldsEnum fields);
     
     /**
      * 根据作者ID查询博文列表
@@ -30,17 +36,19 @@ public interface ArticleMapper extends BaseMapper<Article> {
      * 分页查询博文（按类型）
      * @param page 分页对象
      * @param type 博文类型
+     * @param fields 需要查询的字段集
      * @return 分页结果
      */
-    IPage<Article> selectPageByType(Page<Article> page, @Param("type") String type);
+    IPage<Article> selectPageByType(Page<Article> page, @Param("type") String type, @Param("fields") ArticleFieldsEnum fields);
     
     /**
      * 分页查询博文（按作者）
      * @param page 分页对象
      * @param authorId 作者ID
+     * @param fields 需要查询的字段集
      * @return 分页结果
      */
-    IPage<Article> selectPageByAuthor(Page<Article> page, @Param("authorId") Integer authorId);
+    IPage<Article> selectPageByAuthor(Page<Article> page, @Param("authorId") Integer authorId, @Param("fields") ArticleFieldsEnum fields);
     
     /**
      * 根据地理位置范围查询博文
@@ -48,10 +56,84 @@ public interface ArticleMapper extends BaseMapper<Article> {
      * @param maxLat 最大纬度
      * @param minLng 最小经度
      * @param maxLng 最大经度
+     * @param ranges 覆盖该范围的geohash区间，为空时不使用geohash索引
+     * @param fields 需要查询的字段集
      * @return 博文列表
      */
-    List<Article> findByLocationRange(@Param("minLat") Double minLat, 
+    List<Article> findByLocationRange(@Param("minLat") Double minLat,
                                      @Param("maxLat") Double maxLat,
-                                     @Param("minLng") Double minLng, 
-                                     @Param("maxLng") Double maxLng);
-}
\ No newline at end of file
+                                     @Param("minLng") Double minLng,
+                                     @Param("maxLng") Double maxLng,
+                                     @Param("ranges") List<GeoUtils.GeohashRange> ranges,
+                                     @Param("fields") ArticleFieldsEnum fields);
+
+    /**
+     * 查询范围内博文的位置，只返回ID和经纬度，用于计算距离后再加载博文
+     * @param ranges 覆盖该范围的geohash区间，为空时不使用geohash索引
+     * @return 只包含id、latitude、longitude的博文列表
+     */
+    List<Article> findLocationsInRange(@Param("minLat") Double minLat,
+                                       @Param("maxLat") Double maxLat,
+                                       @Param("minLng") Double minLng,
+                                       @Param("maxLng") Double maxLng,
+                                       @Param("ranges") List<GeoUtils.GeohashRange> ranges);
+
+    /**
+     * 查询geohash网格内博文的聚合所需字段
+     * @param ranges geohash网格对应的区间，不能为空
+     * @return 只包含id、latitude、longitude、geohash、type、like_count的博文列表
+     */
+    List<Article> findClusterPointsInTiles(@Param("ranges") List<GeoUtils.GeohashRange> ranges);
+
+    /**
+     * 批量累加博文点赞数
+     * @param deltas 博文ID到点赞数增量的映射
+     * @return 影响行数
+     */
+    int batchIncrLikeCount(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 在点赞写入的事务内记录博文点赞数增量，与点赞记录一起提交或回滚
+     * @param deltas 博文ID到点赞数增量的映射
+     * @return 影响行数
+     */
+    int insertLikeCountDeltas(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 锁定最早的一批点赞数增量，其他节点已锁定的行直接跳过，需在事务中调用
+     * @param limit 每批数量
+     * @return 增量记录
+     */
+    List<ArticleLikeDeltaDTO> lockLikeCountDeltas(@Param("limit") int limit);
+
+    /**
+     * 删除已累加到博文表的点赞数增量
+     * @param ids 增量记录ID
+     * @return 影响行数
+     */
+    int deleteLikeCountDeltas(@Param("ids") List<Long> ids);
+
+    /**
+     * 补写geohash为空的博文
+     * @param length geohash长度
+     * @param limit 每批数量
+     * @return 影响行数，小于limit时已全部补写
+     */
+    int backfillGeohash(@Param("length") int length, @Param("limit") int limit);
+
+    /**
+     * 修正博文的geohash
+     * @param id 博文ID
+     * @param geohash 按当前经纬度计算的geohash
+     * @return 影响行数，geohash已一致时为0
+     */
+    int updateGeohash(@Param("id") Long id, @Param("geohash") String geohash);
+
+    /**
+     * 按主键顺序分批读取博文ID
+     * @param lastId 上一批最后一个博文ID，首批传0
+     * @param limit 每批数量
+     * @return 博文ID
+     */
+    List<Long> findIdsAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+}
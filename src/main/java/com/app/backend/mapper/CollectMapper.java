@@ -1,13 +1,55 @@
 package com.app.backend.mapper;
 
+import com.app.backend.dto.ArticleCollectDTO;
+import com.app.backend.dto.CollectedArticleDTO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.app.backend.entity.Collect;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 收藏Mapper接口
  */
 @Mapper
 public interface CollectMapper extends BaseMapper<Collect> {
-    // 可以添加自定义的SQL查询方法
-}
\ No newline at end of file
+
+    /**
+     * 按收藏时间倒序查询用户收藏的博文，收藏表与博文表直接关联，走(user_id, status, create_time)索引
+     * @param userId 用户ID
+     * @param lastCollectTime 上一页最后一条的收藏时间，为空时从第一条开始
+     * @param lastCollectId 上一页最后一条的收藏记录ID
+     * @param offset 不带游标时跳过的条数
+     * @param limit 返回条数
+     * @return 收藏的博文
+     */
+    List<CollectedArticleDTO> selectCollectedArticles(@Param("userId") Long userId,
+                                                      @Param("lastCollectTime") LocalDateTime lastCollectTime,
+                                                      @Param("lastCollectId") Long lastCollectId,
+                                                      @Param("offset") long offset,
+                                                      @Param("limit") long limit);
+
+    /**
+     * 查询用户当前收藏的全部博文ID
+     * @param userId 用户ID
+     * @return 博文ID
+     */
+    List<Long> findCollectedArticleIds(@Param("userId") Long userId);
+
+    /**
+     * 分组统计多篇博文的收藏数量，没有收藏的博文不会出现在结果中
+     * @param articleIds 博文ID
+     * @return 各博文的收藏数量
+     */
+    List<ArticleCollectDTO> countCollectsByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+
+    /**
+     * 批量写入收藏状态，依赖uk_user_article唯一索引，重新收藏时刷新收藏时间
+     * @param collects 收藏记录
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("collects") List<Collect> collects);
+}
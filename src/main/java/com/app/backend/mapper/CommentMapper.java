@@ -1,13 +1,38 @@
 package com.app.backend.mapper;
 
+import com.app.backend.dto.ArticleCommentDTO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.app.backend.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 评论Mapper接口
  */
 @Mapper
 public interface CommentMapper extends BaseMapper<Comment> {
-    // 可以添加自定义的SQL查询方法
-}
\ No newline at end of file
+
+    /**
+     * 按评论时间倒序查询博文的评论，走(article_id, is_delete, create_time, id)索引
+     * @param articleId 博文ID
+     * @param lastCreateTime 上一页最后一条的评论时间，为空时从最新一条开始
+     * @param lastId 上一页最后一条的评论ID
+     * @param limit 返回条数
+     * @return 未删除的评论
+     */
+    List<Comment> selectCommentPage(@Param("articleId") Long articleId,
+                                    @Param("lastCreateTime") LocalDateTime lastCreateTime,
+                                    @Param("lastId") Integer lastId,
+                                    @Param("limit") long limit);
+
+    /**
+     * 分组统计多篇博文未删除的评论数量，没有评论的博文不会出现在结果中
+     * @param articleIds 博文ID
+     * @return 各博文的评论数量
+     */
+    List<ArticleCommentDTO> countCommentsByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+}
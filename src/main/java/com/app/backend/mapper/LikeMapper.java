@@ -1,11 +1,15 @@
 package com.app.backend.mapper;
 
+import com.app.backend.dto.ArticleLikeDTO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.app.backend.entity.Like;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 点赞Mapper接口
  */
@@ -29,6 +33,13 @@ public interface LikeMapper extends BaseMapper<Like> {
     @Select("SELECT COUNT(*) FROM pd_like WHERE article_id = #{articleId} AND status = 1")
     Integer countLikesByArticleId(@Param("articleId") Integer articleId);
     
+    /**
+     * 分组统计多篇博文的点赞数量，没有点赞的博文不会出现在结果中
+     * @param articleIds 博文ID
+     * @return 各博文的点赞数量
+     */
+    List<ArticleLikeDTO> countLikesByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+
     /**
      * 统计用户的总点赞数
      * @param userId 用户ID
@@ -36,4 +47,40 @@ public interface LikeMapper extends BaseMapper<Like> {
      */
     @Select("SELECT COUNT(*) FROM pd_like WHERE user_id = #{userId} AND status = 1")
     Integer countLikesByUserId(@Param("userId") Long userId);
+
+    /**
+     * 查询用户在给定博文中已点赞的博文ID
+     * @param userId 用户ID
+     * @param articleIds 博文ID
+     * @return 已点赞的博文ID
+     */
+    List<Long> findLikedArticleIds(@Param("userId") Long userId, @Param("articleIds") Collection<Long> articleIds);
+
+    /**
+     * 查询用户当前点赞的全部博文ID
+     * @param userId 用户ID
+     * @return 博文ID
+     */
+    List<Long> findAllLikedArticleIds(@Param("userId") Long userId);
+
+    /**
+     * 查询多篇博文当前有效的点赞记录
+     * @param articleIds 博文ID
+     * @return 点赞记录（只包含userId和articleId）
+     */
+    List<Like> findActiveLikesByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+
+    /**
+     * 批量查询用户对博文的点赞记录
+     * @param likes 只使用其中的userId和articleId
+     * @return 已存在的点赞记录
+     */
+    List<Like> findByUserArticlePairs(@Param("likes") List<Like> likes);
+
+    /**
+     * 批量写入点赞状态，依赖uk_user_article唯一索引，已存在的记录只更新状态和更新时间
+     * @param likes 点赞记录
+     * @return 影响行数
+     */
+    int batchUpsert(@Param("likes") List<Like> likes);
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.app.backend.producer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基于内存映射文件的只追加日志，broker不可用时暂存待发送的点赞消息
+ * 文件头依次保存写位置和读位置，每条记录为4字节长度加消息体；
+ * 长度前缀越界的记录视为损坏，连同其后的内容一起截掉，避免读取线程因异常退出
+ */
+@Slf4j
+public class LikeJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int capacity;
+
+    private int writePosition;
+
+    private int readPosition;
+
+    public LikeJournal(Path path, int capacity) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.capacity = capacity;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.writePosition = buffer.getInt(0);
+        this.readPosition = buffer.getInt(4);
+        // 新文件或文件头损坏时从头开始
+        if (writePosition < HEADER_SIZE || writePosition > capacity || readPosition < HEADER_SIZE || readPosition > writePosition) {
+            writePosition = HEADER_SIZE;
+            readPosition = HEADER_SIZE;
+            writeHeader();
+        }
+        // 校验未确认的记录，截掉损坏的尾部
+        int position = readPosition;
+        while (position < writePosition) {
+            int length = recordLength(position);
+            if (length < 0) {
+                truncate(position);
+                break;
+            }
+            position += 4 + length;
+        }
+    }
+
+    /**
+     * 追加一条记录，先写记录再推进文件头，进程中途退出时不会留下半条记录
+     * @return 日志已满时返回false
+     */
+    public synchronized boolean append(byte[] record) {
+        int required = 4 + record.length;
+        if (writePosition + required > capacity) {
+            compact();
+            if (writePosition + required > capacity) {
+                return false;
+            }
+        }
+        buffer.putInt(writePosition, record.length);
+        buffer.put(writePosition + 4, record);
+        writePosition += required;
+        writeHeader();
+        return true;
+    }
+
+    public synchronized boolean hasPending() {
+        return readPosition < writePosition;
+    }
+
+    /**
+     * 按写入顺序读取最多max条未确认的记录，不移动读位置
+     */
+    public synchronized List<byte[]> peek(int max) {
+        List<byte[]> records = new ArrayList<>();
+        int position = readPosition;
+        while (position < writePosition && records.size() < max) {
+            int length = recordLength(position);
+            if (length < 0) {
+                truncate(position);
+                break;
+            }
+            byte[] record = new byte[length];
+            buffer.get(position + 4, record);
+            records.add(record);
+            position += 4 + length;
+        }
+        return records;
+    }
+
+    /**
+     * 确认最早的count条记录已成功发送，全部确认后日志回到起点
+     */
+    public synchronized void commit(int count) {
+        for (int i = 0; i < count && readPosition < writePosition; i++) {
+            int length = recordLength(readPosition);
+            if (length < 0) {
+                truncate(readPosition);
+                break;
+            }
+            readPosition += 4 + length;
+        }
+        if (readPosition >= writePosition) {
+            readPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+        }
+        writeHeader();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * 把未确认的记录移动到文件开头，腾出已确认记录占用的空间
+     */
+    private void compact() {
+        if (readPosition == HEADER_SIZE) {
+            return;
+        }
+        int pending = writePosition - readPosition;
+        byte[] data = new byte[pending];
+        buffer.get(readPosition, data);
+        buffer.put(HEADER_SIZE, data);
+        readPosition = HEADER_SIZE;
+        writePosition = HEADER_SIZE + pending;
+        writeHeader();
+    }
+
+    /**
+     * position处记录的消息体长度
+     * @return 长度前缀为负或超出写位置（记录损坏或未写完）时返回-1
+     */
+    private int recordLength(int position) {
+        if (position + 4 > writePosition) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length < 0 || length > writePosition - position - 4) {
+            return -1;
+        }
+        return length;
+    }
+
+    /**
+     * 丢弃position及之后的内容
+     */
+    private void truncate(int position) {
+        log.error("本地点赞日志在位置{}处损坏，丢弃之后的{}字节", position, writePosition - position);
+        writePosition = position;
+        if (readPosition >= writePosition) {
+            readPosition = HEADER_SIZE;
+            writePosition = HEADER_SIZE;
+        }
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, writePosition);
+        buffer.putInt(4, readPosition);
+    }
+}
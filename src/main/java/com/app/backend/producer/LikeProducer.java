@@ -0,0 +1,188 @@
+package com.app.backend.producer;
+
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.config.properties.LikeProperties;
+import com.app.backend.exception.BizException;
+import com.app.backend.vo.LikeVO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import com.rabbitmq.client.MessageProperties;
+import com.rabbitmq.client.ReturnListener;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.app.backend.constant.RabbitMQConstant.LIKE_PARTITION_EXCHANGE;
+
+/**
+ * 点赞消息异步发送器
+ * 请求线程只把消息放入内存缓冲区，由独立线程批量发送并等待broker确认；
+ * broker不可用时写入本地日志，恢复后按原顺序回放
+ */
+@Slf4j
+@Component
+public class LikeProducer {
+
+    @Autowired
+    private CachingConnectionFactory connectionFactory;
+
+    @Autowired
+    private LikeProperties likeProperties;
+
+    private BlockingQueue<LikeVO> buffer;
+
+    private LikeJournal journal;
+
+    // 开启发布确认的独立连接，避免影响其他发送方
+    private CachingConnectionFactory confirmConnectionFactory;
+
+    private RabbitTemplate confirmRabbitTemplate;
+
+    private Thread sender;
+
+    private volatile boolean running;
+
+    // 下一次允许回放日志的时间，broker不可用期间避免频繁重试
+    private long nextReplayTime;
+
+    @PostConstruct
+    public void start() throws IOException {
+        buffer = new ArrayBlockingQueue<>(likeProperties.getPublishBufferSize());
+        journal = new LikeJournal(Paths.get(likeProperties.getJournalPath()), likeProperties.getJournalSize());
+        confirmConnectionFactory = new CachingConnectionFactory(connectionFactory.getRabbitConnectionFactory());
+        confirmConnectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.SIMPLE);
+        confirmRabbitTemplate = new RabbitTemplate(confirmConnectionFactory);
+
+        running = true;
+        sender = new Thread(this::runSender, "like-producer");
+        sender.start();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        running = false;
+        sender.join(likeProperties.getConfirmTimeout() * 2);
+        // 仍未发出的消息写入日志，下次启动时回放
+        List<LikeVO> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        spill(remaining);
+        journal.close();
+        confirmConnectionFactory.destroy();
+    }
+
+    /**
+     * 提交一条点赞消息，只在缓冲区已满时阻塞片刻
+     */
+    public void send(LikeVO likeVO) {
+        try {
+            if (!buffer.offer(likeVO, 100, TimeUnit.MILLISECONDS)) {
+                throw new BizException("点赞请求过多，请稍后重试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BizException("点赞请求被中断");
+        }
+    }
+
+    private void runSender() {
+        List<LikeVO> batch = new ArrayList<>(likeProperties.getPublishBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                LikeVO first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    buffer.drainTo(batch, likeProperties.getPublishBatchSize() - 1);
+                }
+                if (journal.hasPending() && !replayJournal()) {
+                    // 日志尚未回放完时新消息也追加到日志，保证同一用户对同一博文的操作顺序
+                    spill(batch);
+                } else if (!batch.isEmpty() && !publish(batch.stream().map(JSON::toJSONBytes).toList())) {
+                    spill(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                spill(batch);
+                return;
+            } catch (Exception e) {
+                log.error("发送点赞消息异常", e);
+                spill(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 按写入顺序回放本地日志
+     * @return 日志是否已全部回放
+     */
+    private boolean replayJournal() {
+        if (System.currentTimeMillis() < nextReplayTime) {
+            return false;
+        }
+        List<byte[]> records = journal.peek(likeProperties.getPublishBatchSize());
+        while (!records.isEmpty()) {
+            if (!publish(records)) {
+                return false;
+            }
+            journal.commit(records.size());
+            records = journal.peek(likeProperties.getPublishBatchSize());
+        }
+        log.info("本地点赞日志已全部回放");
+        return true;
+    }
+
+    /**
+     * 在同一个channel上以mandatory方式发送一批消息并等待broker全部确认
+     * 无法路由的消息同样会被broker确认，但确认之前会先退回，此时按发送失败处理，整批保留在日志中
+     * @return 全部确认且没有被退回返回true，任一失败返回false（已确认的消息可能被重发，消费端按最终状态upsert可以容忍）
+     */
+    private boolean publish(List<byte[]> bodies) {
+        try {
+            confirmRabbitTemplate.invoke(operations -> operations.execute(channel -> {
+                // 退回和确认由连接线程按顺序处理，等待确认返回时退回已全部计数
+                AtomicInteger returned = new AtomicInteger();
+                ReturnListener returnListener = channel.addReturnListener(returnMessage -> returned.incrementAndGet());
+                try {
+                    for (byte[] body : bodies) {
+                        LikeVO likeVO = JSON.parseObject(body, LikeVO.class);
+                        String routingKey = String.valueOf(likeProperties.partitionOf(likeVO.getUserId(), likeVO.getArticleId()));
+                        channel.basicPublish(LIKE_PARTITION_EXCHANGE, routingKey, true, MessageProperties.PERSISTENT_BASIC, body);
+                    }
+                    channel.waitForConfirmsOrDie(likeProperties.getConfirmTimeout());
+                } finally {
+                    channel.removeReturnListener(returnListener);
+                }
+                if (returned.get() > 0) {
+                    throw new AmqpException(returned.get() + "条点赞消息无法路由到分区队列");
+                }
+                return null;
+            }));
+            return true;
+        } catch (Exception e) {
+            log.warn("点赞消息发送失败，转存本地日志", e);
+            nextReplayTime = System.currentTimeMillis() + likeProperties.getJournalRetryInterval();
+            return false;
+        }
+    }
+
+    private void spill(List<LikeVO> likeVOs) {
+        for (LikeVO likeVO : likeVOs) {
+            if (!journal.append(JSON.toJSONBytes(likeVO))) {
+                log.error("本地点赞日志已满，丢弃点赞消息: {}", JSON.toJSONString(likeVO));
+            }
+        }
+    }
+}
@@ -3,7 +3,23 @@ package com.app.backend.service;
 import com.app.backend.entity.ArticleImage;
 import com.baomidou.mybatisplus.extension.service.IService;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 
 public interface ArticleImageService extends IService<ArticleImage> {
+
+    /**
+     * 批量获取多篇博文的图片地址，优先读取缓存，未命中的博文用一条查询补齐
+     * @param articleIds 博文ID列表
+     * @return 博文ID到按顺序排列的图片地址的映射，没有图片的博文对应空列表
+     */
+    Map<Long, List<String>> getImageUrlsByArticleIds(List<Long> articleIds);
+
+    /**
+     * 清除博文图片地址缓存
+     * @param articleIds 博文ID列表
+     */
+    void evictImageUrls(Collection<Long> articleIds);
 }
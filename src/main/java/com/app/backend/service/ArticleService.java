@@ -1,14 +1,21 @@
 package com.app.backend.service;
 
+import com.app.backend.dto.ArticleClusterDTO;
+import com.app.backend.dto.ArticleSuggestDTO;
+import com.app.backend.dto.CollectedArticleDTO;
+import com.app.backend.dto.NearbyArticlesDTO;
 import com.app.backend.dto.PagedArticleDTO;
+import com.app.backend.vo.ArticleDetailVO;
 import com.app.backend.vo.PagedArticleVO;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.app.backend.entity.Article;
+import com.app.backend.enums.ArticleFieldsEnum;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ArticleService extends IService<Article> {
     
@@ -28,23 +35,57 @@ public interface ArticleService extends IService<Article> {
                          String type, String description, String tips, Long authorId, String address,String notice,String tools);
     
     /**
-     * 根据类型查询博文列表
+     * 按发布时间倒序逐条读取某类型的全部博文，读取过程中不在内存中累积
+     * @param type 博文类型，调用前需校验
+     * @param fields 返回的字段集
+     * @param consumer 每读到一篇博文调用一次，参数为该字段集对应的对象
+     */
+    void streamArticlesByType(String type, ArticleFieldsEnum fields, Consumer<Object> consumer);
+
+    /**
+     * 分页查询博文（按类型），每页数量有上限
      * @param type 博文类型
-     * @return 博文列表
+     * @param fields 返回的字段集
+     * @param page 页码
+     * @param size 每页大小
+     * @return 分页结果，类型无效返回null
+     */
+    IPage<Object> getArticlesByTypePaged(String type, ArticleFieldsEnum fields, Integer page, Integer size);
+
+    /**
+     * 查询当前热度最高的博文，热度由点赞按时间衰减累计
+     * @param type 博文类型，为空时查询全部类型
+     * @param limit 返回数量
+     * @return 按热度排序的博文列表，类型无效返回null
      */
-    List<Article> getArticlesByType(String type);
+    List<Article> getTrendingArticles(String type, Integer limit);
     
+    /**
+     * 搜索联想，按地点名称、标题、地址或其拼音的前缀匹配
+     * @param query 用户输入
+     * @param limit 返回数量
+     * @return 按点赞数排序的联想结果
+     */
+    List<ArticleSuggestDTO> suggestArticles(String query, Integer limit);
+
+    /**
+     * 查询博文详情（含点赞数和评论），优先读取缓存
+     * @param id 博文ID
+     * @return 博文详情，博文不存在返回null
+     */
+    ArticleDetailVO getArticleDetail(Long id);
+
     /**
      * 根据作者ID查询博文列表
-     * @return 博文列表
+     * @return 博文列表，记录类型由pagedArticleVO.fields决定
      */
-    IPage<Article> getArticlesByAuthor(PagedArticleVO pagedArticleVO);
+    IPage<Object> getArticlesByAuthor(PagedArticleVO pagedArticleVO);
 
     /**
-     * 根据作者ID查询收藏列表
-     * @return 博文列表
+     * 根据用户ID查询收藏列表，按收藏时间倒序，支持游标翻页
+     * @return 收藏的博文，不统计总数
      */
-    IPage<Article> getCollectsByAuthor(PagedArticleVO pagedArticleVO);
+    IPage<CollectedArticleDTO> getCollectsByAuthor(PagedArticleVO pagedArticleVO);
 
 
     /**
@@ -58,9 +99,10 @@ public interface ArticleService extends IService<Article> {
      * @param page 页码
      * @param size 每页大小
      * @param authorId 作者ID
+     * @param fields 返回的字段集
      * @return 分页结果
      */
-    IPage<Article> getArticlesByAuthorPaged(Integer page, Integer size, Integer authorId);
+    IPage<Object> getArticlesByAuthorPaged(Integer page, Integer size, Integer authorId, ArticleFieldsEnum fields);
     
     /**
      * 根据地理位置范围查询博文
@@ -68,9 +110,41 @@ public interface ArticleService extends IService<Article> {
      * @param maxLat 最大纬度
      * @param minLng 最小经度
      * @param maxLng 最大经度
+     * @param fields 返回的字段集
      * @return 博文列表
      */
-    List<Article> getArticlesByLocationRange(Double minLat, Double maxLat, Double minLng, Double maxLng);
+    List<Object> getArticlesByLocationRange(Double minLat, Double maxLat, Double minLng, Double maxLng, ArticleFieldsEnum fields);
+
+    /**
+     * 查询附近的博文
+     * @param latitude 纬度
+     * @param longitude 经度
+     * @param radius 搜索半径（米），为空时返回最近的limit篇博文
+     * @param limit 返回数量
+     * @return 按距离由近到远排序的博文及实际搜索半径，参数无效返回null
+     */
+    NearbyArticlesDTO getNearbyArticles(Double latitude, Double longitude, Double radius, Integer limit);
+
+    /**
+     * 按缩放级别聚合地图范围内的博文
+     * @param minLat 最小纬度
+     * @param maxLat 最大纬度
+     * @param minLng 最小经度
+     * @param maxLng 最大经度
+     * @param zoom 地图缩放级别
+     * @return 聚合点列表，参数无效或范围相对缩放级别过大返回null
+     */
+    List<ArticleClusterDTO> getArticleClusters(Double minLat, Double maxLat, Double minLng, Double maxLng, Integer zoom);
+
+    /**
+     * 重算博文位置变化后标记的低缩放级别聚合瓦片
+     */
+    void refreshDirtyClusterTiles();
+
+    /**
+     * 分批补写geohash为空的博文
+     */
+    void backfillGeohash();
     
     /**
      * 更新博文信息
@@ -2,10 +2,47 @@ package com.app.backend.service;
 
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.app.backend.entity.Collect;
+import com.app.backend.vo.CollectVO;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * 收藏服务接口
  */
 public interface CollectService extends IService<Collect> {
-    // 可以添加自定义的业务方法
-}
\ No newline at end of file
+
+    /**
+     * 切换收藏状态，立即更新Redis中的收藏Set和收藏数，再由消息队列异步落库
+     * @param collectVO 收藏操作
+     */
+    void toggleCollect(CollectVO collectVO);
+
+    /**
+     * 批量落库收藏消息，同一用户对同一博文的多次操作只保留最终状态
+     * @param collectVOs 收藏消息
+     */
+    void submitCollectMessages(List<CollectVO> collectVOs);
+
+    /**
+     * 批量获取博文的收藏数量，一次MGET读取计数器，未命中的博文一次查询数据库
+     * @param articleIds 博文ID
+     * @return 博文ID到收藏数量的映射，包含所有传入的博文
+     */
+    Map<Long, Long> getCollectCountByArticleList(List<Long> articleIds);
+
+    /**
+     * 批量检查用户是否已收藏多篇博文
+     * 一次SMISMEMBER查询用户的收藏Set，Set不存在时从数据库整体加载
+     * @param userId 用户ID
+     * @param articleIds 博文ID
+     * @return 博文ID到是否已收藏的映射，包含所有传入的博文
+     */
+    Map<Long, Boolean> getCollectStatusByArticleList(Long userId, List<Long> articleIds);
+
+    /**
+     * 把已落库的收藏状态同步到用户的收藏Set，Set未加载时不写入，下次读取时整体加载
+     * @param collects 收藏记录，status为0表示取消收藏
+     */
+    void syncCollectCache(List<Collect> collects);
+}
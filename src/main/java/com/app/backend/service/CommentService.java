@@ -1,15 +1,58 @@
 package com.app.backend.service;
 
+import com.app.backend.dto.CursorPage;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.app.backend.entity.Comment;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 评论服务接口
  */
 public interface CommentService extends IService<Comment> {
-    // 可以添加自定义的业务方法
 
-    List<Comment> getCommentsByArticleId(Long articleId);
-}
\ No newline at end of file
+    /**
+     * 按评论时间倒序分页查询博文的评论，不统计总数
+     * 不带游标且不超过缓存条数时直接读取Redis中的最新评论
+     * @param articleId 博文ID
+     * @param cursor 上一页返回的nextCursor，为空时从最新一条开始
+     * @param size 每页条数
+     * @return 评论分页
+     */
+    CursorPage<Comment> getCommentsPaged(Long articleId, String cursor, Integer size);
+
+    /**
+     * 获取博文的评论数量
+     * @param articleId 博文ID
+     * @return 未删除的评论数量
+     */
+    long getCommentCount(Long articleId);
+
+    /**
+     * 批量获取博文的评论数量，一次HMGET读取计数器，未命中的博文一次分组统计
+     * @param articleIds 博文ID
+     * @return 博文ID到评论数量的映射，包含所有传入的博文
+     */
+    Map<Long, Long> getCommentCountByArticleList(List<Long> articleIds);
+
+    /**
+     * 软删除评论，只能删除自己的评论
+     * @param commentId 评论ID
+     * @param userId 当前用户ID
+     * @return 是否删除成功
+     */
+    boolean deleteComment(Integer commentId, Long userId);
+
+    /**
+     * 按pd_comment重新统计已缓存的评论计数器，修正计数偏差
+     */
+    void reconcileCommentCounts();
+
+    /**
+     * 评论被修改或删除后清除博文的最新评论缓存，下次读取时重新加载
+     * @param articleIds 博文ID
+     */
+    void evictRecentComments(Collection<Long> articleIds);
+}
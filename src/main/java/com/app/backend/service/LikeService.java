@@ -17,11 +17,21 @@ public interface LikeService extends IService<Like> {
     
     /**
      * 检查用户是否已点赞某博文
+     * 一次SMISMEMBER同时判断博文和占位成员，用户点赞Set完整时不访问数据库
      * @param userId 用户ID
      * @param articleId 博文ID
      * @return 是否已点赞
      */
     boolean hasUserLikedArticle(Long userId, Integer articleId);
+
+    /**
+     * 批量检查用户是否已点赞多篇博文
+     * 一次SMISMEMBER查询用户的点赞Set，缓存缺失时一次查询数据库
+     * @param userId 用户ID
+     * @param articleIds 博文ID
+     * @return 博文ID到是否已点赞的映射，包含所有传入的博文
+     */
+    Map<Long, Boolean> getLikeStatusByArticleList(Long userId, List<Long> articleIds);
     
     /**
      * 获取博文的点赞数量
@@ -60,10 +70,35 @@ public interface LikeService extends IService<Like> {
      */
     void submitLikeMessage(LikeVO likeVO);
 
+    /**
+     * 批量处理消息队列中的点赞消息
+     * 同一用户对同一博文的多次操作只保留最后一次，随后一次性批量写入数据库
+     * @param likeVOs 按投递顺序排列的点赞消息
+     */
+    void submitLikeMessages(List<LikeVO> likeVOs);
+
+    /**
+     * 按点赞记录的最终状态同步Redis中的点赞关系（用户点赞Set、博文点赞Set及热点博文的子Set），重复调用结果不变
+     * @param likes 点赞记录，status为1表示已点赞
+     */
+    void syncLikeCache(List<Like> likes);
+
     /**
      * 批量获取博文的点赞数量
+     * Redis一次pipeline取回所有计数，未命中的博文再通过一次分组查询从数据库补齐
      * @param articleId 博文ID
-     * @return 点赞数量
+     * @return 博文ID到点赞数量的映射，包含所有传入的博文
      */
     Map<Long,Long> getLikeCountByArticleList(List<Long> articleId);
+
+    /**
+     * 将一批点赞数增量记录累加到pd_article.like_count并删除，锁定、累加和删除在同一事务中
+     * @return 本批已满、可能还有剩余增量时返回true
+     */
+    boolean flushLikeCountDeltas();
+
+    /**
+     * 按主键分批遍历博文，为Redis中尚未加载的博文重建点赞Set
+     */
+    void warmUpLikeCache();
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.app.backend.service;
+
+import com.app.backend.dto.MaxwellEventDTO;
+
+import java.util.List;
+
+/**
+ * 根据数据库变更事件增量维护派生数据（缓存、搜索索引、geohash）
+ */
+public interface MaxwellSyncService {
+
+    /**
+     * 同步一批按binlog顺序排列的变更事件，同一行的多次变更只按最终状态处理一次
+     * 处理过程幂等，重复投递的事件不会产生副作用
+     * @param events 变更事件
+     * @return 同步失败的表的全部事件，保持原有顺序；各表独立处理，一张表失败不影响其它表，全部成功时返回空列表
+     */
+    List<MaxwellEventDTO> syncEvents(List<MaxwellEventDTO> events);
+}
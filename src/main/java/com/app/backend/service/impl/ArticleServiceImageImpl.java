@@ -1,11 +1,328 @@
 package com.app.backend.service.impl;
 
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.cache.ArticlePageCache;
+import com.app.backend.entity.Article;
 import com.app.backend.entity.ArticleImage;
 import com.app.backend.mapper.ArticleImageMapper;
+import com.app.backend.mapper.ArticleMapper;
 import com.app.backend.service.ArticleImageService;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_IMAGES;
+import static com.app.backend.constant.RedisConstant.ARTICLE_IMAGES_VERSION;
+
+/**
+ * 博文图片服务实现类
+ * 每篇博文的图片地址以JSON数组缓存在 article:images:{articleId}，
+ * 通过本服务写入或删除图片时，在事务提交后清除对应博文的缓存以及所属类型的列表页缓存；
+ * 清除时递增 article:images:version:{articleId}，查询数据库前读取的版本号已变化时不写回，避免旧数据覆盖失效
+ */
+@Slf4j
 @Service
 public class ArticleServiceImageImpl extends ServiceImpl<ArticleImageMapper, ArticleImage> implements ArticleImageService {
+
+    // 图片地址缓存时间，兜底绕过本服务直接修改数据库的情况
+    private static final long IMAGE_CACHE_TTL_SECONDS = 24 * 3600;
+
+    // 版本号只需覆盖从读取版本号到写回缓存之间的加载耗时
+    private static final long IMAGE_VERSION_TTL_SECONDS = 3600;
+
+    // 缓存不存在、且读取数据库期间版本号未变化时写入，ARGV为 版本号, 图片地址JSON, 过期时间
+    private static final DefaultRedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "if redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3], 'NX') then return 1 end " +
+            "return 0", Long.class);
+
+    // 递增版本号后删除缓存，正在加载的旧快照将无法写入
+    private static final DefaultRedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+            "return redis.call('DEL', KEYS[1])", Long.class);
+
+    @Autowired
+    private ArticleImageMapper articleImageMapper;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticlePageCache articlePageCache;
+
+    @Override
+    public Map<Long, List<String>> getImageUrlsByArticleIds(List<Long> articleIds) {
+        Map<Long, List<String>> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+
+        List<Long> missingIds = new ArrayList<>();
+        // 未命中的博文在查询数据库之前的版本号，用于写回时校验
+        Map<Long, String> versions = new HashMap<>();
+        try {
+            List<Object> cached = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    for (Long articleId : articleIds) {
+                        redisOperations.opsForValue().get(ARTICLE_IMAGES + articleId);
+                        redisOperations.opsForValue().get(ARTICLE_IMAGES_VERSION + articleId);
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < articleIds.size(); i++) {
+                Object value = cached.get(2 * i);
+                if (value == null) {
+                    Object version = cached.get(2 * i + 1);
+                    missingIds.add(articleIds.get(i));
+                    versions.put(articleIds.get(i), version != null ? version.toString() : "0");
+                } else {
+                    result.put(articleIds.get(i), JSON.parseArray(value.toString(), String.class));
+                }
+            }
+        } catch (Exception e) {
+            log.error("读取博文图片缓存失败，直接查询数据库", e);
+            missingIds = articleIds;
+            versions.clear();
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+
+        // 未命中的博文一次查询，结果已按博文ID和图片顺序排好
+        Map<Long, List<String>> loaded = new HashMap<>();
+        for (Long articleId : missingIds) {
+            loaded.put(articleId, new ArrayList<>());
+        }
+        for (ArticleImage articleImage : articleImageMapper.findByArticleIds(missingIds)) {
+            loaded.get(articleImage.getArticleId()).add(articleImage.getImageUrl());
+        }
+        result.putAll(loaded);
+        if (versions.isEmpty()) {
+            // Redis不可用时不写回
+            return result;
+        }
+
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    // 没有图片的博文同样缓存空数组，避免反复回源
+                    loaded.forEach((articleId, urls) -> redisOperations.execute(LOAD_SCRIPT, imageKeys(articleId),
+                            versions.get(articleId), JSON.toJSONString(urls), String.valueOf(IMAGE_CACHE_TTL_SECONDS)));
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("写入博文图片缓存失败", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void evictImageUrls(Collection<Long> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = articleIds.stream().distinct().toList();
+        Runnable task = () -> {
+            try {
+                redisTemplate.executePipelined(new SessionCallback<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public <K, V> Object execute(RedisOperations<K, V> operations) {
+                        RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                        for (Long articleId : ids) {
+                            redisOperations.execute(EVICT_SCRIPT, imageKeys(articleId), String.valueOf(IMAGE_VERSION_TTL_SECONDS));
+                        }
+                        return null;
+                    }
+                });
+            } catch (Exception e) {
+                log.error("清除博文图片缓存失败, articleIds: {}", ids, e);
+            }
+            // 列表页缓存中包含图片地址，同时使这些博文所属类型的分页缓存失效
+            List<String> types = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                            .select(Article::getId, Article::getType)
+                            .in(Article::getId, articleIds))
+                    .stream()
+                    .map(Article::getType)
+                    .distinct()
+                    .toList();
+            articlePageCache.invalidate(types);
+        };
+        // 提交后再清除，避免并发读取在提交前把旧数据重新写回缓存
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    @Override
+    public boolean save(ArticleImage entity) {
+        boolean saved = super.save(entity);
+        evictImageUrls(Collections.singletonList(entity.getArticleId()));
+        return saved;
+    }
+
+    @Override
+    public boolean saveBatch(Collection<ArticleImage> entityList, int batchSize) {
+        boolean saved = super.saveBatch(entityList, batchSize);
+        evictImageUrls(articleIdsOf(entityList));
+        return saved;
+    }
+
+    @Override
+    public boolean update(ArticleImage entity, Wrapper<ArticleImage> updateWrapper) {
+        // 条件更新无法直接得知涉及的博文，先查出受影响的博文再清除
+        Set<Long> affected = articleIdsOf(list(updateWrapper));
+        boolean updated = super.update(entity, updateWrapper);
+        if (entity != null && entity.getArticleId() != null) {
+            affected.add(entity.getArticleId());
+        }
+        evictImageUrls(affected);
+        return updated;
+    }
+
+    @Override
+    public boolean remove(Wrapper<ArticleImage> queryWrapper) {
+        Set<Long> affected = articleIdsOf(list(queryWrapper));
+        boolean removed = super.remove(queryWrapper);
+        evictImageUrls(affected);
+        return removed;
+    }
+
+    // pd_article_image没有主键，MyBatis-Plus不会生成按ID读写的语句；
+    // 以下方法改为按(article_id, order_index)定位图片，经update/remove统一清除缓存
+
+    @Override
+    public boolean updateById(ArticleImage entity) {
+        return update(entity, imageKeyWrapper(entity));
+    }
+
+    @Override
+    @Transactional
+    public boolean updateBatchById(Collection<ArticleImage> entityList, int batchSize) {
+        boolean updated = false;
+        for (ArticleImage articleImage : entityList) {
+            updated |= updateById(articleImage);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean removeById(ArticleImage entity) {
+        return remove(imageKeyWrapper(entity));
+    }
+
+    @Override
+    public boolean removeById(Serializable id) {
+        return removeImages(Collections.singletonList(id));
+    }
+
+    @Override
+    public boolean removeById(Serializable id, boolean useFill) {
+        return removeImages(Collections.singletonList(id));
+    }
+
+    @Override
+    @Transactional
+    public boolean removeByIds(Collection<?> list) {
+        return removeImages(list);
+    }
+
+    @Override
+    @Transactional
+    public boolean removeByIds(Collection<?> list, boolean useFill) {
+        return removeImages(list);
+    }
+
+    @Override
+    @Transactional
+    public boolean removeBatchByIds(Collection<?> list, int batchSize) {
+        return removeImages(list);
+    }
+
+    @Override
+    @Transactional
+    public boolean removeBatchByIds(Collection<?> list, int batchSize, boolean useFill) {
+        return removeImages(list);
+    }
+
+    @Override
+    public boolean removeByMap(Map<String, Object> columnMap) {
+        Set<Long> affected = articleIdsOf(listByMap(columnMap));
+        boolean removed = super.removeByMap(columnMap);
+        evictImageUrls(affected);
+        return removed;
+    }
+
+    /**
+     * 逐张删除图片，只接受包含articleId和orderIndex的图片对象
+     */
+    private boolean removeImages(Collection<?> list) {
+        boolean removed = false;
+        for (Object item : list) {
+            if (!(item instanceof ArticleImage articleImage)) {
+                throw new UnsupportedOperationException("pd_article_image没有主键，请传入包含articleId和orderIndex的图片或按条件删除");
+            }
+            removed |= removeById(articleImage);
+        }
+        return removed;
+    }
+
+    /**
+     * 按(article_id, order_index)定位一张图片，任一为空时不匹配任何图片
+     */
+    private LambdaQueryWrapper<ArticleImage> imageKeyWrapper(ArticleImage articleImage) {
+        return new LambdaQueryWrapper<ArticleImage>()
+                .eq(ArticleImage::getArticleId, articleImage.getArticleId())
+                .eq(ArticleImage::getOrderIndex, articleImage.getOrderIndex());
+    }
+
+    private List<String> imageKeys(Long articleId) {
+        return List.of(ARTICLE_IMAGES + articleId, ARTICLE_IMAGES_VERSION + articleId);
+    }
+
+    private Set<Long> articleIdsOf(Collection<ArticleImage> articleImages) {
+        return articleImages.stream()
+                .map(ArticleImage::getArticleId)
+                .filter(articleId -> articleId != null)
+                .collect(Collectors.toSet());
+    }
 }
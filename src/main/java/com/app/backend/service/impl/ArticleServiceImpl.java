@@ -1,10 +1,25 @@
 package com.app.backend.service.impl;
 
+import com.app.backend.cache.ArticleClusterCache;
+import com.app.backend.cache.ArticleDetailCache;
+import com.app.backend.cache.ArticlePageCache;
+import com.app.backend.cache.ArticleSuggestIndex;
+import com.app.backend.cache.ArticleTrendingRanker;
+import com.app.backend.common.CursorUtils;
+import com.app.backend.common.GeoUtils;
+import com.app.backend.dto.ArticleCardDTO;
+import com.app.backend.dto.ArticleClusterDTO;
+import com.app.backend.dto.ArticleMapPinDTO;
+import com.app.backend.dto.ArticleSearchDTO;
+import com.app.backend.dto.ArticleSuggestDTO;
+import com.app.backend.dto.CollectedArticleDTO;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.dto.NearbyArticleDTO;
+import com.app.backend.dto.NearbyArticlesDTO;
 import com.app.backend.dto.PagedArticleDTO;
-import com.app.backend.entity.ArticleImage;
-import com.app.backend.entity.Collect;
 import com.app.backend.entity.User;
-import com.app.backend.mapper.ArticleImageMapper;
+import com.app.backend.enums.ArticleFieldsEnum;
+import com.app.backend.exception.BizException;
 import com.app.backend.mapper.CollectMapper;
 import com.app.backend.mapper.UserMapper;
 import com.app.backend.vo.PagedArticleVO;
@@ -13,18 +28,36 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.app.backend.entity.Article;
+import com.app.backend.entity.Comment;
 import com.app.backend.mapper.ArticleMapper;
+import com.app.backend.service.ArticleImageService;
 import com.app.backend.service.ArticleService;
+import com.app.backend.service.CommentService;
+import com.app.backend.service.LikeService;
+import com.app.backend.strategy.context.SearchStrategyContext;
+import com.app.backend.vo.ArticleDetailVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
 import org.checkerframework.checker.units.qual.A;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> implements ArticleService {
     
@@ -32,7 +65,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
     private ArticleMapper articleMapper;
 
     @Autowired
-    private ArticleImageMapper articleImageMapper;
+    private ArticleImageService articleImageService;
 
 
     @Autowired
@@ -43,11 +76,70 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
 
     @Autowired
     private CollectMapper collectMapper;
+
+    @Autowired
+    private ArticleTrendingRanker articleTrendingRanker;
+
+    @Autowired
+    private ArticlePageCache articlePageCache;
+
+    @Autowired
+    private ArticleDetailCache articleDetailCache;
+
+    @Autowired
+    private ArticleClusterCache articleClusterCache;
+
+    @Autowired
+    private SearchStrategyContext searchStrategyContext;
+
+    @Autowired
+    private ArticleSuggestIndex articleSuggestIndex;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
     
     // 支持的博文类型
     private static final List<String> VALID_TYPES = Arrays.asList(
         "architecture", "nature", "portrait", "street", "night"
     );
+
+    // 分页查询每页最多返回的博文数
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 博文详情内嵌的评论条数
+    private static final int DETAIL_COMMENT_SIZE = 10;
+
+    // 收藏列表游标的排序方式
+    private static final String COLLECT_SORT = "collect";
+
+    // 热度榜单次最多返回的博文数
+    private static final int MAX_TRENDING_SIZE = 50;
+
+    // 地图范围查询最多拆分的geohash网格数
+    private static final int MAX_GEOHASH_CELLS = 32;
+
+    // 附近查询的最小、最大搜索半径（米）
+    private static final double MIN_NEARBY_RADIUS = 1000;
+
+    private static final double MAX_NEARBY_RADIUS = 200000;
+
+    // 每批补写geohash的博文数
+    private static final int GEOHASH_BACKFILL_BATCH_SIZE = 500;
+
+    // 附近查询单次最多返回的博文数
+    private static final int MAX_NEARBY_SIZE = 100;
+
+    // 单次地图聚合最多涉及的瓦片数，最低缩放级别下整个地球为32个瓦片
+    private static final int MAX_CLUSTER_TILES = 32;
+
+    // 等待其他请求计算同一聚合瓦片的最长时间（毫秒），超时后自行查询
+    private static final long CLUSTER_LOAD_TIMEOUT_MILLIS = 3000;
+
+    // 正在从数据库计算的聚合瓦片，保证同一瓦片在本节点只有一个调用方回源
+    private final ConcurrentHashMap<String, CompletableFuture<List<ArticleClusterDTO>>> loadingClusterTiles = new ConcurrentHashMap<>();
     
     @Override
     public Long createArticle(String title, String name, BigDecimal latitude, BigDecimal longitude,
@@ -75,6 +167,7 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         article.setName(name.trim());
         article.setLatitude(latitude);
         article.setLongitude(longitude);
+        article.setGeohash(GeoUtils.encode(latitude.doubleValue(), longitude.doubleValue(), GeoUtils.GEOHASH_LENGTH));
         article.setType(type);
         article.setDescription(description != null ? description.trim() : null);
         article.setTips(tips != null ? tips.trim() : null);
@@ -87,49 +180,148 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         
         // 保存到数据库
         int result = articleMapper.insert(article);
+        if (result > 0) {
+            articlePageCache.invalidate(Collections.singletonList(type));
+            articleClusterCache.evict(article.getGeohash());
+            searchStrategyContext.saveArticle(article);
+            articleSuggestIndex.publishArticles(Collections.singletonList(article.getId()));
+        }
         // 返回插入记录的主键ID
         return result > 0 ? article.getId() : null;
     }
     
     @Override
-    public List<Article> getArticlesByType(String type) {
+    @Transactional(readOnly = true)
+    public void streamArticlesByType(String type, ArticleFieldsEnum fields, Consumer<Object> consumer) {
+        // 游标依赖当前事务的连接，遍历结束前不能提交
+        try (Cursor<Article> cursor = articleMapper.findByType(type, fields)) {
+            cursor.forEach(article -> consumer.accept(toFieldsView(article, fields)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public IPage<Object> getArticlesByTypePaged(String type, ArticleFieldsEnum fields, Integer page, Integer size) {
         if (!isValidType(type)) {
             return null;
         }
-        return articleMapper.findByType(type);
+        if (page == null || page < 1) page = 1;
+        if (size == null || size < 1) size = 10;
+
+        Page<Article> pageObj = new Page<>(page, Math.min(size, MAX_PAGE_SIZE));
+        return articleMapper.selectPageByType(pageObj, type, fields).convert(article -> toFieldsView(article, fields));
+    }
+
+    @Override
+    public List<ArticleSuggestDTO> suggestArticles(String query, Integer limit) {
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, ArticleSuggestIndex.MAX_SUGGEST_SIZE));
+        return articleSuggestIndex.suggest(query, size);
+    }
+
+    @Override
+    public ArticleDetailVO getArticleDetail(Long id) {
+        return articleDetailCache.get(id, this::buildArticleDetail,
+                articleId -> likeService.getLikeCountByArticleList(Collections.singletonList(articleId)).get(articleId));
+    }
+
+    /**
+     * 从数据库组装博文详情，仅在缓存未命中时调用
+     */
+    private ArticleDetailVO buildArticleDetail(Long id) {
+        Article article = articleMapper.selectById(id);
+        if (article == null) {
+            return null;
+        }
+        ArticleDetailVO articleDetailVO = new ArticleDetailVO();
+        BeanUtils.copyProperties(article, articleDetailVO);
+        Map<Long, Long> articleLikeCount = likeService.getLikeCountByArticleList(Collections.singletonList(id));
+        articleDetailVO.setLikeCount(articleLikeCount.get(id));
+        // 只内嵌最新一页评论，第一页通常直接取自最新评论缓存
+        CursorPage<Comment> comments = commentService.getCommentsPaged(id, null, DETAIL_COMMENT_SIZE);
+        articleDetailVO.setComments(comments.getRecords());
+        articleDetailVO.setCommentCursor(comments.getNextCursor());
+        articleDetailVO.setCommentCount(commentService.getCommentCount(id));
+        return articleDetailVO;
+    }
+
+    @Override
+    public List<Article> getTrendingArticles(String type, Integer limit) {
+        if (type != null && !type.isEmpty() && !isValidType(type)) {
+            return null;
+        }
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, MAX_TRENDING_SIZE));
+        List<Long> articleIds = articleTrendingRanker.topArticleIds(type, size);
+        if (articleIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 按热度榜顺序返回，已删除的博文直接跳过
+        Map<Long, Article> articles = articleMapper.selectBatchIds(articleIds)
+                .stream()
+                .collect(Collectors.toMap(Article::getId, article -> article));
+        return articleIds.stream().map(articles::get).filter(Objects::nonNull).toList();
     }
     
     @Override
-    public IPage<Article> getArticlesByAuthor(PagedArticleVO pagedArticleVO) {
+    public IPage<Object> getArticlesByAuthor(PagedArticleVO pagedArticleVO) {
         if (pagedArticleVO.getAuthorId() == null) {
             return null;
         }
+        ArticleFieldsEnum fields = ArticleFieldsEnum.getFields(pagedArticleVO.getFields());
 
-        IPage<PagedArticleDTO> result=new Page<>();
-        Page<Article> articlePage=new Page<>(pagedArticleVO.getPage(),pagedArticleVO.getSize());
         LambdaQueryWrapper<Article> articleLambdaQueryWrapper=new LambdaQueryWrapper<>();
         articleLambdaQueryWrapper.eq(Article::getAuthorId,pagedArticleVO.getAuthorId());
+        selectFields(articleLambdaQueryWrapper, fields);
 
-        IPage<Article> myArticles=articleMapper.selectPage(articlePage,articleLambdaQueryWrapper);
-
-        return myArticles;
+        CursorPage<Article> articles=selectArticlePage(articleLambdaQueryWrapper,pagedArticleVO);
+        return copyPage(articles, articles.getRecords().stream().map(article -> toFieldsView(article, fields)).toList());
     }
 
-    public IPage<Article> getCollectsByAuthor(PagedArticleVO pagedArticleVO){
-        LambdaQueryWrapper<Collect> collectLambdaQueryWrapper=new LambdaQueryWrapper<>();
-        collectLambdaQueryWrapper.eq(Collect::getUserId,pagedArticleVO.getAuthorId());
-        collectLambdaQueryWrapper.eq(Collect::getStatus,1);
-        List<Integer> articleId=collectMapper.selectList(collectLambdaQueryWrapper).stream().map(Collect::getArticleId).toList();
-
-        Page<Article> articlePage=new Page<>(pagedArticleVO.getPage(),pagedArticleVO.getSize());
+    /**
+     * 收藏表与博文表关联后按收藏时间倒序分页，与selectArticlePage相同，带游标时从游标位置向后查找，
+     * 不带游标时按page/size跳过，都只多取一条判断是否还有下一页，不统计总数
+     */
+    @Override
+    public IPage<CollectedArticleDTO> getCollectsByAuthor(PagedArticleVO pagedArticleVO){
+        if (pagedArticleVO.getAuthorId() == null || pagedArticleVO.getAuthorId().isEmpty()) {
+            return null;
+        }
+        Long userId;
+        try {
+            userId = Long.valueOf(pagedArticleVO.getAuthorId());
+        } catch (NumberFormatException e) {
+            throw new BizException("无效的用户ID");
+        }
+        long current = pagedArticleVO.getPage() == null || pagedArticleVO.getPage() < 1 ? 1 : pagedArticleVO.getPage();
+        long size = pagedArticleVO.getSize() == null || pagedArticleVO.getSize() < 1 ? 10 : Math.min(pagedArticleVO.getSize(), MAX_PAGE_SIZE);
 
-        LambdaQueryWrapper<Article> articleLambdaQueryWrapper=new LambdaQueryWrapper<>();
-        articleLambdaQueryWrapper.in(Article::getId,articleId);
+        LocalDateTime lastCollectTime = null;
+        Long lastCollectId = null;
+        long offset = (current - 1) * size;
+        if (pagedArticleVO.getCursor() != null && !pagedArticleVO.getCursor().isEmpty()) {
+            String[] position = CursorUtils.decode(pagedArticleVO.getCursor(), COLLECT_SORT);
+            try {
+                lastCollectTime = LocalDateTime.parse(position[0]);
+                lastCollectId = Long.valueOf(position[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BizException("无效的分页游标");
+            }
+            offset = 0;
+        }
 
-        IPage<Article> result=articleMapper.selectPage(articlePage,articleLambdaQueryWrapper);
+        List<CollectedArticleDTO> records = collectMapper.selectCollectedArticles(userId,
+                lastCollectTime, lastCollectId, offset, size + 1);
+        boolean hasMore = records.size() > size;
+        CursorPage<CollectedArticleDTO> result = new CursorPage<>(current, size);
+        result.setSearchCount(false);
+        result.setRecords(hasMore ? new ArrayList<>(records.subList(0, (int) size)) : records);
+        if (hasMore) {
+            CollectedArticleDTO last = result.getRecords().get(result.getRecords().size() - 1);
+            result.setNextCursor(CursorUtils.encode(COLLECT_SORT, last.getCollectTime(), last.getCollectId()));
+        }
         return result;
     }
-    
+
     @Override
     public IPage<PagedArticleDTO> getArticlesPaged(PagedArticleVO pagedArticleVO) {
 //        if (!isValidType(type)) {
@@ -139,45 +331,108 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
 //        if (size == null || size < 1) size = 10;
         
 //        Page<Article> pageObj = new Page<>(page, size);
+        // 同一查询条件的分页结果直接从缓存返回
+        String cacheKey=articlePageCache.keyOf(pagedArticleVO);
+        CursorPage<PagedArticleDTO> cached=articlePageCache.get(cacheKey);
+        if(cached!=null){
+            return cached;
+        }
+
+        // 按标题、地址搜索时走搜索引擎，按相关度排序并高亮匹配部分
+        if((pagedArticleVO.getTitle() != null && !pagedArticleVO.getTitle().isEmpty())
+                || (pagedArticleVO.getAddress() != null && !pagedArticleVO.getAddress().isEmpty())){
+            CursorPage<PagedArticleDTO> result=searchArticlesPaged(pagedArticleVO);
+            articlePageCache.put(cacheKey,result);
+            return result;
+        }
+
         LambdaQueryWrapper<Article> articleLambdaQueryWrapper=new LambdaQueryWrapper<>();
-        Page<Article> articlePage=new Page<>(pagedArticleVO.getPage(),pagedArticleVO.getSize());
 
         if(pagedArticleVO.getType() != null && !pagedArticleVO.getType().isEmpty()){
             articleLambdaQueryWrapper.eq(Article::getType,pagedArticleVO.getType());
         }
+        ArticleFieldsEnum fields=ArticleFieldsEnum.getFields(pagedArticleVO.getFields());
+        selectFields(articleLambdaQueryWrapper, fields);
 
-        if(pagedArticleVO.getTitle() != null && !pagedArticleVO.getTitle().isEmpty()){
-            articleLambdaQueryWrapper.like(Article::getTitle, pagedArticleVO.getTitle());
-        }
+        CursorPage<Article> articles=selectArticlePage(articleLambdaQueryWrapper,pagedArticleVO);
+        CursorPage<PagedArticleDTO> result=copyPage(articles,toPagedArticleDTOs(articles.getRecords(), fields));
+        articlePageCache.put(cacheKey,result);
+        return result;
+    }
 
-        if(pagedArticleVO.getAddress() != null && !pagedArticleVO.getAddress().isEmpty()){
-            articleLambdaQueryWrapper.like(Article::getAddress, pagedArticleVO.getAddress());
+    /**
+     * 通过搜索引擎查询一页博文，再从数据库加载卡片所需的完整信息
+     */
+    private CursorPage<PagedArticleDTO> searchArticlesPaged(PagedArticleVO pagedArticleVO) {
+        CursorPage<ArticleSearchDTO> searchPage = searchStrategyContext.executeSearchStrategy(pagedArticleVO);
+        Map<Long, ArticleSearchDTO> hits = searchPage.getRecords()
+                .stream()
+                .collect(Collectors.toMap(ArticleSearchDTO::getId, hit -> hit, (first, second) -> first));
+
+        List<Article> articles = Collections.emptyList();
+        if (!hits.isEmpty()) {
+            // 保持搜索结果的相关度顺序，索引中残留的已删除博文直接跳过
+            LambdaQueryWrapper<Article> articleLambdaQueryWrapper = new LambdaQueryWrapper<Article>()
+                    .in(Article::getId, hits.keySet());
+            selectFields(articleLambdaQueryWrapper, ArticleFieldsEnum.getFields(pagedArticleVO.getFields()));
+            Map<Long, Article> articleMap = articleMapper.selectList(articleLambdaQueryWrapper)
+                    .stream()
+                    .collect(Collectors.toMap(Article::getId, article -> article));
+            articles = searchPage.getRecords().stream().map(hit -> articleMap.get(hit.getId())).filter(Objects::nonNull).toList();
         }
 
+        List<PagedArticleDTO> records = toPagedArticleDTOs(articles, ArticleFieldsEnum.getFields(pagedArticleVO.getFields()));
+        for (PagedArticleDTO record : records) {
+            ArticleSearchDTO hit = hits.get(record.getId());
+            if (hit.getTitle() != null) {
+                record.setTitle(hit.getTitle());
+            }
+            if (hit.getAddress() != null) {
+                record.setAddress(hit.getAddress());
+            }
+        }
 
-        IPage<Article> articles=articleMapper.selectPage(articlePage,articleLambdaQueryWrapper);
+        CursorPage<PagedArticleDTO> result = new CursorPage<>(searchPage.getCurrent(), searchPage.getSize());
+        result.setSearchCount(searchPage.searchCount());
+        result.setTotal(searchPage.getTotal());
+        result.setRecords(records);
+        result.setNextCursor(searchPage.getNextCursor());
+        return result;
+    }
 
-        List<Long> usersId=articles.getRecords()
-                .stream()
-                .map(article -> article.getAuthorId())
-                .distinct()
-                .collect(Collectors.toList());
-        LambdaQueryWrapper<User> userLambdaQueryWrapper=new LambdaQueryWrapper<>();
-        userLambdaQueryWrapper.in(User::getId,usersId);
-        List<User> users=userMapper.selectList(userLambdaQueryWrapper);
-        Map<Long,User> userMap=users.stream().collect(Collectors.toMap(User::getId, user -> user));
+    /**
+     * 补充作者昵称和图片，组装列表页卡片
+     */
+    private List<PagedArticleDTO> toPagedArticleDTOs(List<Article> articles, ArticleFieldsEnum fields) {
+        if (articles.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        List<PagedArticleDTO> pagedArticleDTOList=new ArrayList<>();
-        for(Article article: articles.getRecords()){
-            LambdaQueryWrapper<ArticleImage> articleImageLambdaQueryWrapper=new LambdaQueryWrapper<>();
-            articleImageLambdaQueryWrapper.eq(ArticleImage::getArticleId,article.getId());
-            List<String> articleImages = articleImageMapper.selectList(articleImageLambdaQueryWrapper)
+        // 字段集未查询author_id时（如地图标记点）不返回作者昵称
+        Map<Long,User> userMap=Collections.emptyMap();
+        if (fields.getColumns() == null || fields.getColumns().contains("author_id")) {
+            List<Long> usersId=articles
                     .stream()
-                    .sorted(Comparator.comparing(ArticleImage::getOrderIndex))
-                    .map(ArticleImage::getImageUrl)
+                    .map(article -> article.getAuthorId())
+                    .filter(Objects::nonNull)
+                    .distinct()
                     .collect(Collectors.toList());
+            if (!usersId.isEmpty()) {
+                LambdaQueryWrapper<User> userLambdaQueryWrapper=new LambdaQueryWrapper<>();
+                userLambdaQueryWrapper.in(User::getId,usersId);
+                List<User> users=userMapper.selectList(userLambdaQueryWrapper);
+                userMap=users.stream().collect(Collectors.toMap(User::getId, user -> user));
+            }
+        }
+
+        // 整页博文的图片一次获取（缓存未命中的博文合并为一条IN查询）
+        List<Long> articleIds=articles.stream().map(Article::getId).toList();
+        Map<Long,List<String>> articleImages=articleImageService.getImageUrlsByArticleIds(articleIds);
+
+        List<PagedArticleDTO> pagedArticleDTOList=new ArrayList<>();
+        for(Article article: articles){
             PagedArticleDTO tempPagedArticleDTO=new PagedArticleDTO();
-            tempPagedArticleDTO.setAccessUrls(articleImages);
+            tempPagedArticleDTO.setAccessUrls(articleImages.getOrDefault(article.getId(), Collections.emptyList()));
             tempPagedArticleDTO.setType(article.getType());
             tempPagedArticleDTO.setDescription(article.getDescription());
             tempPagedArticleDTO.setAddress(article.getAddress());
@@ -190,18 +445,106 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             tempPagedArticleDTO.setTitle(article.getTitle());
             tempPagedArticleDTO.setTools(article.getTools());
             tempPagedArticleDTO.setId(article.getId());
-            tempPagedArticleDTO.setAuthorName(userMap.get(article.getAuthorId()).getNickname());
+            tempPagedArticleDTO.setLikeCount(article.getLikeCount());
+            User author=article.getAuthorId() == null ? null : userMap.get(article.getAuthorId());
+            tempPagedArticleDTO.setAuthorName(author == null ? null : author.getNickname());
             pagedArticleDTOList.add(tempPagedArticleDTO);
         }
+        return pagedArticleDTOList;
+    }
+    /**
+     * 查询一页博文：默认按(create_time, id)倒序，sort=like时按(like_count, id)倒序
+     * 带游标时从游标位置向后查找，不使用OFFSET也不统计总数；不带游标时仍按page/size分页，
+     * 两种方式都返回下一页游标，前端可从任意一页切换为游标翻页
+     */
+    private CursorPage<Article> selectArticlePage(LambdaQueryWrapper<Article> wrapper, PagedArticleVO pagedArticleVO) {
+        String sort = "like".equals(pagedArticleVO.getSort()) ? "like" : "time";
+        long current = pagedArticleVO.getPage() == null || pagedArticleVO.getPage() < 1 ? 1 : pagedArticleVO.getPage();
+        long size = pagedArticleVO.getSize() == null || pagedArticleVO.getSize() < 1 ? 10 : Math.min(pagedArticleVO.getSize(), MAX_PAGE_SIZE);
+
+        if ("like".equals(sort)) {
+            wrapper.orderByDesc(Article::getLikeCount);
+        } else {
+            wrapper.orderByDesc(Article::getCreateTime);
+        }
+        wrapper.orderByDesc(Article::getId);
 
-        IPage<PagedArticleDTO> result=new Page<>(pagedArticleVO.getPage(),pagedArticleVO.getSize());
-        result.setRecords(pagedArticleDTOList);
+        CursorPage<Article> result;
+        if (pagedArticleVO.getCursor() != null && !pagedArticleVO.getCursor().isEmpty()) {
+            String[] position = CursorUtils.decode(pagedArticleVO.getCursor(), sort);
+            try {
+                Long lastId = Long.valueOf(position[1]);
+                if ("like".equals(sort)) {
+                    Long lastLikeCount = Long.valueOf(position[0]);
+                    wrapper.and(w -> w.lt(Article::getLikeCount, lastLikeCount)
+                            .or(o -> o.eq(Article::getLikeCount, lastLikeCount).lt(Article::getId, lastId)));
+                } else {
+                    LocalDateTime lastCreateTime = LocalDateTime.parse(position[0]);
+                    wrapper.and(w -> w.lt(Article::getCreateTime, lastCreateTime)
+                            .or(o -> o.eq(Article::getCreateTime, lastCreateTime).lt(Article::getId, lastId)));
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BizException("无效的分页游标");
+            }
 
+            // 多取一条判断是否还有下一页
+            List<Article> records = articleMapper.selectPage(new Page<>(1, size + 1, false), wrapper).getRecords();
+            boolean hasMore = records.size() > size;
+            result = new CursorPage<>(current, size);
+            result.setSearchCount(false);
+            result.setRecords(hasMore ? new ArrayList<>(records.subList(0, (int) size)) : records);
+            if (hasMore) {
+                result.setNextCursor(cursorOf(sort, result.getRecords().get(result.getRecords().size() - 1)));
+            }
+        } else {
+            result = articleMapper.selectPage(new CursorPage<>(current, size), wrapper);
+            if (result.getCurrent() < result.getPages()) {
+                result.setNextCursor(cursorOf(sort, result.getRecords().get(result.getRecords().size() - 1)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 只查询字段集需要的列，主键总会被查询
+     */
+    private void selectFields(LambdaQueryWrapper<Article> wrapper, ArticleFieldsEnum fields) {
+        if (fields.getColumns() != null) {
+            wrapper.select(Article.class, field -> fields.getColumns().contains(field.getColumn()));
+        }
+    }
+
+    /**
+     * 按字段集转换为返回给前端的对象
+     */
+    private Object toFieldsView(Article article, ArticleFieldsEnum fields) {
+        Object view = switch (fields) {
+            case CARD -> new ArticleCardDTO();
+            case MAP_PIN -> new ArticleMapPinDTO();
+            case FULL -> null;
+        };
+        if (view == null) {
+            return article;
+        }
+        BeanUtils.copyProperties(article, view);
+        return view;
+    }
+
+    private String cursorOf(String sort, Article last) {
+        return CursorUtils.encode(sort, "like".equals(sort) ? last.getLikeCount() : last.getCreateTime(), last.getId());
+    }
+
+    private <T> CursorPage<T> copyPage(CursorPage<?> source, List<T> records) {
+        CursorPage<T> result = new CursorPage<>(source.getCurrent(), source.getSize());
+        result.setTotal(source.getTotal());
+        result.setSearchCount(source.searchCount());
+        result.setNextCursor(source.getNextCursor());
+        result.setRecords(records);
         return result;
     }
     
     @Override
-    public IPage<Article> getArticlesByAuthorPaged(Integer page, Integer size, Integer authorId) {
+    public IPage<Object> getArticlesByAuthorPaged(Integer page, Integer size, Integer authorId, ArticleFieldsEnum fields) {
         if (authorId == null) {
             return null;
         }
@@ -209,18 +552,240 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         if (size == null || size < 1) size = 10;
         
         Page<Article> pageObj = new Page<>(page, size);
-        return articleMapper.selectPageByAuthor(pageObj, authorId);
+        return articleMapper.selectPageByAuthor(pageObj, authorId, fields).convert(article -> toFieldsView(article, fields));
     }
     
     @Override
-    public List<Article> getArticlesByLocationRange(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+    public List<Object> getArticlesByLocationRange(Double minLat, Double maxLat, Double minLng, Double maxLng, ArticleFieldsEnum fields) {
         if (minLat == null || maxLat == null || minLng == null || maxLng == null) {
             return null;
         }
         if (minLat >= maxLat || minLng >= maxLng) {
             return null;
         }
-        return articleMapper.findByLocationRange(minLat, maxLat, minLng, maxLng);
+        return articleMapper.findByLocationRange(minLat, maxLat, minLng, maxLng,
+                        GeoUtils.prefixRanges(GeoUtils.coverBox(minLat, maxLat, minLng, maxLng, MAX_GEOHASH_CELLS)), fields)
+                .stream()
+                .map(article -> toFieldsView(article, fields))
+                .toList();
+    }
+
+    @Override
+    public NearbyArticlesDTO getNearbyArticles(Double latitude, Double longitude, Double radius, Integer limit) {
+        if (latitude == null || longitude == null || Math.abs(latitude) > 90 || Math.abs(longitude) > 180) {
+            return null;
+        }
+        if (radius != null && (radius <= 0 || radius > MAX_NEARBY_RADIUS)) {
+            return null;
+        }
+        int size = limit == null ? 20 : Math.max(1, Math.min(limit, MAX_NEARBY_SIZE));
+
+        NearbyArticlesDTO nearbyArticlesDTO = new NearbyArticlesDTO();
+        List<Map.Entry<Article, Double>> nearest;
+        if (radius != null) {
+            nearest = findWithinRadius(latitude, longitude, radius, size);
+            nearbyArticlesDTO.setRadius(radius);
+            nearbyArticlesDTO.setRadiusCapped(false);
+        } else {
+            // 未指定半径时查询最近的size篇：逐步扩大半径，圆内已有足够博文时即为最近的size篇
+            double searchRadius = MIN_NEARBY_RADIUS;
+            nearest = findWithinRadius(latitude, longitude, searchRadius, size);
+            while (nearest.size() < size && searchRadius < MAX_NEARBY_RADIUS) {
+                searchRadius = Math.min(searchRadius * 4, MAX_NEARBY_RADIUS);
+                nearest = findWithinRadius(latitude, longitude, searchRadius, size);
+            }
+            nearbyArticlesDTO.setRadius(searchRadius);
+            // 半径上限之外的博文不参与排序，结果少于size篇时告知调用方
+            nearbyArticlesDTO.setRadiusCapped(nearest.size() < size);
+        }
+        if (nearest.isEmpty()) {
+            nearbyArticlesDTO.setArticles(Collections.emptyList());
+            return nearbyArticlesDTO;
+        }
+
+        // 只加载最终返回的博文
+        Map<Long, Article> articles = articleMapper.selectBatchIds(nearest.stream().map(entry -> entry.getKey().getId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Article::getId, article -> article));
+        List<NearbyArticleDTO> result = new ArrayList<>(nearest.size());
+        for (Map.Entry<Article, Double> entry : nearest) {
+            Article article = articles.get(entry.getKey().getId());
+            if (article == null) {
+                continue;
+            }
+            NearbyArticleDTO nearbyArticleDTO = new NearbyArticleDTO();
+            BeanUtils.copyProperties(article, nearbyArticleDTO);
+            nearbyArticleDTO.setDistance(entry.getValue());
+            result.add(nearbyArticleDTO);
+        }
+        nearbyArticlesDTO.setArticles(result);
+        return nearbyArticlesDTO;
+    }
+
+    @Override
+    public List<ArticleClusterDTO> getArticleClusters(Double minLat, Double maxLat, Double minLng, Double maxLng, Integer zoom) {
+        if (minLat == null || maxLat == null || minLng == null || maxLng == null || zoom == null || zoom < 0) {
+            return null;
+        }
+        if (minLat >= maxLat || minLng >= maxLng || minLat < -90 || maxLat > 90 || minLng < -180 || maxLng > 180) {
+            return null;
+        }
+        int precision = ArticleClusterCache.clusterPrecision(zoom);
+        int tilePrecision = ArticleClusterCache.tilePrecision(precision);
+        // 范围与缩放级别不匹配时拒绝，避免一次聚合过多瓦片
+        if (GeoUtils.countCells(minLat, maxLat, minLng, maxLng, tilePrecision) > MAX_CLUSTER_TILES) {
+            return null;
+        }
+        List<String> tiles = GeoUtils.cellsInBox(minLat, maxLat, minLng, maxLng, tilePrecision);
+
+        Map<String, List<ArticleClusterDTO>> clusters = articleClusterCache.get(precision, tiles);
+        List<String> missingTiles = tiles.stream().filter(tile -> !clusters.containsKey(tile)).toList();
+        if (!missingTiles.isEmpty()) {
+            clusters.putAll(loadClusters(missingTiles, precision, tilePrecision));
+        }
+
+        return clusters.values()
+                .stream()
+                .flatMap(List::stream)
+                .filter(cluster -> cluster.getLatitude() >= minLat && cluster.getLatitude() <= maxLat
+                        && cluster.getLongitude() >= minLng && cluster.getLongitude() <= maxLng)
+                .toList();
+    }
+
+    /**
+     * 计算未命中的瓦片并写入缓存
+     * 同一瓦片在本节点同一时刻只有一个调用方查询数据库，其余调用方等待同一个Future，等待超时或失败时自行查询
+     * @return 瓦片geohash到聚合点的映射，包含所有传入的瓦片
+     */
+    private Map<String, List<ArticleClusterDTO>> loadClusters(List<String> tiles, int precision, int tilePrecision) {
+        Map<String, CompletableFuture<List<ArticleClusterDTO>>> owned = new HashMap<>();
+        Map<String, CompletableFuture<List<ArticleClusterDTO>>> waiting = new HashMap<>();
+        for (String tile : tiles) {
+            CompletableFuture<List<ArticleClusterDTO>> future = new CompletableFuture<>();
+            CompletableFuture<List<ArticleClusterDTO>> loading = loadingClusterTiles.putIfAbsent(precision + ":" + tile, future);
+            if (loading == null) {
+                owned.put(tile, future);
+            } else {
+                waiting.put(tile, loading);
+            }
+        }
+
+        Map<String, List<ArticleClusterDTO>> result = new HashMap<>();
+        if (!owned.isEmpty()) {
+            try {
+                List<String> ownedTiles = new ArrayList<>(owned.keySet());
+                Map<String, List<ArticleClusterDTO>> loaded = buildClusters(articleMapper.findClusterPointsInTiles(GeoUtils.prefixRanges(ownedTiles)),
+                        ownedTiles, precision, tilePrecision);
+                articleClusterCache.put(precision, loaded);
+                result.putAll(loaded);
+                owned.forEach((tile, future) -> future.complete(loaded.get(tile)));
+            } catch (RuntimeException e) {
+                owned.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                owned.keySet().forEach(tile -> loadingClusterTiles.remove(precision + ":" + tile));
+            }
+        }
+
+        List<String> failedTiles = new ArrayList<>();
+        waiting.forEach((tile, future) -> {
+            try {
+                result.put(tile, future.get(CLUSTER_LOAD_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedTiles.add(tile);
+            } catch (Exception e) {
+                failedTiles.add(tile);
+            }
+        });
+        if (!failedTiles.isEmpty()) {
+            result.putAll(buildClusters(articleMapper.findClusterPointsInTiles(GeoUtils.prefixRanges(failedTiles)), failedTiles, precision, tilePrecision));
+        }
+        return result;
+    }
+
+    @Override
+    public void refreshDirtyClusterTiles() {
+        List<String> tiles = articleClusterCache.popDirtyTiles(MAX_CLUSTER_TILES);
+        if (tiles.isEmpty()) {
+            return;
+        }
+        try {
+            // 异步重算的各级精度共用同一精度的瓦片，一次查询后分别统计
+            List<Article> points = articleMapper.findClusterPointsInTiles(GeoUtils.prefixRanges(tiles));
+            for (int precision = 1; precision <= ArticleClusterCache.MAX_REFRESHED_PRECISION; precision++) {
+                articleClusterCache.put(precision, buildClusters(points, tiles, precision, ArticleClusterCache.tilePrecision(precision)));
+            }
+            log.debug("重算地图聚合瓦片: {}", tiles);
+        } catch (Exception e) {
+            log.error("重算地图聚合瓦片失败, tiles: {}", tiles, e);
+            articleClusterCache.markDirty(tiles);
+        }
+    }
+
+    @Override
+    public void backfillGeohash() {
+        int total = 0;
+        int updated;
+        do {
+            // 每批单独提交，避免长时间持有大量行锁
+            updated = articleMapper.backfillGeohash(GeoUtils.GEOHASH_LENGTH, GEOHASH_BACKFILL_BATCH_SIZE);
+            total += updated;
+        } while (updated == GEOHASH_BACKFILL_BATCH_SIZE);
+        if (total > 0) {
+            log.info("补写博文geohash: {}", total);
+        }
+    }
+
+    /**
+     * 将瓦片内的博文按聚合网格统计
+     * @return 瓦片geohash到聚合点的映射，包含所有传入的瓦片
+     */
+    private Map<String, List<ArticleClusterDTO>> buildClusters(List<Article> tilePoints, List<String> tiles, int precision, int tilePrecision) {
+        Map<String, List<Article>> pointsByCell = tilePoints
+                .stream()
+                .filter(point -> point.getGeohash().length() >= precision)
+                .collect(Collectors.groupingBy(point -> point.getGeohash().substring(0, precision)));
+
+        Map<String, List<ArticleClusterDTO>> clustersByTile = new HashMap<>();
+        tiles.forEach(tile -> clustersByTile.put(tile, new ArrayList<>()));
+        pointsByCell.forEach((cell, points) -> {
+            ArticleClusterDTO cluster = new ArticleClusterDTO();
+            cluster.setGeohash(cell);
+            cluster.setCount((long) points.size());
+            cluster.setLatitude(points.stream().mapToDouble(point -> point.getLatitude().doubleValue()).average().orElse(0));
+            cluster.setLongitude(points.stream().mapToDouble(point -> point.getLongitude().doubleValue()).average().orElse(0));
+            cluster.setTopArticleId(points.stream()
+                    .max(Comparator.comparing((Article point) -> point.getLikeCount() == null ? 0L : point.getLikeCount())
+                            .thenComparing(Article::getId))
+                    .map(Article::getId)
+                    .orElse(null));
+            cluster.setTypes(points.stream().collect(Collectors.groupingBy(Article::getType, Collectors.counting())));
+            List<ArticleClusterDTO> tileClusters = clustersByTile.get(cell.substring(0, tilePrecision));
+            if (tileClusters != null) {
+                tileClusters.add(cluster);
+            }
+        });
+        return clustersByTile;
+    }
+
+    /**
+     * 查询圆内距离最近的博文
+     * @return 按距离升序排列的博文位置及距离（米）
+     */
+    private List<Map.Entry<Article, Double>> findWithinRadius(double latitude, double longitude, double radius, int size) {
+        List<Article> locations = new ArrayList<>();
+        for (double[] box : GeoUtils.boundingBoxes(latitude, longitude, radius)) {
+            locations.addAll(articleMapper.findLocationsInRange(box[0], box[1], box[2], box[3],
+                    GeoUtils.prefixRanges(GeoUtils.coverBox(box[0], box[1], box[2], box[3], MAX_GEOHASH_CELLS))));
+        }
+        return locations.stream()
+                .map(location -> Map.entry(location, GeoUtils.distance(latitude, longitude,
+                        location.getLatitude().doubleValue(), location.getLongitude().doubleValue())))
+                .filter(entry -> entry.getValue() <= radius)
+                .sorted(Map.Entry.comparingByValue())
+                .limit(size)
+                .toList();
     }
     
     @Override
@@ -236,6 +801,9 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
             return false;
         }
         
+        String originalType = article.getType();
+        String originalGeohash = article.getGeohash();
+
         // 更新字段（只更新非空字段）
         if (title != null && !title.trim().isEmpty()) {
             article.setTitle(title.trim());
@@ -249,6 +817,10 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         if (longitude != null) {
             article.setLongitude(longitude);
         }
+        if (latitude != null || longitude != null) {
+            article.setGeohash(GeoUtils.encode(article.getLatitude().doubleValue(), article.getLongitude().doubleValue(),
+                    GeoUtils.GEOHASH_LENGTH));
+        }
         if (isValidType(type)) {
             article.setType(type);
         }
@@ -262,6 +834,14 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         
         // 保存更新
         int result = articleMapper.updateById(article);
+        if (result > 0) {
+            articleDetailCache.invalidate(article.getId());
+            // 类型变更时新旧类型的列表都受影响
+            articlePageCache.invalidate(Arrays.asList(originalType, article.getType()));
+            articleClusterCache.evict(originalGeohash, article.getGeohash());
+            searchStrategyContext.saveArticle(article);
+            articleSuggestIndex.publishArticles(Collections.singletonList(article.getId()));
+        }
         return result > 0;
     }
     
@@ -279,6 +859,13 @@ public class ArticleServiceImpl extends ServiceImpl<ArticleMapper, Article> impl
         
         // 删除博文
         int result = articleMapper.deleteById(id);
+        if (result > 0) {
+            articleDetailCache.invalidate(article.getId());
+            articlePageCache.invalidate(Collections.singletonList(article.getType()));
+            articleClusterCache.evict(article.getGeohash());
+            searchStrategyContext.deleteArticle(article.getId());
+            articleSuggestIndex.publishArticles(Collections.singletonList(article.getId()));
+        }
         return result > 0;
     }
     
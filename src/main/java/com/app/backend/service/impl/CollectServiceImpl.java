@@ -1,15 +1,339 @@
 package com.app.backend.service.impl;
 
+import com.alibaba.fastjson2.JSON;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.app.backend.entity.Collect;
+import com.app.backend.exception.BizException;
 import com.app.backend.mapper.CollectMapper;
 import com.app.backend.service.CollectService;
+import com.app.backend.vo.CollectVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.app.backend.constant.RabbitMQConstant.COLLECT_EXCHANGE;
+import static com.app.backend.constant.RedisConstant.ARTICLE_COLLECT_COUNT;
+import static com.app.backend.constant.RedisConstant.USER_COLLECTED_ARTICLES;
+import static com.app.backend.constant.RedisConstant.USER_COLLECT_VERSION;
 
 /**
  * 收藏服务实现类
+ * 用户的收藏Set要么不存在，要么包含全部已收藏的博文ID，Set中固定包含占位成员"0"，
+ * 因此未收藏任何博文的用户也能命中缓存；
+ * 切换收藏时先更新收藏Set和博文收藏数，再投递消息由消费者批量落库
  */
+@Slf4j
 @Service
 public class CollectServiceImpl extends ServiceImpl<CollectMapper, Collect> implements CollectService {
-    // 可以添加自定义的业务实现
-}
\ No newline at end of file
+
+    private static final String PLACEHOLDER_MEMBER = "0";
+
+    private static final long COLLECT_SET_TTL_DAYS = 7;
+
+    // 收藏数计数器只在切换收藏时增减，每批收藏落库提交后删除，下次读取从已提交的数据重新统计；
+    // 统计时仍在排队的切换最多偏差到其所在批次落库为止，过期时间只是兜底
+    private static final long COLLECT_COUNT_TTL_HOURS = 24;
+
+    // 版本号只需覆盖从读取版本号到写回收藏Set之间的加载耗时
+    private static final long COLLECT_VERSION_TTL_SECONDS = 3600;
+
+    // 递增用户的收藏版本号，并且只在收藏Set存在时增删成员（同时续期），避免生成只有部分收藏的Set；返回1表示状态发生变化
+    // 每次切换都续期，保证还有消息排队落库时Set不会过期后从尚未落库的数据库重新加载
+    private static final DefaultRedisScript<Long> SYNC_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[4]) " +
+            "if ARGV[2] == '1' then return redis.call('SADD', KEYS[1], ARGV[1]) end " +
+            "return redis.call('SREM', KEYS[1], ARGV[1])", Long.class);
+
+    // 收藏Set不存在、且读取数据库期间版本号未变化时才整体写入，避免旧快照覆盖或复活加载期间的切换
+    private static final DefaultRedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "for i = 3, #ARGV, 1000 do " +
+            "redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    // 只在计数器存在时累加收藏数，计数器缺失时由下次读取从数据库统计
+    private static final DefaultRedisScript<Long> INCR_COUNT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then " +
+            "return redis.call('INCRBY', KEYS[1], ARGV[1]) end " +
+            "return 0", Long.class);
+
+    @Autowired
+    private CollectMapper collectMapper;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Override
+    public void toggleCollect(CollectVO collectVO) {
+        if (collectVO.getUserId() == null || collectVO.getArticleId() == null || collectVO.getOperationType() == null) {
+            throw new BizException("收藏参数不完整");
+        }
+        collectVO.setOperationType(collectVO.getOperationType() == 1 ? 1 : 0);
+
+        // 收藏Set决定用户看到的收藏状态，状态未变化的重复操作无需落库
+        boolean changed = true;
+        try {
+            changed = applyToggle(collectVO, collectVO.getOperationType());
+        } catch (Exception e) {
+            log.warn("更新Redis收藏状态失败，直接投递收藏消息, userId: {}, articleId: {}", collectVO.getUserId(), collectVO.getArticleId(), e);
+        }
+        if (!changed) {
+            return;
+        }
+
+        try {
+            rabbitTemplate.send(COLLECT_EXCHANGE, "", new Message(JSON.toJSONBytes(collectVO), new MessageProperties()));
+        } catch (AmqpException e) {
+            // 消息未投递时撤销Redis中的修改，避免缓存状态领先于数据库
+            try {
+                applyToggle(collectVO, 1 - collectVO.getOperationType());
+            } catch (Exception revertException) {
+                log.error("撤销Redis收藏状态失败, userId: {}, articleId: {}", collectVO.getUserId(), collectVO.getArticleId(), revertException);
+            }
+            log.error("投递收藏消息失败", e);
+            throw new BizException("收藏失败，请稍后重试");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void submitCollectMessages(List<CollectVO> collectVOs) {
+        if (collectVOs == null || collectVOs.isEmpty()) {
+            return;
+        }
+
+        // 合并同一用户对同一博文的重复操作，只保留最终状态
+        Map<String, CollectVO> finalStates = new LinkedHashMap<>();
+        for (CollectVO collectVO : collectVOs) {
+            finalStates.put(collectVO.getUserId() + ":" + collectVO.getArticleId(), collectVO);
+        }
+
+        // 一条多行upsert写入数据库，收藏Set已在切换时更新，落库后的binlog再由Maxwell同步兜底
+        LocalDateTime now = LocalDateTime.now();
+        List<Collect> collectsToSave = new ArrayList<>(finalStates.size());
+        for (CollectVO collectVO : finalStates.values()) {
+            Collect collect = new Collect();
+            collect.setUserId(collectVO.getUserId());
+            collect.setArticleId(collectVO.getArticleId());
+            collect.setStatus(collectVO.getOperationType() == 1 ? 1 : 0);
+            collect.setCreateTime(now);
+            collect.setUpdateTime(now);
+            collectsToSave.add(collect);
+        }
+        collectMapper.batchUpsert(collectsToSave);
+        log.debug("批量写入收藏记录 - 收到{}条消息, 合并后{}条", collectVOs.size(), collectsToSave.size());
+
+        List<String> countKeys = collectsToSave.stream()
+                .map(collect -> ARTICLE_COLLECT_COUNT + collect.getArticleId())
+                .distinct()
+                .toList();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    redisTemplate.delete(countKeys);
+                } catch (Exception e) {
+                    log.warn("清除博文收藏数缓存失败, keys: {}", countKeys, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Map<Long, Boolean> getCollectStatusByArticleList(Long userId, List<Long> articleIds) {
+        Map<Long, Boolean> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+        List<Long> ids = articleIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (userId == null) {
+            ids.forEach(id -> result.put(id, false));
+            return result;
+        }
+
+        String userCollectSetKey = USER_COLLECTED_ARTICLES + userId;
+        try {
+            // 占位成员与整页博文一起判断，占位成员不存在说明Set未加载
+            List<Object> members = new ArrayList<>();
+            members.add(PLACEHOLDER_MEMBER);
+            ids.forEach(id -> members.add(String.valueOf(id)));
+            Map<Object, Boolean> collected = redisTemplate.opsForSet().isMember(userCollectSetKey, members.toArray());
+            if (collected != null && Boolean.TRUE.equals(collected.get(PLACEHOLDER_MEMBER))) {
+                ids.forEach(id -> result.put(id, Boolean.TRUE.equals(collected.get(String.valueOf(id)))));
+                return result;
+            }
+        } catch (Exception e) {
+            log.warn("从Redis批量获取收藏状态失败，fallback到数据库查询, userId: {}", userId, e);
+        }
+
+        // Set未加载，一次查询取出用户的全部收藏并写回
+        Set<Long> collectedIds = loadCollectSet(userId);
+        ids.forEach(id -> result.put(id, collectedIds.contains(id)));
+        return result;
+    }
+
+    @Override
+    public Map<Long, Long> getCollectCountByArticleList(List<Long> articleIds) {
+        Map<Long, Long> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+        List<Long> ids = articleIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        List<Long> missingIds = new ArrayList<>();
+        try {
+            List<Object> counts = redisTemplate.opsForValue().multiGet(ids.stream().map(id -> ARTICLE_COLLECT_COUNT + id).toList());
+            for (int i = 0; i < ids.size(); i++) {
+                Object count = counts == null ? null : counts.get(i);
+                if (count == null) {
+                    missingIds.add(ids.get(i));
+                } else {
+                    result.put(ids.get(i), Math.max(0, Long.parseLong(count.toString())));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("从Redis批量获取收藏数失败，fallback到数据库查询", e);
+            result.clear();
+            missingIds = new ArrayList<>(ids);
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+
+        // 未命中的博文一次分组统计，没有收藏的博文计为0
+        Map<Long, Long> loaded = collectMapper.countCollectsByArticleIds(missingIds)
+                .stream()
+                .collect(Collectors.toMap(dto -> dto.getArticle().longValue(), dto -> dto.getCollectCount().longValue()));
+        missingIds.forEach(id -> result.put(id, loaded.getOrDefault(id, 0L)));
+        try {
+            List<Long> idsToCache = missingIds;
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    for (Long id : idsToCache) {
+                        // 统计期间已有其他请求写入时以先写入的为准
+                        redisOperations.opsForValue().setIfAbsent(ARTICLE_COLLECT_COUNT + id, result.get(id).toString(),
+                                COLLECT_COUNT_TTL_HOURS, TimeUnit.HOURS);
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("写入博文收藏数缓存失败", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void syncCollectCache(List<Collect> collects) {
+        if (collects.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (Collect collect : collects) {
+                    redisOperations.execute(SYNC_SCRIPT, syncKeys(collect.getUserId()),
+                            syncArgs(collect.getArticleId().toString(), collect.getStatus() == 1 ? 1 : 0));
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 把收藏状态写入用户的收藏Set，状态确实发生变化时同步增减博文收藏数
+     * @param operationType 1 为收藏 0为取消
+     * @return 收藏状态是否发生变化
+     */
+    private boolean applyToggle(CollectVO collectVO, int operationType) {
+        String userCollectSetKey = USER_COLLECTED_ARTICLES + collectVO.getUserId();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(userCollectSetKey, PLACEHOLDER_MEMBER))) {
+            loadCollectSet(collectVO.getUserId());
+        }
+        Long changed = redisTemplate.execute(SYNC_SCRIPT, syncKeys(collectVO.getUserId()),
+                syncArgs(collectVO.getArticleId().toString(), operationType));
+        if (changed == null || changed == 0) {
+            return false;
+        }
+        redisTemplate.execute(INCR_COUNT_SCRIPT, Collections.singletonList(ARTICLE_COLLECT_COUNT + collectVO.getArticleId()),
+                operationType == 1 ? "1" : "-1");
+        return true;
+    }
+
+    private List<String> syncKeys(Long userId) {
+        return List.of(USER_COLLECTED_ARTICLES + userId, USER_COLLECT_VERSION + userId);
+    }
+
+    private Object[] syncArgs(String articleId, int operationType) {
+        return new Object[]{articleId, String.valueOf(operationType), String.valueOf(COLLECT_VERSION_TTL_SECONDS),
+                String.valueOf(TimeUnit.DAYS.toSeconds(COLLECT_SET_TTL_DAYS))};
+    }
+
+    /**
+     * 从数据库加载用户的全部收藏，收藏Set仍不存在且加载期间没有切换时写入
+     * @return 用户已收藏的博文ID
+     */
+    private Set<Long> loadCollectSet(Long userId) {
+        // 查询数据库之前先记下版本号
+        Object version = null;
+        boolean versionRead = false;
+        try {
+            version = redisTemplate.opsForValue().get(USER_COLLECT_VERSION + userId);
+            versionRead = true;
+        } catch (Exception e) {
+            log.warn("读取用户收藏版本号失败，本次不写入收藏缓存, userId: {}", userId, e);
+        }
+        Set<Long> collectedIds = new HashSet<>(collectMapper.findCollectedArticleIds(userId));
+        if (!versionRead) {
+            return collectedIds;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(version != null ? version.toString() : "0");
+        args.add(String.valueOf(TimeUnit.DAYS.toSeconds(COLLECT_SET_TTL_DAYS)));
+        args.add(PLACEHOLDER_MEMBER);
+        collectedIds.forEach(id -> args.add(String.valueOf(id)));
+        try {
+            redisTemplate.execute(LOAD_SCRIPT, syncKeys(userId), args.toArray());
+        } catch (Exception e) {
+            log.warn("写入用户收藏缓存失败, userId: {}", userId, e);
+        }
+        return collectedIds;
+    }
+}
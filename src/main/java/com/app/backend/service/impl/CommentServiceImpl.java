@@ -1,27 +1,510 @@
 package com.app.backend.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.cache.ArticleDetailCache;
+import com.app.backend.common.CursorUtils;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.exception.BizException;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.app.backend.entity.Comment;
 import com.app.backend.mapper.CommentMapper;
 import com.app.backend.service.CommentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.app.backend.constant.RedisConstant.ARTICLE_COMMENT_COUNT;
+import static com.app.backend.constant.RedisConstant.ARTICLE_COMMENT_COUNT_VERSION;
+import static com.app.backend.constant.RedisConstant.ARTICLE_RECENT_COMMENTS;
+import static com.app.backend.constant.RedisConstant.ARTICLE_RECENT_COMMENTS_VERSION;
+import static com.app.backend.constant.RedisConstant.COMMENT_COUNT_RECONCILING;
 
 /**
  * 评论服务实现类
+ * 每篇博文最新的评论缓存在Redis ZSet article:comments:recent:{articleId}中，score为创建时间（秒），
+ * 成员为补零的评论ID加评论JSON，同一秒内按成员字典序即按ID排序，与数据库(create_time, id)倒序一致；
+ * 新评论写入数据库后ZADD，并发写入的先后不影响顺序；多缓存一条用于判断是否还有下一页；没有评论的博文只保存一个占位成员；
+ * 评论被修改或删除时直接删除ZSet，下次读取时重新加载；新增、删除都会递增版本号，
+ * 加载时只有ZSet仍不存在且版本号未变才写入，避免读取数据库之后提交的变更被旧快照覆盖；
+ * 各博文的评论数保存在Redis Hash article:comment:count中，新增和软删除评论时增减，定时按pd_comment对账；
+ * 每篇博文另有写入版本号article:comment:count:version:{articleId}，写数据库之前递增started，更新计数器时递增finished，
+ * 从数据库统计后回填或对账时，只有统计之前没有进行中的写入、且之后也没有新的写入才覆盖计数器，
+ * 避免已提交但尚未累加到计数器的评论被统计两次，或回填的旧统计值覆盖期间的新增
  */
+@Slf4j
 @Service
 public class CommentServiceImpl extends ServiceImpl<CommentMapper, Comment> implements CommentService {
-    // 可以添加自定义的业务实现
+
+    // 缓存的最新评论条数，不超过该条数的第一页无需查询数据库
+    private static final int RECENT_COMMENT_SIZE = 20;
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private static final long RECENT_COMMENT_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    private static final String PLACEHOLDER_ITEM = "0";
+
+    // 评论列表游标的排序方式
+    private static final String COMMENT_SORT = "comment";
+
+    // 版本号只需覆盖从读取版本号到写回ZSet之间的加载耗时
+    private static final long RECENT_COMMENT_VERSION_TTL_SECONDS = 3600;
+
+    // ZSet不存在、且读取数据库期间版本号未变化时一次性写入，ARGV为 版本号, 过期时间, score1, member1, ...
+    private static final DefaultRedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('ZADD', KEYS[1], unpack(ARGV, 3)) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    // 递增版本号，并且只在ZSet已加载时写入新评论，避免生成只有部分评论的ZSet；只保留最新的若干条
+    private static final DefaultRedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[5]) " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('ZREM', KEYS[1], ARGV[3]) " +
+            "redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2]) " +
+            "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[4]) + 1)) " +
+            "return 1", Long.class);
+
+    // 递增版本号后删除ZSet，正在加载的旧快照将无法写入
+    private static final DefaultRedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+            "return redis.call('DEL', KEYS[1])", Long.class);
+
+    // 评论计数器对账时每批统计的博文数
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    // 写入版本号只需覆盖一次写入或一次统计的耗时，进程在写入中途退出时最迟在过期后恢复回填和对账
+    private static final long COUNT_VERSION_TTL_SECONDS = 3600;
+
+    // 写数据库之前标记写入开始
+    private static final DefaultRedisScript<Long> BEGIN_WRITE_SCRIPT = new DefaultRedisScript<>(
+            "local started = redis.call('HINCRBY', KEYS[1], 'started', 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return started", Long.class);
+
+    // 标记写入结束，并且只在计数器已加载时累加评论数，计数器缺失时由下次读取从数据库统计
+    private static final DefaultRedisScript<Long> INCR_COUNT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HINCRBY', KEYS[2], 'finished', 1) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "if ARGV[2] ~= '0' and redis.call('HEXISTS', KEYS[1], ARGV[1]) == 1 then " +
+            "return redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) end " +
+            "return 0", Long.class);
+
+    // 统计前后没有进行中或新开始的写入时才写入统计结果，ARGV为 博文ID, 统计前的started, 统计结果, 统计前的计数（回填时为空）
+    private static final DefaultRedisScript<Long> RECONCILE_SCRIPT = new DefaultRedisScript<>(
+            "local started = redis.call('HGET', KEYS[2], 'started') or '0' " +
+            "local finished = redis.call('HGET', KEYS[2], 'finished') or '0' " +
+            "if started ~= ARGV[2] or finished ~= started then return 0 end " +
+            "local current = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if ARGV[4] == '' then if current then return 0 end " +
+            "elseif current ~= ARGV[4] then return 0 end " +
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[3]) " +
+            "return 1", Long.class);
+
+    @Autowired
+    private ArticleDetailCache articleDetailCache;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public boolean save(Comment entity) {
+        // 与DATETIME精度一致，缓存中的评论才能直接作为分页游标
+        LocalDateTime createTime = entity.getCreateTime() == null ? LocalDateTime.now() : entity.getCreateTime();
+        entity.setCreateTime(createTime.truncatedTo(ChronoUnit.SECONDS));
+        beginCommentCountWrite(entity.getArticleId());
+        boolean saved = false;
+        try {
+            saved = super.save(entity);
+        } finally {
+            // 写入失败也要标记结束，否则版本号过期前该博文的计数器不会被回填和对账
+            incrementCommentCount(entity.getArticleId(), saved ? 1 : 0);
+        }
+        if (saved) {
+            // 详情中包含评论列表，新增评论后使详情缓存失效
+            articleDetailCache.invalidate(entity.getArticleId());
+            pushRecentComment(entity);
+        }
+        return saved;
+    }
+
+    @Override
+    public boolean deleteComment(Integer commentId, Long userId) {
+        Comment comment = this.getById(commentId);
+        if (comment == null || !Objects.equals(comment.getIsDelete(), 0) || !Objects.equals(comment.getUserId(), userId)) {
+            return false;
+        }
+        beginCommentCountWrite(comment.getArticleId());
+        boolean deleted = false;
+        try {
+            // 以is_delete = 0为条件，并发删除同一条评论时只有一次生效，计数器只扣减一次
+            deleted = this.update(new LambdaUpdateWrapper<Comment>()
+                    .set(Comment::getIsDelete, 1)
+                    .set(Comment::getUpdateTime, LocalDateTime.now())
+                    .eq(Comment::getId, commentId)
+                    .eq(Comment::getIsDelete, 0));
+        } finally {
+            incrementCommentCount(comment.getArticleId(), deleted ? -1 : 0);
+        }
+        if (deleted) {
+            articleDetailCache.invalidate(comment.getArticleId());
+            evictRecentComments(Collections.singletonList(comment.getArticleId()));
+        }
+        return deleted;
+    }
+
+    @Override
+    public CursorPage<Comment> getCommentsPaged(Long articleId, String cursor, Integer size) {
+        long pageSize = size == null || size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // 多取一条判断是否还有下一页
+        List<Comment> records = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = CursorUtils.decode(cursor, COMMENT_SORT);
+            try {
+                records = commentMapper.selectCommentPage(articleId, LocalDateTime.parse(position[0]),
+                        Integer.valueOf(position[1]), pageSize + 1);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BizException("无效的分页游标");
+            }
+        } else if (pageSize <= RECENT_COMMENT_SIZE) {
+            records = getRecentComments(articleId, pageSize + 1);
+        }
+        if (records == null) {
+            records = commentMapper.selectCommentPage(articleId, null, null, pageSize + 1);
+        }
+
+        boolean hasMore = records.size() > pageSize;
+        CursorPage<Comment> result = new CursorPage<>(1, pageSize);
+        result.setSearchCount(false);
+        result.setRecords(hasMore ? new ArrayList<>(records.subList(0, (int) pageSize)) : records);
+        if (hasMore) {
+            Comment last = result.getRecords().get(result.getRecords().size() - 1);
+            result.setNextCursor(CursorUtils.encode(COMMENT_SORT, last.getCreateTime(), last.getId().longValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public long getCommentCount(Long articleId) {
+        return getCommentCountByArticleList(Collections.singletonList(articleId)).get(articleId);
+    }
 
     @Override
-    public List<Comment> getCommentsByArticleId(Long articleId){
-        LambdaQueryWrapper<Comment> commentLambdaQueryWrapper=new LambdaQueryWrapper<>();
-        commentLambdaQueryWrapper.eq(Comment::getArticleId,articleId);
-        commentLambdaQueryWrapper.eq(Comment::getIsDelete,0);
-        List<Comment> comments=this.list(commentLambdaQueryWrapper);
-        return comments;
-    }
-}
\ No newline at end of file
+    public Map<Long, Long> getCommentCountByArticleList(List<Long> articleIds) {
+        Map<Long, Long> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+        List<Long> ids = articleIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        List<Long> missingIds = new ArrayList<>();
+        try {
+            List<Object> counts = redisTemplate.<Object, Object>opsForHash().multiGet(ARTICLE_COMMENT_COUNT,
+                    ids.stream().<Object>map(String::valueOf).toList());
+            for (int i = 0; i < ids.size(); i++) {
+                Object count = counts == null ? null : counts.get(i);
+                if (count == null) {
+                    missingIds.add(ids.get(i));
+                } else {
+                    result.put(ids.get(i), Math.max(0, Long.parseLong(count.toString())));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("从Redis批量获取评论数失败，fallback到数据库查询", e);
+            result.clear();
+            missingIds = new ArrayList<>(ids);
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+
+        // 统计之前记下写入版本号，回填时校验统计期间没有评论写入
+        Map<Long, String> versions = readCountVersions(missingIds);
+        // 未命中的博文一次分组统计，没有评论的博文计为0
+        Map<Long, Long> loaded = countComments(missingIds);
+        missingIds.forEach(id -> result.put(id, loaded.getOrDefault(id, 0L)));
+        if (versions == null) {
+            return result;
+        }
+        try {
+            List<Long> idsToCache = missingIds;
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    for (Long id : idsToCache) {
+                        // 计数器已被其他请求回填，或统计期间有评论写入时放弃回填，由下次读取重新统计
+                        redisOperations.execute(RECONCILE_SCRIPT, commentCountKeys(id),
+                                id.toString(), versions.get(id), result.get(id).toString(), "");
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.warn("写入博文评论数缓存失败", e);
+        }
+        return result;
+    }
+
+    @Override
+    public void reconcileCommentCounts() {
+        // 多节点同时触发时只由一个节点对账
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(COMMENT_COUNT_RECONCILING, "1", Duration.ofMinutes(30)))) {
+            log.info("其他节点正在对账评论计数器，跳过");
+            return;
+        }
+        long checked = 0;
+        long fixed = 0;
+        try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash().scan(ARTICLE_COMMENT_COUNT,
+                ScanOptions.scanOptions().count(RECONCILE_BATCH_SIZE).build())) {
+            Map<Long, String> batch = new HashMap<>();
+            while (cursor.hasNext()) {
+                Map.Entry<Object, Object> entry = cursor.next();
+                batch.put(Long.valueOf(entry.getKey().toString()), entry.getValue().toString());
+                if (batch.size() >= RECONCILE_BATCH_SIZE) {
+                    fixed += reconcileBatch(batch);
+                    checked += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                fixed += reconcileBatch(batch);
+                checked += batch.size();
+            }
+            log.info("评论计数器对账完成，检查{}篇博文，修正{}篇", checked, fixed);
+        } catch (Exception e) {
+            log.error("评论计数器对账失败", e);
+        } finally {
+            redisTemplate.delete(COMMENT_COUNT_RECONCILING);
+        }
+    }
+
+    @Override
+    public void evictRecentComments(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    for (Long articleId : articleIds) {
+                        redisOperations.execute(EVICT_SCRIPT, recentCommentKeys(articleId), String.valueOf(RECENT_COMMENT_VERSION_TTL_SECONDS));
+                    }
+                    return null;
+                }
+            });
+        } catch (Exception e) {
+            log.error("清除最新评论缓存失败, articleIds: {}", articleIds, e);
+        }
+    }
+
+    /**
+     * 从Redis读取最新的评论，ZSet不存在时从数据库加载
+     * @param count 读取条数，不超过RECENT_COMMENT_SIZE + 1
+     * @return 最新的评论，读取Redis失败时返回null，由调用方查询数据库
+     */
+    private List<Comment> getRecentComments(Long articleId, long count) {
+        List<String> keys = recentCommentKeys(articleId);
+        Object version;
+        try {
+            List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    redisOperations.opsForZSet().reverseRange(keys.get(0), 0, count - 1);
+                    redisOperations.opsForValue().get(keys.get(1));
+                    return null;
+                }
+            });
+            Collection<?> items = (Collection<?>) replies.get(0);
+            if (items != null && !items.isEmpty()) {
+                return items.stream()
+                        .map(Object::toString)
+                        .filter(item -> !PLACEHOLDER_ITEM.equals(item))
+                        .map(item -> JSON.parseObject(item.substring(item.indexOf(':') + 1), Comment.class))
+                        .toList();
+            }
+            // ZSet不存在，查询数据库之前记下的版本号用于写回时校验
+            version = replies.get(1);
+        } catch (Exception e) {
+            log.warn("读取最新评论缓存失败，fallback到数据库查询, articleId: {}", articleId, e);
+            return null;
+        }
+
+        List<Comment> comments = commentMapper.selectCommentPage(articleId, null, null, RECENT_COMMENT_SIZE + 1);
+        try {
+            List<Object> args = new ArrayList<>();
+            args.add(version != null ? version.toString() : "0");
+            args.add(String.valueOf(RECENT_COMMENT_TTL_SECONDS));
+            if (comments.isEmpty()) {
+                args.add("0");
+                args.add(PLACEHOLDER_ITEM);
+            }
+            for (Comment comment : comments) {
+                args.add(String.valueOf(scoreOf(comment)));
+                args.add(memberOf(comment));
+            }
+            redisTemplate.execute(LOAD_SCRIPT, keys, args.toArray());
+        } catch (Exception e) {
+            log.warn("写入最新评论缓存失败, articleId: {}", articleId, e);
+        }
+        return comments.size() > count ? comments.subList(0, (int) count) : comments;
+    }
+
+    private List<String> recentCommentKeys(Long articleId) {
+        return List.of(ARTICLE_RECENT_COMMENTS + articleId, ARTICLE_RECENT_COMMENTS_VERSION + articleId);
+    }
+
+    /**
+     * 评论在最新评论ZSet中的score，精确到秒
+     */
+    private long scoreOf(Comment comment) {
+        return comment.getCreateTime().atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    /**
+     * 评论在最新评论ZSet中的成员，补零的ID保证同一秒内的字典序与ID顺序一致
+     */
+    private String memberOf(Comment comment) {
+        return String.format("%010d:%s", comment.getId(), JSON.toJSONString(comment));
+    }
+
+    /**
+     * 对一批计数器重新统计，只修正与数据库不一致的计数器
+     * 计数和写入版本号都在统计之前读取，统计期间有写入进行或完成的计数器留到下次对账
+     * @param cachedCounts 博文ID到对账开始时读取的计数
+     * @return 修正的计数器数
+     */
+    private long reconcileBatch(Map<Long, String> cachedCounts) {
+        Map<Long, String> versions = readCountVersions(cachedCounts.keySet());
+        if (versions == null) {
+            return 0;
+        }
+        Map<Long, Long> counts = countComments(cachedCounts.keySet());
+        long fixed = 0;
+        for (Map.Entry<Long, String> entry : cachedCounts.entrySet()) {
+            String actual = String.valueOf(counts.getOrDefault(entry.getKey(), 0L));
+            if (actual.equals(entry.getValue())) {
+                continue;
+            }
+            Long updated = redisTemplate.execute(RECONCILE_SCRIPT, commentCountKeys(entry.getKey()),
+                    entry.getKey().toString(), versions.get(entry.getKey()), actual, entry.getValue());
+            if (updated != null && updated == 1) {
+                log.debug("修正博文评论数, articleId: {}, {} -> {}", entry.getKey(), entry.getValue(), actual);
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    private Map<Long, Long> countComments(Collection<Long> articleIds) {
+        return commentMapper.countCommentsByArticleIds(articleIds)
+                .stream()
+                .collect(Collectors.toMap(dto -> dto.getArticle().longValue(), dto -> dto.getCommentCount().longValue()));
+    }
+
+    private List<String> commentCountKeys(Long articleId) {
+        return List.of(ARTICLE_COMMENT_COUNT, ARTICLE_COMMENT_COUNT_VERSION + articleId);
+    }
+
+    /**
+     * 批量读取写入开始次数，从数据库统计评论数之前调用
+     * @return 博文ID到started，读取失败时返回null，此时不应写入统计结果
+     */
+    private Map<Long, String> readCountVersions(Collection<Long> articleIds) {
+        List<Long> ids = new ArrayList<>(articleIds);
+        try {
+            List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                    for (Long id : ids) {
+                        redisOperations.opsForHash().multiGet(ARTICLE_COMMENT_COUNT_VERSION + id, List.of("started", "finished"));
+                    }
+                    return null;
+                }
+            });
+            Map<Long, String> versions = new HashMap<>();
+            for (int i = 0; i < ids.size(); i++) {
+                List<?> fields = (List<?>) replies.get(i);
+                String started = fields.get(0) == null ? "0" : fields.get(0).toString();
+                String finished = fields.get(1) == null ? "0" : fields.get(1).toString();
+                // 统计开始时仍有写入未完成，用不可能匹配的版本号使本次统计结果不被写入
+                versions.put(ids.get(i), started.equals(finished) ? started : "-1");
+            }
+            return versions;
+        } catch (Exception e) {
+            log.warn("读取评论计数器写入版本号失败", e);
+            return null;
+        }
+    }
+
+    private void beginCommentCountWrite(Long articleId) {
+        try {
+            redisTemplate.execute(BEGIN_WRITE_SCRIPT, Collections.singletonList(ARTICLE_COMMENT_COUNT_VERSION + articleId),
+                    String.valueOf(COUNT_VERSION_TTL_SECONDS));
+        } catch (Exception e) {
+            // 计数器偏差由定时对账修正
+            log.warn("标记评论写入失败, articleId: {}", articleId, e);
+        }
+    }
+
+    private void incrementCommentCount(Long articleId, long delta) {
+        try {
+            redisTemplate.execute(INCR_COUNT_SCRIPT, commentCountKeys(articleId),
+                    articleId.toString(), String.valueOf(delta), String.valueOf(COUNT_VERSION_TTL_SECONDS));
+        } catch (Exception e) {
+            // 计数器偏差由定时对账修正
+            log.warn("更新博文评论数失败, articleId: {}", articleId, e);
+        }
+    }
+
+    private void pushRecentComment(Comment comment) {
+        try {
+            redisTemplate.execute(PUSH_SCRIPT, recentCommentKeys(comment.getArticleId()),
+                    String.valueOf(scoreOf(comment)), memberOf(comment), PLACEHOLDER_ITEM,
+                    String.valueOf(RECENT_COMMENT_SIZE + 1), String.valueOf(RECENT_COMMENT_VERSION_TTL_SECONDS));
+        } catch (Exception e) {
+            // 写入失败时删除ZSet，避免缓存中缺少这条评论
+            evictRecentComments(Collections.singletonList(comment.getArticleId()));
+        }
+    }
+}
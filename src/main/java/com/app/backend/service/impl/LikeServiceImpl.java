@@ -1,33 +1,54 @@
 package com.app.backend.service.impl;
 
-import com.alibaba.fastjson2.JSON;
+import com.app.backend.cache.ArticleSuggestIndex;
+import com.app.backend.cache.ArticleTrendingRanker;
+import com.app.backend.cache.HotArticleLikeRegistry;
+import com.app.backend.config.properties.LikeProperties;
 import com.app.backend.dto.ArticleLikeDTO;
+import com.app.backend.dto.ArticleLikeDeltaDTO;
 import com.app.backend.entity.Like;
+import com.app.backend.mapper.ArticleMapper;
 import com.app.backend.mapper.LikeMapper;
+import com.app.backend.producer.LikeProducer;
 import com.app.backend.service.LikeService;
 import com.app.backend.vo.LikeVO;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.MessageProperties;
-import org.springframework.amqp.core.Message;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-import static com.app.backend.constant.RabbitMQConstant.LIKE_EXCHANGE;
+import static com.app.backend.constant.RedisConstant.LIKE_CACHE_WARMING;
+import static com.app.backend.constant.RedisConstant.USER_LIKED_ARTICLES;
+import static com.app.backend.constant.RedisConstant.USER_LIKE_VERSION;
 
 /**
  * 点赞服务实现类
+ * 用户的点赞Set要么不存在，要么包含全部已点赞的博文ID，Set中固定包含占位成员"0"，
+ * 因此占位成员存在即可确认Set完整，未命中的成员才能判定为未点赞
  */
 @Slf4j
 @Service
@@ -37,97 +58,256 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
     private LikeMapper likeMapper;
 
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private LikeProducer likeProducer;
+
+    @Autowired
+    private HotArticleLikeRegistry hotArticleLikeRegistry;
+
+    @Autowired
+    private ArticleTrendingRanker articleTrendingRanker;
+
+    @Autowired
+    private ArticleSuggestIndex articleSuggestIndex;
     
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
+
+    @Autowired
+    private LikeProperties likeProperties;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    private static final String PLACEHOLDER_MEMBER = "0";
+
+    private static final long USER_LIKE_SET_TTL_DAYS = 7;
+
+    // 递增用户的点赞版本号，并且只在点赞Set存在时增删成员，避免生成只有部分点赞的Set；返回1表示状态发生变化
+    private static final DefaultRedisScript<Long> USER_LIKE_SYNC_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "if ARGV[2] == '1' then return redis.call('SADD', KEYS[1], ARGV[1]) end " +
+            "return redis.call('SREM', KEYS[1], ARGV[1])", Long.class);
+
+    // 点赞Set不存在、且读取数据库期间版本号未变化时才整体写入，避免旧快照覆盖或复活加载期间同步的变更
+    private static final DefaultRedisScript<Long> USER_LIKE_LOAD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "for i = 3, #ARGV, 1000 do " +
+            "redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    // 每次刷新锁定的增量记录数，同时限制每条UPDATE语句累加的博文数
+    private static final int LIKE_COUNT_FLUSH_BATCH_SIZE = 500;
+
+    // 正在从数据库重建点赞Set的博文，保证同一博文只有一个调用方回源
+    private final ConcurrentHashMap<Long, CompletableFuture<Long>> loadingArticleLikes = new ConcurrentHashMap<>();
     
     @Override
     public void toggleLike(LikeVO likeVO) {
 
-        //将消息投入到消息队列
-        rabbitTemplate.convertAndSend(LIKE_EXCHANGE, "*", new Message(JSON.toJSONBytes(likeVO),new MessageProperties()));
+        //将消息放入发送缓冲区，由发送线程异步投递到消息队列
+        likeProducer.send(likeVO);
     }
 
 
     @Override
     public void submitLikeMessage(LikeVO likeVO){
-        // 先更新Redis缓存（使用Set保存点赞关系）
-        try {
-            String userLikeSetKey = "user:liked:articles:" + likeVO.getUserId();
-            String articleLikedSetKey = "article:liked:users:" + likeVO.getArticleId();
-
-            if(likeVO.getOperationType()==1) {
-                // 将文章ID添加到用户点赞的文章集合中
-                redisTemplate.opsForSet().add(userLikeSetKey, likeVO.getArticleId().toString());
-                // 将用户ID添加到文章被点赞的用户集合中
-                redisTemplate.opsForSet().add(articleLikedSetKey, likeVO.getUserId().toString());
-                log.debug("已更新Redis缓存 - 用户{}点赞了文章{}, 已添加到Set中", likeVO.getUserId(), likeVO.getArticleId());
-            }else {
-                redisTemplate.opsForSet().remove(userLikeSetKey, likeVO.getArticleId().toString());
-                // 将用户ID添加到文章被点赞的用户集合中
-                redisTemplate.opsForSet().remove(articleLikedSetKey, likeVO.getUserId().toString());
-                log.debug("已更新Redis缓存 - 用户{}取消点赞了文章{}, 已删除", likeVO.getUserId(), likeVO.getArticleId());
+        submitLikeMessages(Collections.singletonList(likeVO));
+    }
 
-            }
-        } catch (Exception e) {
-            log.error("更新Redis点赞缓存失败", e);
+    @Override
+    @Transactional
+    public void submitLikeMessages(List<LikeVO> likeVOs){
+        if (likeVOs == null || likeVOs.isEmpty()) {
+            return;
         }
-        
-        // 再更新数据库
-        LambdaQueryWrapper<Like> likeLambdaQueryWrapper=new LambdaQueryWrapper<>();
-        likeLambdaQueryWrapper.eq(Like::getArticleId,likeVO.getArticleId());
-        likeLambdaQueryWrapper.eq(Like::getUserId,likeVO.getUserId());
-
-        Like like=this.getOne(likeLambdaQueryWrapper);
-        if(like==null){
-            Like likeToSave =new Like();
-            likeToSave.setStatus(1);
-            likeToSave.setArticleId(likeVO.getArticleId());
-            likeToSave.setUserId(likeVO.getUserId());
-            likeToSave.setCreateTime(LocalDateTime.now());
-            likeToSave.setUpdateTime(LocalDateTime.now());
-            this.save(likeToSave);
-        }else{
-            if( like.getStatus()==0){
-                like.setStatus(1);
-                like.setUpdateTime(LocalDateTime.now());
-                this.updateById(like);
+
+        // 合并同一用户对同一博文的重复操作，只保留最终状态
+        Map<String, LikeVO> finalStates = new LinkedHashMap<>();
+        for (LikeVO likeVO : likeVOs) {
+            finalStates.put(likeVO.getUserId() + ":" + likeVO.getArticleId(), likeVO);
+        }
+
+        // 一条多行upsert写入数据库
+        LocalDateTime now = LocalDateTime.now();
+        List<Like> likesToSave = new ArrayList<>(finalStates.size());
+        for (LikeVO likeVO : finalStates.values()) {
+            Like like = new Like();
+            like.setUserId(likeVO.getUserId());
+            like.setArticleId(likeVO.getArticleId());
+            like.setStatus(likeVO.getOperationType() == 1 ? 1 : 0);
+            like.setCreateTime(now);
+            like.setUpdateTime(now);
+            likesToSave.add(like);
+        }
+
+        // 对比落库前的状态，只有真正发生变化的记录才计入点赞数增量
+        Map<String, Integer> previousStatus = likeMapper.findByUserArticlePairs(likesToSave)
+                .stream()
+                .collect(Collectors.toMap(like -> like.getUserId() + ":" + like.getArticleId(), Like::getStatus));
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Long> newLikes = new HashMap<>();
+        for (Like like : likesToSave) {
+            int before = previousStatus.getOrDefault(like.getUserId() + ":" + like.getArticleId(), 0);
+            if (before != like.getStatus()) {
+                deltas.merge(like.getArticleId().longValue(), like.getStatus() == 1 ? 1L : -1L, Long::sum);
+                if (like.getStatus() == 1) {
+                    newLikes.merge(like.getArticleId().longValue(), 1L, Long::sum);
+                }
             }
         }
+
+        likeMapper.batchUpsert(likesToSave);
+        addLikeCountDeltas(deltas);
+        recordTrendingLikes(newLikes);
+        log.debug("批量写入点赞记录 - 收到{}条消息, 合并后{}条", likeVOs.size(), likesToSave.size());
+
+        // 提交后再通过pipeline同步Redis缓存（使用Set保存点赞关系）
+        // 缓存的写入会递增点赞版本号，必须晚于提交，否则并发的加载可能在提交前读到旧数据并以新版本号写回
+        Map<Long, Long> likesPerArticle = finalStates.values()
+                .stream()
+                .filter(likeVO -> likeVO.getOperationType() == 1)
+                .collect(Collectors.groupingBy(likeVO -> likeVO.getArticleId().longValue(), Collectors.counting()));
+        runAfterCommit(() -> {
+            try {
+                syncLikeCache(likesToSave);
+
+                // 统计各博文的点赞速率，识别需要拆分的热点博文
+                hotArticleLikeRegistry.recordLikes(likesPerArticle);
+            } catch (Exception e) {
+                log.error("更新Redis点赞缓存失败", e);
+            }
+        });
+    }
+
+    /**
+     * 提交后同步单条点赞关系到Redis缓存
+     * @param status 1 为点赞 0为取消
+     */
+    private void syncLikeCacheAfterCommit(Long userId, Integer articleId, int status) {
+        Like like = new Like();
+        like.setUserId(userId);
+        like.setArticleId(articleId);
+        like.setStatus(status);
+        runAfterCommit(() -> {
+            try {
+                syncLikeCache(Collections.singletonList(like));
+            } catch (Exception e) {
+                log.error("更新Redis点赞缓存失败", e);
+            }
+        });
     }
 
 
 
+    @Override
+    public void syncLikeCache(List<Like> likes) {
+        if (likes.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                for (Like like : likes) {
+                    redisOperations.execute(USER_LIKE_SYNC_SCRIPT,
+                            List.of(userLikeSetKey(like.getUserId()), userLikeVersionKey(like.getUserId())),
+                            like.getArticleId().toString(), like.getStatus() == 1 ? "1" : "0", String.valueOf(HotArticleLikeRegistry.VERSION_TTL_SECONDS));
+                }
+                return null;
+            }
+        });
+        hotArticleLikeRegistry.writeLikes(likes);
+    }
+
     @Override
     public boolean hasUserLikedArticle(Long userId, Integer articleId) {
         if (userId == null || articleId == null) {
             return false;
         }
-        
-        Like like = likeMapper.findByUserIdAndArticleId(userId, articleId);
-        return like != null && like.getStatus() == 1;
+        return getLikeStatusByArticleList(userId, Collections.singletonList(articleId.longValue())).get(articleId.longValue());
     }
     
     @Override
-    public Integer getLikeCountByArticle(Integer articleId) {
-        if (articleId == null) {
-            return 0;
+    public Map<Long, Boolean> getLikeStatusByArticleList(Long userId, List<Long> articleIds) {
+        Map<Long, Boolean> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
         }
-        
-        // 优先从Redis获取
+        List<Long> ids = articleIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (userId == null) {
+            ids.forEach(id -> result.put(id, false));
+            return result;
+        }
+
+        // 优先从Redis获取，一次SMISMEMBER判断整页博文，同时带上占位成员确认Set是否完整
         try {
-            String articleLikedSetKey = "article:liked:users:" + articleId;
-            Long size = redisTemplate.opsForSet().size(articleLikedSetKey);
-            if (size != null) {
-                return size.intValue();
+            String userLikeSetKey = userLikeSetKey(userId);
+            List<Object> members = new ArrayList<>();
+            members.add(PLACEHOLDER_MEMBER);
+            ids.forEach(id -> members.add(String.valueOf(id)));
+            Map<Object, Boolean> isMember = redisTemplate.opsForSet().isMember(userLikeSetKey, members.toArray());
+            if (isMember != null && Boolean.TRUE.equals(isMember.get(PLACEHOLDER_MEMBER))) {
+                ids.forEach(id -> result.put(id, Boolean.TRUE.equals(isMember.get(String.valueOf(id)))));
+                return result;
             }
+            // 点赞Set不存在（未加载或已过期），从数据库加载整个Set
+            Set<Long> likedIds = loadUserLikeSet(userId);
+            ids.forEach(id -> result.put(id, likedIds.contains(id)));
+            return result;
         } catch (Exception e) {
-            log.warn("从Redis获取博文点赞数失败，fallback到数据库查询, articleId: {}", articleId, e);
+            log.warn("从Redis批量获取点赞状态失败，fallback到数据库查询, userId: {}", userId, e);
+        }
+
+        // Redis不可用，一次查询从数据库获取
+        Set<Long> likedIds = new HashSet<>(likeMapper.findLikedArticleIds(userId, ids));
+        ids.forEach(id -> result.put(id, likedIds.contains(id)));
+        return result;
+    }
+
+    /**
+     * 从数据库加载用户的全部点赞并写入点赞Set
+     * @return 用户已点赞的博文ID
+     */
+    private Set<Long> loadUserLikeSet(Long userId) {
+        // 查询数据库之前先记下版本号，查询期间有点赞变更时放弃写回
+        Object version = null;
+        boolean versionRead = false;
+        try {
+            version = redisTemplate.opsForValue().get(userLikeVersionKey(userId));
+            versionRead = true;
+        } catch (Exception e) {
+            log.warn("读取用户点赞版本号失败，本次不写入点赞缓存, userId: {}", userId, e);
+        }
+        Set<Long> likedIds = new HashSet<>(likeMapper.findAllLikedArticleIds(userId));
+        if (!versionRead) {
+            return likedIds;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(version != null ? version.toString() : "0");
+        args.add(String.valueOf(TimeUnit.DAYS.toSeconds(USER_LIKE_SET_TTL_DAYS)));
+        args.add(PLACEHOLDER_MEMBER);
+        likedIds.forEach(id -> args.add(String.valueOf(id)));
+        try {
+            redisTemplate.execute(USER_LIKE_LOAD_SCRIPT, List.of(userLikeSetKey(userId), userLikeVersionKey(userId)), args.toArray());
+        } catch (Exception e) {
+            log.warn("写入用户点赞缓存失败, userId: {}", userId, e);
+        }
+        return likedIds;
+    }
+    
+    @Override
+    public Integer getLikeCountByArticle(Integer articleId) {
+        if (articleId == null) {
+            return 0;
         }
         
-        // Redis未命中，从数据库查询
-        return likeMapper.countLikesByArticleId(articleId);
+        Long count = getLikeCountByArticleList(Collections.singletonList(articleId.longValue())).get(articleId.longValue());
+        return count.intValue();
     }
     
     @Override
@@ -138,11 +318,13 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
         
         // 优先从Redis获取
         try {
-            String userLikeSetKey = "user:liked:articles:" + userId;
+            String userLikeSetKey = userLikeSetKey(userId);
             Long size = redisTemplate.opsForSet().size(userLikeSetKey);
-            if (size != null) {
-                return size.intValue();
+            // 去掉占位成员，Set不存在时加载整个Set
+            if (size != null && size > 0) {
+                return size.intValue() - 1;
             }
+            return loadUserLikeSet(userId).size();
         } catch (Exception e) {
             log.warn("从Redis获取用户点赞数失败，fallback到数据库查询, userId: {}", userId, e);
         }
@@ -158,10 +340,9 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
             return false;
         }
         
-        // 先更新Redis缓存（使用Set保存点赞关系）
+        // 先通过Redis缓存检查是否已经点赞
         try {
-            String userLikeSetKey = "user:liked:articles:" + userId;
-            String articleLikedSetKey = "article:liked:users:" + articleId;
+            String userLikeSetKey = userLikeSetKey(userId);
             
             // 检查是否已经点赞
             Boolean isMember = redisTemplate.opsForSet().isMember(userLikeSetKey, articleId.toString());
@@ -169,18 +350,11 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
                 // 已经点赞，抛出异常
                 throw new RuntimeException("用户已点赞该文章");
             }
-            
-            // 将文章ID添加到用户点赞的文章集合中
-            redisTemplate.opsForSet().add(userLikeSetKey, articleId.toString());
-            // 将用户ID添加到文章被点赞的用户集合中
-            redisTemplate.opsForSet().add(articleLikedSetKey, userId.toString());
-            
-            log.debug("已更新Redis缓存 - 用户{}点赞了文章{}, 已添加到Set中", userId, articleId);
         } catch (RuntimeException e) {
             log.error("用户已点赞该文章: userId={}, articleId={}", userId, articleId);
             throw e; // 重新抛出业务异常
         } catch (Exception e) {
-            log.error("更新Redis点赞缓存失败", e);
+            log.error("查询Redis点赞缓存失败", e);
         }
         
         // 再更新数据库
@@ -217,6 +391,12 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
             int result = likeMapper.update(null, updateWrapper);
             success = result > 0;
         }
+
+        if (success) {
+            addLikeCountDeltas(Collections.singletonMap(articleId.longValue(), 1L));
+            recordTrendingLikes(Collections.singletonMap(articleId.longValue(), 1L));
+            syncLikeCacheAfterCommit(userId, articleId, 1);
+        }
         
         return success;
     }
@@ -228,22 +408,8 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
             return false;
         }
         
-        // 先更新Redis缓存
-        try {
-            String userLikeSetKey = "user:liked:articles:" + userId;
-            String articleLikedSetKey = "article:liked:users:" + articleId;
-            
-            // 从用户点赞的文章集合中移除文章ID
-            redisTemplate.opsForSet().remove(userLikeSetKey, articleId.toString());
-            // 从文章被点赞的用户集合中移除用户ID
-            redisTemplate.opsForSet().remove(articleLikedSetKey, userId.toString());
-            
-            log.debug("已更新Redis缓存 - 用户{}取消点赞文章{}, 已从Set中移除", userId, articleId);
-        } catch (Exception e) {
-            log.error("更新Redis取消点赞缓存失败", e);
-        }
-        
-        // 再更新数据库
+        // 更新数据库
+        Like existingLike = likeMapper.findByUserIdAndArticleId(userId, articleId);
         UpdateWrapper<Like> updateWrapper = new UpdateWrapper<>();
         updateWrapper.eq("user_id", userId)
                     .eq("article_id", articleId)
@@ -252,6 +418,13 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
         
         int result = likeMapper.update(null, updateWrapper);
         boolean success = result > 0;
+
+        if (success && existingLike != null && existingLike.getStatus() == 1) {
+            addLikeCountDeltas(Collections.singletonMap(articleId.longValue(), -1L));
+        }
+        if (success) {
+            syncLikeCacheAfterCommit(userId, articleId, 0);
+        }
         
         return success;
     }
@@ -259,26 +432,242 @@ public class LikeServiceImpl extends ServiceImpl<LikeMapper, Like> implements Li
     @Override
     public Map<Long,Long> getLikeCountByArticleList(List<Long> articleIds) {
         Map<Long,Long> result= new HashMap<>();
-        // 优先从Redis获取
-        for(Long id : articleIds){
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+        List<Long> ids = articleIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        // 优先从Redis获取，pipeline取回所有博文原Set的SCARD，已拆分的热点博文再汇总所有子Set
+        // 每个Set都包含一个占位成员，原Set不存在说明尚未加载，交给数据库重建
+        List<Long> missedIds = new ArrayList<>();
+        boolean redisAvailable = true;
+        try {
+            result.putAll(hotArticleLikeRegistry.readCounts(ids));
+            ids.stream().filter(id -> !result.containsKey(id)).forEach(missedIds::add);
+        } catch (Exception e) {
+            log.warn("从Redis批量获取博文点赞数失败，fallback到数据库查询, articleIds: {}", ids, e);
+            result.clear();
+            missedIds = new ArrayList<>(ids);
+            redisAvailable = false;
+        }
+
+        // Redis不可用时直接查询数据库，否则从数据库重建未命中博文的点赞Set
+        if (!missedIds.isEmpty()) {
+            result.putAll(redisAvailable ? loadArticleLikeSets(missedIds) : countLikesFromDatabase(missedIds));
+        }
+        return result;
+    }
+
+
+    /**
+     * 从数据库重建博文的点赞Set并返回点赞数
+     * 同一博文在本节点同一时刻只有一个调用方执行加载，其余调用方等待同一个Future
+     * @param articleIds Redis未命中的博文ID
+     * @return 博文ID到点赞数量的映射
+     */
+    private Map<Long, Long> loadArticleLikeSets(List<Long> articleIds) {
+        Map<Long, CompletableFuture<Long>> owned = new HashMap<>();
+        Map<Long, CompletableFuture<Long>> waiting = new HashMap<>();
+        for (Long articleId : articleIds) {
+            CompletableFuture<Long> future = new CompletableFuture<>();
+            CompletableFuture<Long> loading = loadingArticleLikes.putIfAbsent(articleId, future);
+            if (loading == null) {
+                owned.put(articleId, future);
+            } else {
+                waiting.put(articleId, loading);
+            }
+        }
+
+        Map<Long, Long> result = new HashMap<>();
+        List<Long> failedIds = new ArrayList<>();
+        if (!owned.isEmpty()) {
+            // 查询数据库之前先记下版本号，查询期间有点赞变更时放弃写回，避免旧快照覆盖或复活变更
+            Map<Long, String> versions = null;
+            try {
+                versions = hotArticleLikeRegistry.readVersions(new ArrayList<>(owned.keySet()));
+            } catch (Exception e) {
+                log.warn("读取博文点赞版本号失败，本次不重建点赞Set, articleIds: {}", owned.keySet(), e);
+            }
             try {
-                String articleLikedSetKey = "article:liked:users:" + id;
-                //判断redis是否存在key
-                if (!redisTemplate.hasKey(articleLikedSetKey)) {
-                    result.put(id, 0L);
-                    continue;
+                // 没有点赞的博文同样写入（只含占位成员），避免每次都回源数据库
+                Map<Long, List<String>> likedUsers = new HashMap<>();
+                owned.keySet().forEach(articleId -> likedUsers.put(articleId, new ArrayList<>()));
+                for (Like like : likeMapper.findActiveLikesByArticleIds(owned.keySet())) {
+                    likedUsers.computeIfAbsent(like.getArticleId().longValue(), k -> new ArrayList<>()).add(like.getUserId().toString());
                 }
-                Long size = redisTemplate.opsForSet().size(articleLikedSetKey);
-                result.put(id, size != null ? size : 0L);
+                try {
+                    if (versions != null) {
+                        rebuildLikeSets(likedUsers, versions);
+                    }
+                } catch (Exception e) {
+                    log.warn("重建博文点赞Set失败, articleIds: {}", likedUsers.keySet(), e);
+                }
+                owned.forEach((articleId, future) -> {
+                    long count = likedUsers.get(articleId).size();
+                    result.put(articleId, count);
+                    future.complete(count);
+                });
             } catch (Exception e) {
-                log.warn("从Redis获取博文点赞数失败，fallback到数据库查询, articleId: {}", id, e);
-                // Redis未命中，从数据库查询
-                Integer count = likeMapper.countLikesByArticleId(id.intValue());
-                result.put(id, count != null ? count.longValue() : 0L);
+                log.warn("从数据库加载博文点赞记录失败, articleIds: {}", owned.keySet(), e);
+                owned.values().forEach(future -> future.completeExceptionally(e));
+                failedIds.addAll(owned.keySet());
+            } finally {
+                owned.forEach(loadingArticleLikes::remove);
             }
         }
+
+        waiting.forEach((articleId, future) -> {
+            try {
+                result.put(articleId, future.get(likeProperties.getLoadTimeout(), TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedIds.add(articleId);
+            } catch (Exception e) {
+                failedIds.add(articleId);
+            }
+        });
+
+        if (!failedIds.isEmpty()) {
+            result.putAll(countLikesFromDatabase(failedIds));
+        }
+        return result;
+    }
+
+    /**
+     * 一次分组查询从数据库获取博文点赞数
+     */
+    private Map<Long, Long> countLikesFromDatabase(List<Long> articleIds) {
+        Map<Long, Long> dbCounts = likeMapper.countLikesByArticleIds(articleIds)
+                .stream()
+                .collect(Collectors.toMap(dto -> dto.getArticle().longValue(), dto -> dto.getLikeCount().longValue()));
+        Map<Long, Long> result = new HashMap<>();
+        for (Long id : articleIds) {
+            result.put(id, dbCounts.getOrDefault(id, 0L));
+        }
         return result;
     }
 
+    /**
+     * 通过pipeline写回博文的点赞Set，已存在的Set不会被覆盖，版本号已变化的博文不会写入
+     */
+    private void rebuildLikeSets(Map<Long, List<String>> likedUsers, Map<Long, String> versions) {
+        if (likedUsers.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> redisOperations = (RedisOperations<String, Object>) operations;
+                likedUsers.forEach((articleId, userIds) -> hotArticleLikeRegistry.loadLikes(redisOperations, articleId, versions.get(articleId), userIds));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void warmUpLikeCache() {
+        // 多节点同时启动时只由一个节点预热
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LIKE_CACHE_WARMING, "1", Duration.ofMinutes(10)))) {
+            log.info("其他节点正在预热点赞缓存，跳过预热");
+            return;
+        }
+
+        // 按主键分批遍历博文，复用读取点赞数的路径，只为尚未加载的博文重建点赞Set
+        long total = 0;
+        try {
+            Long lastId = 0L;
+            List<Long> articleIds;
+            do {
+                articleIds = articleMapper.findIdsAfter(lastId, likeProperties.getWarmUpBatchSize());
+                if (!articleIds.isEmpty()) {
+                    getLikeCountByArticleList(articleIds);
+                    total += articleIds.size();
+                    lastId = articleIds.get(articleIds.size() - 1);
+                }
+            } while (articleIds.size() >= likeProperties.getWarmUpBatchSize());
+            log.info("点赞缓存预热完成，共检查{}篇博文", total);
+        } finally {
+            redisTemplate.delete(LIKE_CACHE_WARMING);
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean flushLikeCountDeltas() {
+        // 增量记录锁定、累加和删除在同一事务中，中途失败整体回滚，记录保留到下次刷新，不会重复或丢失
+        List<ArticleLikeDeltaDTO> rows = articleMapper.lockLikeCountDeltas(LIKE_COUNT_FLUSH_BATCH_SIZE);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        Map<Long, Long> deltas = new HashMap<>();
+        rows.forEach(row -> deltas.merge(row.getArticleId(), row.getDelta(), Long::sum));
+        deltas.values().removeIf(delta -> delta == 0);
+        if (!deltas.isEmpty()) {
+            articleMapper.batchIncrLikeCount(deltas);
+        }
+        articleMapper.deleteLikeCountDeltas(rows.stream().map(ArticleLikeDeltaDTO::getId).toList());
+        log.debug("已刷新{}条点赞数增量, 涉及{}篇博文", rows.size(), deltas.size());
+        return rows.size() >= LIKE_COUNT_FLUSH_BATCH_SIZE;
+    }
+
+    /**
+     * 在当前事务中记录博文点赞数增量，随点赞记录一起提交，提交后再推送给联想索引
+     * @param deltas 博文ID到点赞数增量的映射
+     */
+    private void addLikeCountDeltas(Map<Long, Long> likeDeltas) {
+        // 同一批次内点赞和取消相互抵消的博文不记录
+        Map<Long, Long> deltas = new HashMap<>(likeDeltas);
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        articleMapper.insertLikeCountDeltas(deltas);
+        runAfterCommit(() -> articleSuggestIndex.publishLikeCounts(deltas));
+    }
+
+    /**
+     * 新增点赞计入博文热度榜，事务提交后执行
+     */
+    private void recordTrendingLikes(Map<Long, Long> newLikes) {
+        if (newLikes.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
+            try {
+                articleTrendingRanker.recordLikes(newLikes);
+            } catch (Exception e) {
+                log.error("更新博文热度榜失败, newLikes: {}", newLikes, e);
+            }
+        });
+    }
+
+    /**
+     * 用户点赞Set与版本号共用哈希标签，同步和加载脚本在Redis Cluster上只访问一个slot
+     */
+    private String userLikeSetKey(Long userId) {
+        return USER_LIKED_ARTICLES + "{" + userId + "}";
+    }
+
+    private String userLikeVersionKey(Long userId) {
+        return USER_LIKE_VERSION + "{" + userId + "}";
+    }
+
+    /**
+     * 存在事务时在提交后执行，避免回滚的数据写入缓存
+     */
+    private void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
 
 }
\ No newline at end of file
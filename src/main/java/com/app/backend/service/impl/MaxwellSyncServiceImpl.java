@@ -0,0 +1,243 @@
+package com.app.backend.service.impl;
+
+import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONReader;
+import com.app.backend.cache.ArticleClusterCache;
+import com.app.backend.cache.ArticleDetailCache;
+import com.app.backend.cache.ArticlePageCache;
+import com.app.backend.cache.ArticleSuggestIndex;
+import com.app.backend.common.GeoUtils;
+import com.app.backend.dto.MaxwellEventDTO;
+import com.app.backend.entity.Article;
+import com.app.backend.entity.Collect;
+import com.app.backend.entity.Like;
+import com.app.backend.mapper.ArticleMapper;
+import com.app.backend.service.ArticleImageService;
+import com.app.backend.service.CollectService;
+import com.app.backend.service.CommentService;
+import com.app.backend.service.LikeService;
+import com.app.backend.service.MaxwellSyncService;
+import com.app.backend.strategy.context.SearchStrategyContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 业务代码写库时已同步处理了自身涉及的缓存，这里再按binlog兜底，
+ * 覆盖直接执行SQL、数据迁移等绕过业务代码的写入，所有操作都可重复执行
+ */
+@Slf4j
+@Service
+public class MaxwellSyncServiceImpl implements MaxwellSyncService {
+
+    private static final String TYPE_DELETE = "delete";
+
+    private static final String TYPE_UPDATE = "update";
+
+    // 只修改这些列的博文更新不影响缓存内容（点赞数由点赞流程直接修正缓存）
+    private static final Set<String> ARTICLE_IGNORED_COLUMNS = Set.of("like_count", "update_time");
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private ArticlePageCache articlePageCache;
+
+    @Autowired
+    private ArticleDetailCache articleDetailCache;
+
+    @Autowired
+    private ArticleClusterCache articleClusterCache;
+
+    @Autowired
+    private SearchStrategyContext searchStrategyContext;
+
+    @Autowired
+    private ArticleSuggestIndex articleSuggestIndex;
+
+    @Autowired
+    private ArticleImageService articleImageService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CollectService collectService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Override
+    public List<MaxwellEventDTO> syncEvents(List<MaxwellEventDTO> events) {
+        if (events == null || events.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, List<MaxwellEventDTO>> eventsByTable = events.stream()
+                .collect(Collectors.groupingBy(MaxwellEventDTO::getTable, LinkedHashMap::new, Collectors.toList()));
+        // 各表独立处理，一张表同步失败不影响其它表；只把失败的表的事件交还调用方重试（处理幂等）
+        Set<String> failedTables = new HashSet<>();
+        for (Map.Entry<String, List<MaxwellEventDTO>> entry : eventsByTable.entrySet()) {
+            String table = entry.getKey();
+            List<MaxwellEventDTO> tableEvents = entry.getValue();
+            try {
+                switch (table) {
+                    case "pd_article" -> syncArticles(tableEvents);
+                    case "pd_article_image" -> syncArticleImages(tableEvents);
+                    case "pd_like" -> syncLikes(tableEvents);
+                    case "pd_comment" -> syncComments(tableEvents);
+                    case "pd_collect" -> syncCollects(tableEvents);
+                    default -> {
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("同步{}变更事件失败, 共{}条", table, tableEvents.size(), e);
+                failedTables.add(table);
+            }
+        }
+        return events.stream()
+                .filter(event -> failedTables.contains(event.getTable()))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private void syncArticles(List<MaxwellEventDTO> events) {
+        Set<String> types = new HashSet<>();
+        Set<String> geohashes = new HashSet<>();
+        // 博文ID到最终状态，已删除的博文对应null
+        Map<Long, Article> finalStates = new LinkedHashMap<>();
+        for (MaxwellEventDTO event : events) {
+            if (TYPE_UPDATE.equals(event.getType()) && event.getOld() != null
+                    && ARTICLE_IGNORED_COLUMNS.containsAll(event.getOld().keySet())) {
+                continue;
+            }
+            Article article = event.getData().to(Article.class, JSONReader.Feature.SupportSmartMatch);
+            if (article.getId() == null) {
+                continue;
+            }
+            types.add(article.getType());
+            geohashes.add(article.getGeohash());
+            JSONObject old = event.getOld();
+            if (old != null) {
+                // 修改前的类型和位置对应的缓存同样需要失效
+                types.add(old.getString("type"));
+                geohashes.add(old.getString("geohash"));
+            }
+            finalStates.put(article.getId(), TYPE_DELETE.equals(event.getType()) ? null : article);
+        }
+        if (finalStates.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<Long, Article> entry : finalStates.entrySet()) {
+            Article article = entry.getValue();
+            if (article != null) {
+                String geohash = recomputeGeohash(article);
+                if (geohash != null) {
+                    geohashes.add(geohash);
+                }
+            }
+        }
+
+        types.remove(null);
+        geohashes.remove(null);
+        articlePageCache.invalidate(types);
+        articleClusterCache.evict(geohashes.toArray(new String[0]));
+        finalStates.forEach((articleId, article) -> {
+            articleDetailCache.invalidate(articleId);
+            if (article == null) {
+                searchStrategyContext.deleteArticle(articleId);
+            } else {
+                searchStrategyContext.saveArticle(article);
+            }
+        });
+        articleSuggestIndex.publishArticles(finalStates.keySet());
+        log.debug("同步博文变更 - {}条事件, 涉及{}篇博文", events.size(), finalStates.size());
+    }
+
+    /**
+     * 经纬度被绕过业务代码修改时补写geohash，补写产生的变更事件会再次进入这里，此时已一致不再写库
+     * @return 新的geohash，无需修正时返回null
+     */
+    private String recomputeGeohash(Article article) {
+        if (article.getLatitude() == null || article.getLongitude() == null) {
+            return null;
+        }
+        String geohash = GeoUtils.encode(article.getLatitude().doubleValue(), article.getLongitude().doubleValue(),
+                GeoUtils.GEOHASH_LENGTH);
+        if (geohash.equals(article.getGeohash())) {
+            return null;
+        }
+        articleMapper.updateGeohash(article.getId(), geohash);
+        article.setGeohash(geohash);
+        return geohash;
+    }
+
+    private void syncArticleImages(List<MaxwellEventDTO> events) {
+        Set<Long> articleIds = new LinkedHashSet<>();
+        for (MaxwellEventDTO event : events) {
+            articleIds.add(event.getData().getLong("article_id"));
+            if (event.getOld() != null && event.getOld().containsKey("article_id")) {
+                articleIds.add(event.getOld().getLong("article_id"));
+            }
+        }
+        articleIds.remove(null);
+        articleImageService.evictImageUrls(articleIds);
+    }
+
+    /**
+     * 按点赞记录的最终状态修正Redis中的点赞关系，点赞数仍由点赞流程累加，避免重复计数
+     */
+    private void syncLikes(List<MaxwellEventDTO> events) {
+        Map<String, Like> finalStates = new LinkedHashMap<>();
+        for (MaxwellEventDTO event : events) {
+            Like like = event.getData().to(Like.class, JSONReader.Feature.SupportSmartMatch);
+            if (like.getUserId() == null || like.getArticleId() == null) {
+                continue;
+            }
+            if (TYPE_DELETE.equals(event.getType()) || like.getStatus() == null) {
+                like.setStatus(0);
+            }
+            finalStates.put(like.getUserId() + ":" + like.getArticleId(), like);
+        }
+        likeService.syncLikeCache(new ArrayList<>(finalStates.values()));
+    }
+
+    private void syncCollects(List<MaxwellEventDTO> events) {
+        Map<String, Collect> finalStates = new LinkedHashMap<>();
+        for (MaxwellEventDTO event : events) {
+            Collect collect = event.getData().to(Collect.class, JSONReader.Feature.SupportSmartMatch);
+            if (collect.getUserId() == null || collect.getArticleId() == null) {
+                continue;
+            }
+            if (TYPE_DELETE.equals(event.getType()) || collect.getStatus() == null) {
+                collect.setStatus(0);
+            }
+            finalStates.put(collect.getUserId() + ":" + collect.getArticleId(), collect);
+        }
+        collectService.syncCollectCache(new ArrayList<>(finalStates.values()));
+    }
+
+    private void syncComments(List<MaxwellEventDTO> events) {
+        events.stream()
+                .map(event -> event.getData().getLong("article_id"))
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(articleDetailCache::invalidate);
+        // 新增评论已由评论服务写入最新评论缓存，修改和删除（含软删除）的评论需重新加载
+        Set<Long> changedArticleIds = events.stream()
+                .filter(event -> TYPE_UPDATE.equals(event.getType()) || TYPE_DELETE.equals(event.getType()))
+                .map(event -> event.getData().getLong("article_id"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        commentService.evictRecentComments(changedArticleIds);
+    }
+}
@@ -0,0 +1,37 @@
+package com.app.backend.strategy;
+
+import com.app.backend.dto.ArticleSearchDTO;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.entity.Article;
+import com.app.backend.vo.PagedArticleVO;
+
+public interface SearchStrategy {
+
+    /**
+     * 按标题、地址关键字搜索博文，匹配部分用PRE_TAG/POST_TAG标记
+     * @param pagedArticleVO 搜索条件（标题、地址、类型、位置范围、排序、分页或游标）
+     * @return 搜索结果，默认按相关度排序，sort=like时按点赞数排序；还有下一页时返回游标
+     */
+    CursorPage<ArticleSearchDTO> searchArticles(PagedArticleVO pagedArticleVO);
+
+    /**
+     * 博文新增或修改后同步搜索索引
+     */
+    void saveArticle(Article article);
+
+    /**
+     * 博文删除后同步搜索索引
+     */
+    void deleteArticle(Long articleId);
+
+    /**
+     * 重新同步写入索引失败的博文
+     */
+    void syncPendingArticles();
+
+    /**
+     * 从数据库全量重建搜索索引
+     */
+    void rebuildIndex();
+
+}
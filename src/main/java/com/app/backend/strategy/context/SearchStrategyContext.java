@@ -0,0 +1,63 @@
+package com.app.backend.strategy.context;
+
+import com.app.backend.dto.ArticleSearchDTO;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.entity.Article;
+import com.app.backend.exception.BizException;
+import com.app.backend.strategy.SearchStrategy;
+import com.app.backend.vo.PagedArticleVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+import static com.app.backend.enums.SearchModeEnum.MYSQL;
+import static com.app.backend.enums.SearchModeEnum.getStrategy;
+
+@Slf4j
+@Service
+public class SearchStrategyContext {
+
+    @Value("${search.mode:elasticsearch}")
+    private String searchMode;
+
+    @Autowired
+    private Map<String, SearchStrategy> searchStrategyMap;
+
+    /**
+     * 搜索引擎不可用时fallback到数据库查询
+     */
+    public CursorPage<ArticleSearchDTO> executeSearchStrategy(PagedArticleVO pagedArticleVO) {
+        String strategy = getStrategy(searchMode);
+        try {
+            return searchStrategyMap.get(strategy).searchArticles(pagedArticleVO);
+        } catch (BizException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (MYSQL.getStrategy().equals(strategy)) {
+                throw e;
+            }
+            log.warn("搜索引擎查询失败，fallback到数据库查询", e);
+            return searchStrategyMap.get(MYSQL.getStrategy()).searchArticles(pagedArticleVO);
+        }
+    }
+
+    public void saveArticle(Article article) {
+        searchStrategyMap.get(getStrategy(searchMode)).saveArticle(article);
+    }
+
+    public void deleteArticle(Long articleId) {
+        searchStrategyMap.get(getStrategy(searchMode)).deleteArticle(articleId);
+    }
+
+    public void syncPendingArticles() {
+        searchStrategyMap.get(getStrategy(searchMode)).syncPendingArticles();
+    }
+
+    public void rebuildIndex() {
+        searchStrategyMap.get(getStrategy(searchMode)).rebuildIndex();
+    }
+
+}
@@ -0,0 +1,370 @@
+package com.app.backend.strategy.impl;
+
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import com.app.backend.common.CursorUtils;
+import com.app.backend.dto.ArticleSearchDTO;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.entity.Article;
+import com.app.backend.exception.BizException;
+import com.app.backend.mapper.ArticleMapper;
+import com.app.backend.strategy.SearchStrategy;
+import com.app.backend.vo.PagedArticleVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.HighlightQuery;
+import org.springframework.data.elasticsearch.core.query.highlight.Highlight;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightField;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightParameters;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.app.backend.constant.CommonConstant.POST_TAG;
+import static com.app.backend.constant.CommonConstant.PRE_TAG;
+import static com.app.backend.constant.RedisConstant.SEARCH_ARTICLE_PENDING;
+import static com.app.backend.constant.RedisConstant.SEARCH_INDEX_REBUILDING;
+
+/**
+ * 基于ES的搜索
+ * 读写都通过别名pd_article，实际索引为pd_article_{创建时间}：重建时先写满新索引，成功后原子切换别名并删除旧索引，
+ * 重建失败时删除新索引，别名仍指向完整的旧索引，下次启动或定时重建时重试；
+ * 写入失败、以及重建期间写入的博文ID记录在Redis Set search:article:pending中，由定时任务按数据库最新状态重新同步
+ */
+@Slf4j
+@Service("esSearchStrategyImpl")
+public class EsSearchStrategyImpl implements SearchStrategy {
+
+    // 单页最多返回的博文数
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 重建索引时每批写入的博文数
+    private static final int REINDEX_BATCH_SIZE = 500;
+
+    // 每次重新同步的博文数
+    private static final int PENDING_BATCH_SIZE = 500;
+
+    // 读写使用的别名，与ArticleSearchDTO的indexName一致
+    private static final String INDEX_ALIAS = "pd_article";
+
+    // 重建超过该时长视为进程已退出，其他节点可以重新发起
+    private static final Duration REBUILD_TIMEOUT = Duration.ofHours(1);
+
+    private static final String RELEVANCE_SORT = "relevance";
+
+    private static final String LIKE_SORT = "like";
+
+    @Autowired
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * 别名不存在（首次部署，或上次导入未完成）时从数据库重建索引
+     */
+    @PostConstruct
+    public void initIndex() {
+        try {
+            if (!findAliasedIndices().isEmpty()) {
+                return;
+            }
+        } catch (Exception e) {
+            log.error("检查博文搜索索引失败", e);
+            return;
+        }
+        rebuildIndex();
+    }
+
+    @Override
+    public void rebuildIndex() {
+        // 多节点同时触发时只由一个节点重建，重建期间其他节点的写入记入待同步集合
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(SEARCH_INDEX_REBUILDING, "1", REBUILD_TIMEOUT))) {
+            log.info("其他节点正在重建博文搜索索引，跳过");
+            return;
+        }
+        String indexName = INDEX_ALIAS + "_" + System.currentTimeMillis();
+        IndexOperations indexOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+        try {
+            IndexOperations entityOperations = elasticsearchOperations.indexOps(ArticleSearchDTO.class);
+            indexOperations.create(entityOperations.createSettings(ArticleSearchDTO.class),
+                    entityOperations.createMapping(ArticleSearchDTO.class));
+            long lastId = 0;
+            int total = 0;
+            List<Article> articles;
+            do {
+                articles = articleMapper.selectList(new LambdaQueryWrapper<Article>()
+                        .gt(Article::getId, lastId)
+                        .orderByAsc(Article::getId)
+                        .last("LIMIT " + REINDEX_BATCH_SIZE));
+                if (!articles.isEmpty()) {
+                    elasticsearchOperations.save(articles.stream().map(this::toDocument).toList(), IndexCoordinates.of(indexName));
+                    lastId = articles.get(articles.size() - 1).getId();
+                    total += articles.size();
+                }
+            } while (articles.size() == REINDEX_BATCH_SIZE);
+            switchAlias(indexName);
+            log.info("已重建博文搜索索引{}，导入{}篇博文", indexName, total);
+        } catch (Exception e) {
+            log.error("重建博文搜索索引失败, index: {}", indexName, e);
+            try {
+                indexOperations.delete();
+            } catch (Exception deleteException) {
+                log.warn("删除未完成的博文搜索索引失败, index: {}", indexName, deleteException);
+            }
+            return;
+        } finally {
+            redisTemplate.delete(SEARCH_INDEX_REBUILDING);
+        }
+        // 导入期间变更的博文可能读到了旧数据，切换后按数据库最新状态补写
+        syncPendingArticles();
+    }
+
+    @Override
+    public CursorPage<ArticleSearchDTO> searchArticles(PagedArticleVO pagedArticleVO) {
+        int current = pagedArticleVO.getPage() == null || pagedArticleVO.getPage() < 1 ? 1 : pagedArticleVO.getPage();
+        int size = pagedArticleVO.getSize() == null || pagedArticleVO.getSize() < 1 ? 10 : Math.min(pagedArticleVO.getSize(), MAX_PAGE_SIZE);
+        String title = pagedArticleVO.getTitle();
+        String address = pagedArticleVO.getAddress();
+        String type = pagedArticleVO.getType();
+        boolean byLocation = pagedArticleVO.getLatitude() != null && pagedArticleVO.getLongitude() != null
+                && pagedArticleVO.getRadius() != null;
+        // 默认按相关度排序，sort=like时按索引中的点赞数排序，都以ID作为第二排序字段保证游标稳定
+        String sort = LIKE_SORT.equals(pagedArticleVO.getSort()) ? LIKE_SORT : RELEVANCE_SORT;
+        boolean byCursor = pagedArticleVO.getCursor() != null && !pagedArticleVO.getCursor().isEmpty();
+
+        NativeQueryBuilder queryBuilder = NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> {
+                    if (title != null && !title.isEmpty()) {
+                        b.must(m -> m.match(mm -> mm.field("title").query(title)));
+                    }
+                    if (address != null && !address.isEmpty()) {
+                        b.must(m -> m.match(mm -> mm.field("address").query(address)));
+                    }
+                    // 类型和位置只过滤不参与相关度打分
+                    if (type != null && !type.isEmpty()) {
+                        b.filter(f -> f.term(t -> t.field("type").value(type.toLowerCase())));
+                    }
+                    if (byLocation) {
+                        b.filter(f -> f.geoDistance(g -> g.field("location")
+                                .distance(pagedArticleVO.getRadius() + "m")
+                                .location(l -> l.latlon(ll -> ll.lat(pagedArticleVO.getLatitude()).lon(pagedArticleVO.getLongitude())))));
+                    }
+                    return b;
+                }))
+                // 不切分片段，高亮结果即完整的标题、地址
+                .withHighlightQuery(new HighlightQuery(new Highlight(
+                        HighlightParameters.builder().withPreTags(PRE_TAG).withPostTags(POST_TAG).withNumberOfFragments(0).build(),
+                        List.of(new HighlightField("title"), new HighlightField("address"))), ArticleSearchDTO.class));
+        if (LIKE_SORT.equals(sort)) {
+            queryBuilder.withSort(o -> o.field(f -> f.field("likeCount").order(SortOrder.Desc)));
+        } else {
+            queryBuilder.withSort(o -> o.score(sc -> sc.order(SortOrder.Desc)));
+        }
+        queryBuilder.withSort(o -> o.field(f -> f.field("id").order(SortOrder.Desc)));
+
+        if (byCursor) {
+            // 从游标位置向后查找，不统计总数，多取一条判断是否还有下一页
+            String[] position = CursorUtils.decode(pagedArticleVO.getCursor(), sort);
+            try {
+                Object sortValue = LIKE_SORT.equals(sort) ? Long.valueOf(position[0]) : Double.valueOf(position[0]);
+                queryBuilder.withSearchAfter(List.of(sortValue, Long.valueOf(position[1])))
+                        .withTrackTotalHits(false)
+                        .withPageable(PageRequest.of(0, size + 1));
+            } catch (NumberFormatException e) {
+                throw new BizException("无效的分页游标");
+            }
+        } else {
+            queryBuilder.withPageable(PageRequest.of(current - 1, size));
+        }
+
+        SearchHits<ArticleSearchDTO> searchHits = elasticsearchOperations.search(queryBuilder.build(), ArticleSearchDTO.class);
+        List<SearchHit<ArticleSearchDTO>> hits = searchHits.getSearchHits();
+        boolean hasMore;
+        if (byCursor) {
+            hasMore = hits.size() > size;
+            hits = hasMore ? hits.subList(0, size) : hits;
+        } else {
+            hasMore = (long) current * size < searchHits.getTotalHits();
+        }
+
+        List<ArticleSearchDTO> records = new ArrayList<>();
+        for (SearchHit<ArticleSearchDTO> searchHit : hits) {
+            ArticleSearchDTO articleSearchDTO = searchHit.getContent();
+            List<String> titleHighlights = searchHit.getHighlightField("title");
+            if (!titleHighlights.isEmpty()) {
+                articleSearchDTO.setTitle(titleHighlights.get(0));
+            }
+            List<String> addressHighlights = searchHit.getHighlightField("address");
+            if (!addressHighlights.isEmpty()) {
+                articleSearchDTO.setAddress(addressHighlights.get(0));
+            }
+            records.add(articleSearchDTO);
+        }
+
+        CursorPage<ArticleSearchDTO> result = new CursorPage<>(current, size);
+        if (byCursor) {
+            result.setSearchCount(false);
+        } else {
+            result.setTotal(searchHits.getTotalHits());
+        }
+        result.setRecords(records);
+        if (hasMore && !hits.isEmpty()) {
+            SearchHit<ArticleSearchDTO> last = hits.get(hits.size() - 1);
+            result.setNextCursor(CursorUtils.encode(sort, last.getSortValues().get(0), last.getContent().getId()));
+        }
+        return result;
+    }
+
+    @Override
+    public void saveArticle(Article article) {
+        // 重建期间的写入只会落到即将被替换的旧索引，记下来在切换后补写
+        markPendingIfRebuilding(article.getId());
+        try {
+            elasticsearchOperations.save(toDocument(article));
+        } catch (Exception e) {
+            log.error("同步博文搜索索引失败，稍后重试, articleId: {}", article.getId(), e);
+            markPending(article.getId());
+        }
+    }
+
+    @Override
+    public void deleteArticle(Long articleId) {
+        markPendingIfRebuilding(articleId);
+        try {
+            elasticsearchOperations.delete(articleId.toString(), ArticleSearchDTO.class);
+        } catch (Exception e) {
+            log.error("删除博文搜索索引失败，稍后重试, articleId: {}", articleId, e);
+            markPending(articleId);
+        }
+    }
+
+    /**
+     * 按数据库最新状态同步待同步的博文，数据库中已不存在的从索引删除；同步失败的放回集合等待下次重试
+     */
+    @Override
+    public void syncPendingArticles() {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(SEARCH_INDEX_REBUILDING))) {
+            return;
+        }
+        List<Object> members;
+        while ((members = redisTemplate.opsForSet().pop(SEARCH_ARTICLE_PENDING, PENDING_BATCH_SIZE)) != null && !members.isEmpty()) {
+            Set<Long> articleIds = members.stream().map(member -> Long.valueOf(member.toString())).collect(Collectors.toSet());
+            try {
+                List<Article> articles = articleMapper.selectBatchIds(articleIds);
+                if (!articles.isEmpty()) {
+                    elasticsearchOperations.save(articles.stream().map(this::toDocument).toList());
+                }
+                Set<Long> deletedIds = new HashSet<>(articleIds);
+                articles.forEach(article -> deletedIds.remove(article.getId()));
+                for (Long deletedId : deletedIds) {
+                    elasticsearchOperations.delete(deletedId.toString(), ArticleSearchDTO.class);
+                }
+                log.info("重新同步博文搜索索引{}篇", articleIds.size());
+            } catch (Exception e) {
+                log.error("重新同步博文搜索索引失败, articleIds: {}", articleIds, e);
+                redisTemplate.opsForSet().add(SEARCH_ARTICLE_PENDING, members.toArray());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 别名原子切换到新索引后删除旧索引；升级前直接以pd_article命名的索引无法与别名同名，先删除
+     */
+    private void switchAlias(String indexName) {
+        Set<String> oldIndices = findAliasedIndices();
+        IndexOperations aliasOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(INDEX_ALIAS));
+        if (oldIndices.isEmpty() && aliasOperations.exists()) {
+            aliasOperations.delete();
+        }
+        AliasActions aliasActions = new AliasActions();
+        for (String oldIndex : oldIndices) {
+            aliasActions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(oldIndex).withAliases(INDEX_ALIAS).build()));
+        }
+        aliasActions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(indexName).withAliases(INDEX_ALIAS).build()));
+        elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).alias(aliasActions);
+        for (String oldIndex : oldIndices) {
+            try {
+                elasticsearchOperations.indexOps(IndexCoordinates.of(oldIndex)).delete();
+            } catch (Exception e) {
+                log.warn("删除旧的博文搜索索引失败, index: {}", oldIndex, e);
+            }
+        }
+    }
+
+    /**
+     * @return 当前别名指向的实际索引
+     */
+    private Set<String> findAliasedIndices() {
+        IndexOperations aliasOperations = elasticsearchOperations.indexOps(IndexCoordinates.of(INDEX_ALIAS));
+        if (!aliasOperations.exists()) {
+            return Set.of();
+        }
+        // pd_article为别名时返回其指向的索引；为升级前的实际索引时其别名为空，不计入
+        Map<String, Set<AliasData>> aliases = aliasOperations.getAliasesForIndex(INDEX_ALIAS);
+        return aliases.entrySet().stream()
+                .filter(entry -> entry.getValue().stream().anyMatch(alias -> INDEX_ALIAS.equals(alias.getAlias())))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private void markPendingIfRebuilding(Long articleId) {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(SEARCH_INDEX_REBUILDING))) {
+                markPending(articleId);
+            }
+        } catch (Exception e) {
+            log.warn("检查博文搜索索引重建状态失败, articleId: {}", articleId, e);
+        }
+    }
+
+    private void markPending(Long articleId) {
+        try {
+            redisTemplate.opsForSet().add(SEARCH_ARTICLE_PENDING, articleId.toString());
+        } catch (Exception e) {
+            // 只能等待下次定时重建修正
+            log.error("记录待同步的博文失败, articleId: {}", articleId, e);
+        }
+    }
+
+    private ArticleSearchDTO toDocument(Article article) {
+        ArticleSearchDTO articleSearchDTO = new ArticleSearchDTO();
+        articleSearchDTO.setId(article.getId());
+        articleSearchDTO.setTitle(article.getTitle());
+        articleSearchDTO.setName(article.getName());
+        articleSearchDTO.setAddress(article.getAddress());
+        articleSearchDTO.setType(article.getType() == null ? null : article.getType().toLowerCase());
+        if (article.getLatitude() != null && article.getLongitude() != null) {
+            articleSearchDTO.setLocation(new GeoPoint(article.getLatitude().doubleValue(), article.getLongitude().doubleValue()));
+        }
+        articleSearchDTO.setLikeCount(article.getLikeCount() == null ? 0L : article.getLikeCount());
+        return articleSearchDTO;
+    }
+}
@@ -0,0 +1,143 @@
+package com.app.backend.strategy.impl;
+
+import com.app.backend.common.CursorUtils;
+import com.app.backend.common.GeoUtils;
+import com.app.backend.dto.ArticleSearchDTO;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.entity.Article;
+import com.app.backend.exception.BizException;
+import com.app.backend.mapper.ArticleMapper;
+import com.app.backend.strategy.SearchStrategy;
+import com.app.backend.vo.PagedArticleVO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import static com.app.backend.constant.CommonConstant.POST_TAG;
+import static com.app.backend.constant.CommonConstant.PRE_TAG;
+
+/**
+ * 基于LIKE的搜索，未部署ES时使用
+ */
+@Service("mySqlSearchStrategyImpl")
+public class MySqlSearchStrategyImpl implements SearchStrategy {
+
+    // 单页最多返回的博文数
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private ArticleMapper articleMapper;
+
+    @Override
+    public CursorPage<ArticleSearchDTO> searchArticles(PagedArticleVO pagedArticleVO) {
+        int current = pagedArticleVO.getPage() == null || pagedArticleVO.getPage() < 1 ? 1 : pagedArticleVO.getPage();
+        int size = pagedArticleVO.getSize() == null || pagedArticleVO.getSize() < 1 ? 10 : Math.min(pagedArticleVO.getSize(), MAX_PAGE_SIZE);
+        String title = pagedArticleVO.getTitle();
+        String address = pagedArticleVO.getAddress();
+        // LIKE匹配没有相关度，默认按发布时间排序，游标与普通列表通用
+        String sort = "like".equals(pagedArticleVO.getSort()) ? "like" : "time";
+
+        LambdaQueryWrapper<Article> articleLambdaQueryWrapper = new LambdaQueryWrapper<Article>()
+                .select(Article::getId, Article::getTitle, Article::getName, Article::getAddress, Article::getType,
+                        Article::getCreateTime, Article::getLikeCount)
+                .like(title != null && !title.isEmpty(), Article::getTitle, title)
+                .like(address != null && !address.isEmpty(), Article::getAddress, address)
+                .eq(pagedArticleVO.getType() != null && !pagedArticleVO.getType().isEmpty(), Article::getType, pagedArticleVO.getType())
+                .orderByDesc("like".equals(sort) ? Article::getLikeCount : Article::getCreateTime)
+                .orderByDesc(Article::getId);
+        if (pagedArticleVO.getLatitude() != null && pagedArticleVO.getLongitude() != null && pagedArticleVO.getRadius() != null) {
+            // 按外接矩形近似过滤，跨越±180经线时为两个矩形
+            List<double[]> boxes = GeoUtils.boundingBoxes(pagedArticleVO.getLatitude(), pagedArticleVO.getLongitude(), pagedArticleVO.getRadius());
+            articleLambdaQueryWrapper.and(w -> {
+                for (int i = 0; i < boxes.size(); i++) {
+                    double[] box = boxes.get(i);
+                    if (i > 0) {
+                        w.or();
+                    }
+                    w.nested(o -> o.between(Article::getLatitude, box[0], box[1])
+                            .between(Article::getLongitude, box[2], box[3]));
+                }
+            });
+        }
+
+        List<Article> articles;
+        boolean hasMore;
+        CursorPage<ArticleSearchDTO> result = new CursorPage<>(current, size);
+        if (pagedArticleVO.getCursor() != null && !pagedArticleVO.getCursor().isEmpty()) {
+            String[] position = CursorUtils.decode(pagedArticleVO.getCursor(), sort);
+            try {
+                Long lastId = Long.valueOf(position[1]);
+                if ("like".equals(sort)) {
+                    Long lastLikeCount = Long.valueOf(position[0]);
+                    articleLambdaQueryWrapper.and(w -> w.lt(Article::getLikeCount, lastLikeCount)
+                            .or(o -> o.eq(Article::getLikeCount, lastLikeCount).lt(Article::getId, lastId)));
+                } else {
+                    LocalDateTime lastCreateTime = LocalDateTime.parse(position[0]);
+                    articleLambdaQueryWrapper.and(w -> w.lt(Article::getCreateTime, lastCreateTime)
+                            .or(o -> o.eq(Article::getCreateTime, lastCreateTime).lt(Article::getId, lastId)));
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BizException("无效的分页游标");
+            }
+            // 多取一条判断是否还有下一页
+            List<Article> records = articleMapper.selectPage(new Page<>(1, size + 1, false), articleLambdaQueryWrapper).getRecords();
+            hasMore = records.size() > size;
+            articles = hasMore ? records.subList(0, size) : records;
+            result.setSearchCount(false);
+        } else {
+            IPage<Article> articlePage = articleMapper.selectPage(new Page<>(current, size), articleLambdaQueryWrapper);
+            articles = articlePage.getRecords();
+            hasMore = articlePage.getCurrent() < articlePage.getPages();
+            result.setTotal(articlePage.getTotal());
+        }
+
+        List<ArticleSearchDTO> records = articles.stream().map(article -> {
+            ArticleSearchDTO articleSearchDTO = new ArticleSearchDTO();
+            articleSearchDTO.setId(article.getId());
+            articleSearchDTO.setTitle(highlight(article.getTitle(), title));
+            articleSearchDTO.setName(article.getName());
+            articleSearchDTO.setAddress(highlight(article.getAddress(), address));
+            articleSearchDTO.setType(article.getType());
+            return articleSearchDTO;
+        }).toList();
+        result.setRecords(records);
+        if (hasMore && !articles.isEmpty()) {
+            Article last = articles.get(articles.size() - 1);
+            result.setNextCursor(CursorUtils.encode(sort, "like".equals(sort) ? last.getLikeCount() : last.getCreateTime(), last.getId()));
+        }
+        return result;
+    }
+
+    @Override
+    public void saveArticle(Article article) {
+        // 直接查询数据库，无需同步
+    }
+
+    @Override
+    public void deleteArticle(Long articleId) {
+        // 直接查询数据库，无需同步
+    }
+
+    @Override
+    public void syncPendingArticles() {
+        // 直接查询数据库，无需同步
+    }
+
+    @Override
+    public void rebuildIndex() {
+        // 直接查询数据库，无需同步
+    }
+
+    private String highlight(String text, String keyword) {
+        if (text == null || keyword == null || keyword.isEmpty()) {
+            return text;
+        }
+        return text.replace(keyword, PRE_TAG + keyword + POST_TAG);
+    }
+}
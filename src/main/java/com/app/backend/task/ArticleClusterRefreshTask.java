@@ -0,0 +1,21 @@
+package com.app.backend.task;
+
+import com.app.backend.service.ArticleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时重算博文位置变化后标记的低缩放级别地图聚合瓦片
+ */
+@Component
+public class ArticleClusterRefreshTask {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Scheduled(initialDelay = 30_000, fixedDelay = 30_000)
+    public void refreshClusterTiles() {
+        articleService.refreshDirtyClusterTiles();
+    }
+}
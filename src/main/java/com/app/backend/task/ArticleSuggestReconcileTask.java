@@ -0,0 +1,21 @@
+package com.app.backend.task;
+
+import com.app.backend.cache.ArticleSuggestIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时将本节点的搜索联想索引与数据库对账，每个节点各自执行
+ */
+@Component
+public class ArticleSuggestReconcileTask {
+
+    @Autowired
+    private ArticleSuggestIndex articleSuggestIndex;
+
+    @Scheduled(initialDelay = 3_600_000, fixedDelay = 3_600_000)
+    public void reconcileSuggestIndex() {
+        articleSuggestIndex.reconcile();
+    }
+}
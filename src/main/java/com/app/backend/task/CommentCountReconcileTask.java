@@ -0,0 +1,21 @@
+package com.app.backend.task;
+
+import com.app.backend.service.CommentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时按pd_comment对账博文评论计数器
+ */
+@Component
+public class CommentCountReconcileTask {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Scheduled(cron = "0 30 4 * * ?")
+    public void reconcileCommentCount() {
+        commentService.reconcileCommentCounts();
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.backend.task;
+
+import com.app.backend.service.ArticleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时补写缺失geohash的博文，未补写的博文不会出现在地图和附近查询中
+ */
+@Component
+public class GeohashBackfillTask {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 3_600_000)
+    public void backfillGeohash() {
+        articleService.backfillGeohash();
+    }
+}
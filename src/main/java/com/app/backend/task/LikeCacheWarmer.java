@@ -0,0 +1,40 @@
+package com.app.backend.task;
+
+import com.app.backend.config.properties.LikeProperties;
+import com.app.backend.service.LikeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * 启动时预热点赞缓存，避免Redis清空后大量请求同时回源数据库
+ * 预热在后台线程中执行，不阻塞启动；预热期间未命中的读取照常从数据库加载
+ */
+@Slf4j
+@Component
+public class LikeCacheWarmer implements ApplicationRunner {
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeProperties likeProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!likeProperties.getWarmUpEnabled()) {
+            return;
+        }
+        Thread warmer = new Thread(() -> {
+            try {
+                likeService.warmUpLikeCache();
+            } catch (Exception e) {
+                log.error("点赞缓存预热失败", e);
+            }
+        }, "like-cache-warmer");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.backend.task;
+
+import com.app.backend.service.LikeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时将点赞数增量写回博文表
+ */
+@Slf4j
+@Component
+public class LikeCountFlushTask {
+
+    @Autowired
+    private LikeService likeService;
+
+    /**
+     * 逐批刷新直到增量表清空，失败的批次已整体回滚，下次再刷新
+     */
+    @Scheduled(fixedDelayString = "#{@likeProperties.countFlushInterval}")
+    public void flushLikeCount() {
+        try {
+            while (likeService.flushLikeCountDeltas()) {
+                log.debug("点赞数增量较多，继续刷新下一批");
+            }
+        } catch (Exception e) {
+            log.error("刷新博文点赞数失败，未写入的增量将在下次重试", e);
+        }
+    }
+}
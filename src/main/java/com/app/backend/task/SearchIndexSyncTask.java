@@ -0,0 +1,26 @@
+package com.app.backend.task;
+
+import com.app.backend.strategy.context.SearchStrategyContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 定时重新同步写入失败的博文，并每天全量重建搜索索引，修正遗漏的变更和索引中的点赞数
+ */
+@Component
+public class SearchIndexSyncTask {
+
+    @Autowired
+    private SearchStrategyContext searchStrategyContext;
+
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void syncPendingArticles() {
+        searchStrategyContext.syncPendingArticles();
+    }
+
+    @Scheduled(cron = "0 0 5 * * ?")
+    public void rebuildIndex() {
+        searchStrategyContext.rebuildIndex();
+    }
+}
@@ -8,7 +8,12 @@ import java.util.List;
 
 @Data
 public class ArticleDetailVO extends Article {
-    private Long likeCount;
-
+    //最新一页评论，后续评论通过commentCursor分页获取
     private List<Comment> comments;
+
+    //未删除的评论总数
+    private Long commentCount;
+
+    //评论下一页游标，没有更多评论时为null
+    private String commentCursor;
 }
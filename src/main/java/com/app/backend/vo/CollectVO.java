@@ -0,0 +1,12 @@
+package com.app.backend.vo;
+
+import lombok.Data;
+
+@Data
+public class CollectVO {
+    private Long userId;
+    private Integer articleId;
+
+    //1 为收藏 0为取消
+    private Integer operationType;
+}
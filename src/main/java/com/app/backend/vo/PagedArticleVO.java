@@ -11,4 +11,18 @@ public class PagedArticleVO {
     private String title;
     private String type;
     private String authorId;
+
+    //排序方式：like 按点赞数倒序，为空时保持默认顺序
+    private String sort;
+
+    //按位置筛选：以(latitude, longitude)为中心、radius米为半径，仅在搜索标题、地址时生效
+    private Double latitude;
+    private Double longitude;
+    private Double radius;
+
+    //上一页返回的nextCursor，不为空时按游标翻页，忽略page
+    private String cursor;
+
+    //返回的字段集：card 列表卡片，map-pin 地图标记点，为空或full时返回全部字段
+    private String fields;
 }
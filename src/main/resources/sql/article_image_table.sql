@@ -0,0 +1,9 @@
+-- 博文图片按博文批量查询并按顺序返回，索引已存在时不重复创建
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_article_order ON pd_article_image(article_id, order_index)',
+        'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pd_article_image' AND INDEX_NAME = 'idx_article_order');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,22 @@
+-- 创建收藏表
+CREATE TABLE IF NOT EXISTS `pd_collect` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `user_id` BIGINT(20) NOT NULL COMMENT '用户ID',
+  `article_id` INT(11) NOT NULL COMMENT '博文ID',
+  `status` TINYINT(1) NOT NULL DEFAULT 1 COMMENT '收藏状态（1:收藏, 0:取消收藏）',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='收藏表';
+
+-- "我的收藏"按收藏时间游标分页，二级索引隐含主键id，可直接按(create_time, id)倒序扫描
+CREATE INDEX idx_user_status_time ON pd_collect(user_id, status, create_time);
+
+-- 收藏消费者按(user_id, article_id)批量upsert
+-- 添加唯一索引前清理重复记录，每个(user_id, article_id)只保留id最大（最近写入）的一条
+DELETE c1 FROM `pd_collect` c1
+JOIN `pd_collect` c2 ON c1.`user_id` = c2.`user_id` AND c1.`article_id` = c2.`article_id` AND c1.`id` < c2.`id`;
+ALTER TABLE `pd_collect` ADD UNIQUE KEY `uk_user_article` (`user_id`, `article_id`) COMMENT '用户博文唯一索引';
+
+-- 按博文统计收藏数
+CREATE INDEX idx_collect_article_status ON pd_collect(article_id, status);
@@ -0,0 +1,2 @@
+-- 评论按(create_time, id)游标分页所需的索引
+CREATE INDEX idx_comment_article_time ON pd_comment(article_id, is_delete, create_time, id);
@@ -5,20 +5,76 @@ CREATE TABLE IF NOT EXISTS `pd_article` (
     `name` VARCHAR(100) NOT NULL COMMENT '地点名称',
     `latitude` DECIMAL(10,7) NOT NULL COMMENT '纬度',
     `longitude` DECIMAL(10,7) NOT NULL COMMENT '经度',
+    `geohash` CHAR(12) COMMENT '经纬度geohash，应用写入时同步计算',
     `type` VARCHAR(50) NOT NULL COMMENT '类型（architecture/nature/portrait/street/night）',
     `description` TEXT COMMENT '地点描述',
     `tips` TEXT COMMENT '摄影提示',
     `author_id` INT COMMENT '作者ID',
     `create_time` DATETIME NOT NULL COMMENT '创建时间',
     `update_time` TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
-    INDEX `idx_type` (`type`),
-    INDEX `idx_author_id` (`author_id`),
-    INDEX `idx_create_time` (`create_time`)
+    INDEX `idx_type` (`type`, `create_time`, `id`),
+    INDEX `idx_author_id` (`author_id`, `create_time`, `id`),
+    INDEX `idx_create_time` (`create_time`, `id`),
+    INDEX `idx_geohash` (`geohash`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='摄影地点博文表';
 
+-- 已有库升级：以下步骤先检查表结构，重复执行或在新建的表上执行时不做任何修改
+
+-- 地图范围和附近查询使用的geohash列（应用写入时同步计算，此处回填已有博文）
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE `pd_article` ADD COLUMN `geohash` CHAR(12) COMMENT ''经纬度geohash，应用写入时同步计算'' AFTER `longitude`',
+        'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pd_article' AND COLUMN_NAME = 'geohash');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE `pd_article` SET `geohash` = ST_GeoHash(`longitude`, `latitude`, 12) WHERE `geohash` IS NULL;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE `pd_article` ADD INDEX `idx_geohash` (`geohash`)',
+        'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pd_article' AND INDEX_NAME = 'idx_geohash');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 按(create_time, id)游标分页所需的索引：旧索引只有单列时重建
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE `pd_article` DROP INDEX `idx_type`, ADD INDEX `idx_type` (`type`, `create_time`, `id`)',
+        'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pd_article' AND INDEX_NAME = 'idx_type'
+      AND SEQ_IN_INDEX = 3 AND COLUMN_NAME = 'id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE `pd_article` DROP INDEX `idx_author_id`, ADD INDEX `idx_author_id` (`author_id`, `create_time`, `id`)',
+        'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pd_article' AND INDEX_NAME = 'idx_author_id'
+      AND SEQ_IN_INDEX = 3 AND COLUMN_NAME = 'id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'ALTER TABLE `pd_article` DROP INDEX `idx_create_time`, ADD INDEX `idx_create_time` (`create_time`, `id`)',
+        'DO 0')
+    FROM information_schema.STATISTICS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'pd_article' AND INDEX_NAME = 'idx_create_time'
+      AND SEQ_IN_INDEX = 2 AND COLUMN_NAME = 'id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
 -- 插入示例数据
-INSERT INTO `pd_article` (`title`, `name`, `latitude`, `longitude`, `type`, `description`, `tips`, `author_id`, `create_time`) 
+INSERT INTO `pd_article` (`title`, `name`, `latitude`, `longitude`, `geohash`, `type`, `description`, `tips`, `author_id`, `create_time`) 
 VALUES 
-('北京故宫建筑之美', '故宫博物院', 39.9163447, 116.3972282, 'architecture', '紫禁城，明清两朝的皇家宫殿，建筑宏伟壮观', '早晨或傍晚光线最佳，注意人流量', 1, NOW()),
-('香山红叶季', '香山公园', 39.9905660, 116.1900690, 'nature', '北京著名的赏红叶胜地，秋季景色迷人', '10-11月最佳拍摄时间，穿防滑鞋登山', 1, NOW()),
-('南锣鼓巷夜景', '南锣鼓巷', 39.9368190, 116.4035730, 'street', '北京著名的胡同街区，夜晚灯火通明', '夜晚7-9点最佳，注意控制快门速度', 1, NOW());
\ No newline at end of file
+('北京故宫建筑之美', '故宫博物院', 39.9163447, 116.3972282, 'wx4g0dtceczy', 'architecture', '紫禁城，明清两朝的皇家宫殿，建筑宏伟壮观', '早晨或傍晚光线最佳，注意人流量', 1, NOW()),
+('香山红叶季', '香山公园', 39.9905660, 116.1900690, 'wx4eebp1bvff', 'nature', '北京著名的赏红叶胜地，秋季景色迷人', '10-11月最佳拍摄时间，穿防滑鞋登山', 1, NOW()),
+('南锣鼓巷夜景', '南锣鼓巷', 39.9368190, 116.4035730, 'wx4g0y62zfdu', 'street', '北京著名的胡同街区，夜晚灯火通明', '夜晚7-9点最佳，注意控制快门速度', 1, NOW());
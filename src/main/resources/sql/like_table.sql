@@ -13,11 +13,23 @@ CREATE TABLE IF NOT EXISTS `pd_like` (
   KEY `idx_status` (`status`) COMMENT '状态索引'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='点赞表';
 
--- 为现有文章表添加点赞数字段（可选）
--- ALTER TABLE `pd_article` ADD COLUMN `like_count` INT(11) NOT NULL DEFAULT 0 COMMENT '点赞数量';
+-- 为现有文章表添加点赞数字段（由点赞消费者异步累加维护）
+ALTER TABLE `pd_article` ADD COLUMN `like_count` INT(11) NOT NULL DEFAULT 0 COMMENT '点赞数量';
+
+-- 点赞数增量表：点赞写入时在同一事务中记录增量，由定时任务汇总累加到pd_article.like_count后删除
+CREATE TABLE IF NOT EXISTS `pd_article_like_delta` (
+  `id` BIGINT(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `article_id` INT(11) NOT NULL COMMENT '博文ID',
+  `delta` INT(11) NOT NULL COMMENT '点赞数增量',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='博文点赞数增量表';
+
+-- 初始化已有博文的点赞数
+UPDATE `pd_article` a SET a.`like_count` = (SELECT COUNT(*) FROM `pd_like` l WHERE l.`article_id` = a.`id` AND l.`status` = 1);
 
 -- 创建索引优化查询性能
--- CREATE INDEX idx_article_like_count ON pd_article(like_count);
+CREATE INDEX idx_article_like_count ON pd_article(like_count);
 -- CREATE INDEX idx_like_create_time ON pd_like(create_time);
 -- CREATE INDEX idx_like_user_status ON pd_like(user_id, status);
 -- CREATE INDEX idx_like_article_status ON pd_like(article_id, status);
\ No newline at end of file
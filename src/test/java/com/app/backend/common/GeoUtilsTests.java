@@ -0,0 +1,118 @@
+package com.app.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证geohash编码、相邻网格、边界处理及前缀区间的转换
+ */
+class GeoUtilsTests {
+
+    @Test
+    void encodeMatchesReferenceGeohash() {
+        assertEquals("ezs42", GeoUtils.encode(42.6, -5.6, 5));
+        assertEquals("u4pruydqqvj", GeoUtils.encode(57.64911, 10.40744, 11));
+    }
+
+    @Test
+    void encodePrefixIsCoarserCell() {
+        String geohash = GeoUtils.encode(31.2304, 121.4737, GeoUtils.GEOHASH_LENGTH);
+        for (int length = 1; length < GeoUtils.GEOHASH_LENGTH; length++) {
+            assertEquals(geohash.substring(0, length), GeoUtils.encode(31.2304, 121.4737, length));
+        }
+    }
+
+    @Test
+    void cellsAroundCellAreItsNeighbors() {
+        // ezs42的中心点及宽高
+        double lat = 42.60498046875, lng = -5.60302734375;
+        double height = 180.0 / (1 << 12), width = 360.0 / (1 << 13);
+        List<String> cells = GeoUtils.cellsInBox(lat - height, lat + height, lng - width, lng + width, 5);
+
+        assertEquals(9, cells.size());
+        assertEquals(Set.of("ezs42", "ezs43", "ezs49", "ezs48", "ezs41", "ezs40",
+                "ezefp", "ezefr", "ezefx"), Set.copyOf(cells));
+    }
+
+    @Test
+    void cornersEncodeToEdgeCells() {
+        assertEquals("00000", GeoUtils.encode(-90, -180, 5));
+        assertEquals("zzzzz", GeoUtils.encode(90, 180, 5));
+        assertEquals("bpbpb", GeoUtils.encode(90, -180, 5));
+        assertEquals("pbpbp", GeoUtils.encode(-90, 180, 5));
+    }
+
+    @Test
+    void boxOnBoundaryIsClamped() {
+        List<String> cells = GeoUtils.cellsInBox(89, 90, 179, 180, 3);
+
+        assertEquals(GeoUtils.countCells(89, 90, 179, 180, 3), cells.size());
+        assertTrue(cells.contains("zzz"));
+        assertEquals(cells.size(), new HashSet<>(cells).size());
+    }
+
+    @Test
+    void coverBoxRespectsMaxCells() {
+        for (int maxCells : new int[]{1, 4, 32}) {
+            List<String> cells = GeoUtils.coverBox(30.5, 31.5, 120.5, 122.5, maxCells);
+            assertTrue(cells.size() <= maxCells);
+            assertTrue(!cells.isEmpty());
+        }
+        // 一个网格无法覆盖时返回空列表，查询退化为只按经纬度过滤
+        assertTrue(GeoUtils.coverBox(-90, 90, -180, 180, 1).isEmpty());
+    }
+
+    @Test
+    void boundingBoxesWrapAcrossAntimeridian() {
+        List<double[]> boxes = GeoUtils.boundingBoxes(0, 179.9, 50000);
+
+        assertEquals(2, boxes.size());
+        assertEquals(180, boxes.get(0)[3]);
+        assertEquals(-180, boxes.get(1)[2]);
+        assertTrue(boxes.get(1)[3] > -179.9);
+        // 经线另一侧的点在拆分出的矩形内，且距离按球面计算
+        assertTrue(GeoUtils.distance(0, 179.9, 0, -179.9) < 50000);
+
+        List<double[]> west = GeoUtils.boundingBoxes(0, -179.9, 50000);
+        assertEquals(2, west.size());
+        assertEquals(180, west.get(1)[3]);
+        assertTrue(west.get(1)[2] < 179.9);
+    }
+
+    @Test
+    void boundingBoxesCoverAllLongitudesAroundPole() {
+        List<double[]> boxes = GeoUtils.boundingBoxes(89.9, 10, 50000);
+
+        assertEquals(1, boxes.size());
+        assertArrayEquals(new double[]{89.9 - 50000 / 111320.0, 90, -180, 180}, boxes.get(0), 1e-9);
+    }
+
+    @Test
+    void nextPrefixCarries() {
+        assertEquals("wx5", GeoUtils.nextPrefix("wx4"));
+        assertEquals("b", GeoUtils.nextPrefix("9"));
+        assertEquals("x", GeoUtils.nextPrefix("wz"));
+        assertEquals("c", GeoUtils.nextPrefix("bzz"));
+        assertNull(GeoUtils.nextPrefix("zzz"));
+    }
+
+    @Test
+    void prefixRangesMergeAdjacentCells() {
+        List<GeoUtils.GeohashRange> ranges = GeoUtils.prefixRanges(List.of("wx6", "wx4", "wx5", "wx4", "zz"));
+
+        assertEquals(2, ranges.size());
+        assertEquals("wx4", ranges.get(0).getStart());
+        assertEquals("wx7", ranges.get(0).getEnd());
+        assertEquals("zz", ranges.get(1).getStart());
+        assertNull(ranges.get(1).getEnd());
+        assertTrue(GeoUtils.prefixRanges(List.of()).isEmpty());
+    }
+}
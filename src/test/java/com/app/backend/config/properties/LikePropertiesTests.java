@@ -0,0 +1,46 @@
+package com.app.backend.config.properties;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证点赞消息的分区路由
+ */
+class LikePropertiesTests {
+
+    @Test
+    void sameUserArticleAlwaysRoutesToSamePartition() {
+        LikeProperties likeProperties = new LikeProperties();
+        likeProperties.setPartitionCount(8);
+
+        int partition = likeProperties.partitionOf(42L, 7);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(partition, likeProperties.partitionOf(42L, 7));
+        }
+        // 新的配置实例（其他节点）得到相同的分区
+        LikeProperties otherNode = new LikeProperties();
+        otherNode.setPartitionCount(8);
+        assertEquals(partition, otherNode.partitionOf(42L, 7));
+    }
+
+    @Test
+    void partitionsStayInRangeAndSpread() {
+        LikeProperties likeProperties = new LikeProperties();
+        likeProperties.setPartitionCount(4);
+
+        Set<Integer> used = new HashSet<>();
+        for (long userId = -50; userId < 50; userId++) {
+            for (int articleId = 1; articleId <= 20; articleId++) {
+                int partition = likeProperties.partitionOf(userId, articleId);
+                assertTrue(partition >= 0 && partition < 4);
+                used.add(partition);
+            }
+        }
+        assertEquals(Set.of(0, 1, 2, 3), used);
+    }
+}
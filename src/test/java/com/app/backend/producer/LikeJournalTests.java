@@ -0,0 +1,158 @@
+package com.app.backend.producer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证本地点赞日志的读写位置、压缩、重启恢复以及损坏记录的处理
+ */
+class LikeJournalTests {
+
+    // 文件头8字节，每条10字节的记录占14字节
+    private static final int CAPACITY = 8 + 3 * 14;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void peekAndCommitMoveHeaderPositions() throws IOException {
+        Path path = dir.resolve("journal.dat");
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            journal.append(record(1));
+            journal.append(record(2));
+            assertEquals(8 + 2 * 14, header(path, 0));
+            assertEquals(8, header(path, 4));
+
+            // peek不移动读位置
+            assertEquals(List.of("record-01", "record-01"), texts(journal.peek(1), journal.peek(1)));
+            journal.commit(1);
+            assertEquals(8 + 14, header(path, 4));
+            assertEquals(List.of("record-02"), texts(journal.peek(10)));
+
+            // 全部确认后回到起点
+            journal.commit(1);
+            assertFalse(journal.hasPending());
+            assertEquals(8, header(path, 0));
+            assertEquals(8, header(path, 4));
+        }
+    }
+
+    @Test
+    void pendingRecordsSurviveRestart() throws IOException {
+        Path path = dir.resolve("journal.dat");
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            journal.append(record(1));
+            journal.append(record(2));
+            journal.append(record(3));
+            journal.peek(2);
+            journal.commit(2);
+        }
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            assertTrue(journal.hasPending());
+            assertEquals(List.of("record-03"), texts(journal.peek(10)));
+        }
+    }
+
+    @Test
+    void compactReclaimsCommittedSpace() throws IOException {
+        try (LikeJournal journal = new LikeJournal(dir.resolve("journal.dat"), CAPACITY)) {
+            assertTrue(journal.append(record(1)));
+            assertTrue(journal.append(record(2)));
+            assertTrue(journal.append(record(3)));
+            assertFalse(journal.append(record(4)));
+
+            journal.commit(2);
+            assertTrue(journal.append(record(4)));
+            assertTrue(journal.append(record(5)));
+            assertEquals(List.of("record-03", "record-04", "record-05"), texts(journal.peek(10)));
+        }
+    }
+
+    @Test
+    void negativeLengthTruncatesDamagedTail() throws IOException {
+        Path path = dir.resolve("journal.dat");
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            journal.append(record(1));
+            journal.append(record(2));
+            journal.append(record(3));
+        }
+        writeInt(path, 8 + 14, -5);
+
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            assertEquals(List.of("record-01"), texts(journal.peek(10)));
+            assertEquals(8 + 14, header(path, 0));
+            journal.commit(1);
+            assertFalse(journal.hasPending());
+        }
+    }
+
+    @Test
+    void lengthBeyondWritePositionTruncatesPartialRecord() throws IOException {
+        Path path = dir.resolve("journal.dat");
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            journal.append(record(1));
+            journal.append(record(2));
+        }
+        // 第二条记录的长度超出写位置，相当于只写了一半
+        writeInt(path, 8 + 14, 1000);
+
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            assertEquals(List.of("record-01"), texts(journal.peek(10)));
+            assertTrue(journal.append(record(3)));
+            assertEquals(List.of("record-01", "record-03"), texts(journal.peek(10)));
+        }
+    }
+
+    @Test
+    void corruptHeaderStartsEmpty() throws IOException {
+        Path path = dir.resolve("journal.dat");
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            journal.append(record(1));
+        }
+        writeInt(path, 0, CAPACITY + 1);
+
+        try (LikeJournal journal = new LikeJournal(path, CAPACITY)) {
+            assertFalse(journal.hasPending());
+            assertTrue(journal.peek(10).isEmpty());
+        }
+    }
+
+    private static byte[] record(int i) {
+        return String.format("record-%02d", i).concat(" ").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SafeVarargs
+    private static List<String> texts(List<byte[]>... batches) {
+        return Arrays.stream(batches)
+                .flatMap(List::stream)
+                .map(record -> new String(record, StandardCharsets.UTF_8).trim())
+                .toList();
+    }
+
+    private static int header(Path path, int offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer, offset);
+            return buffer.flip().getInt();
+        }
+    }
+
+    private static void writeInt(Path path, int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), offset);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.app.backend.service.impl;
+
+import com.app.backend.entity.Collect;
+import com.app.backend.mapper.CollectMapper;
+import com.app.backend.vo.CollectVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 验证收藏消息的合并落库，以及收藏Set未加载时从数据库重建
+ */
+@ExtendWith(MockitoExtension.class)
+class CollectServiceImplTests {
+
+    @Mock
+    private CollectMapper collectMapper;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private SetOperations<String, Object> setOperations;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @InjectMocks
+    private CollectServiceImpl collectService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitCollectMessagesKeepsFinalStatePerUserArticle() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            collectService.submitCollectMessages(List.of(
+                    collectVO(1L, 10, 1), collectVO(2L, 10, 1), collectVO(1L, 10, 0), collectVO(1L, 11, 1), collectVO(2L, 10, 0)));
+
+            // 按首次出现的顺序每个用户-博文只写一行，状态为最后一次操作
+            ArgumentCaptor<List<Collect>> saved = ArgumentCaptor.forClass(List.class);
+            verify(collectMapper).batchUpsert(saved.capture());
+            assertEquals(List.of("1:10:0", "2:10:0", "1:11:1"), saved.getValue().stream()
+                    .map(collect -> collect.getUserId() + ":" + collect.getArticleId() + ":" + collect.getStatus())
+                    .toList());
+
+            // 提交之前不清除收藏数，提交后每篇博文的计数器只删除一次
+            verify(redisTemplate, never()).delete(any(List.class));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(redisTemplate).delete(List.of("article:collect:count:10", "article:collect:count:11"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void missingPlaceholderReloadsCollectSetFromDatabase() {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(setOperations.isMember("user:collected:articles:7", "0", "10", "11"))
+                .thenReturn(Map.of("0", false, "10", false, "11", false));
+        when(valueOperations.get("user:collected:version:7")).thenReturn("5");
+        when(collectMapper.findCollectedArticleIds(7L)).thenReturn(List.of());
+
+        assertEquals(Map.of(10L, false, 11L, false), collectService.getCollectStatusByArticleList(7L, List.of(10L, 11L)));
+
+        // 没有收藏的用户同样写回只含占位成员的Set，写入以读取数据库之前的版本号为条件
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("user:collected:articles:7", "user:collected:version:7")),
+                eq("5"), eq("604800"), eq("0"));
+    }
+
+    private static CollectVO collectVO(Long userId, Integer articleId, int operationType) {
+        CollectVO collectVO = new CollectVO();
+        collectVO.setUserId(userId);
+        collectVO.setArticleId(articleId);
+        collectVO.setOperationType(operationType);
+        return collectVO;
+    }
+}
@@ -0,0 +1,182 @@
+package com.app.backend.service.impl;
+
+import com.app.backend.cache.ArticleDetailCache;
+import com.app.backend.dto.ArticleCommentDTO;
+import com.app.backend.dto.CursorPage;
+import com.app.backend.entity.Comment;
+import com.app.backend.mapper.CommentMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 验证最新评论缓存的加载，以及评论计数器按写入版本号回填和对账
+ */
+@ExtendWith(MockitoExtension.class)
+class CommentServiceImplTests {
+
+    @Mock
+    private ArticleDetailCache articleDetailCache;
+
+    @Mock
+    private CommentMapper commentMapper;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private RedisOperations<String, Object> redisOperations;
+
+    @Mock
+    private Cursor<Map.Entry<Object, Object>> cursor;
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void missingRecentCommentsLoadUnderVersionReadBeforeQuery() {
+        // ZSet不存在，同一个pipeline中读到的版本号为7
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(Set.of(), "7"));
+        when(commentMapper.selectCommentPage(3L, null, null, 21L)).thenReturn(List.of());
+
+        CursorPage<Comment> page = commentService.getCommentsPaged(3L, null, null);
+
+        assertTrue(page.getRecords().isEmpty());
+        assertNull(page.getNextCursor());
+        // 没有评论的博文写回只含占位成员的ZSet，写入以查询之前的版本号为条件
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("article:comments:recent:3", "article:comments:recent:version:3")),
+                eq("7"), eq("86400"), eq("0"), eq("0"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void placeholderOnlyRecentCommentsSkipDatabase() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(Set.of("0"), "7"));
+
+        CursorPage<Comment> page = commentService.getCommentsPaged(3L, null, null);
+
+        assertTrue(page.getRecords().isEmpty());
+        verify(commentMapper, never()).selectCommentPage(any(), any(), any(), anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void missingCountIsBackfilledOnlyUnderSettledVersion() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.multiGet("article:comment:count", List.of("3"))).thenReturn(Collections.singletonList(null));
+        when(commentMapper.countCommentsByArticleIds(List.of(3L))).thenReturn(List.of(commentCount(3, 4)));
+        // 第一次pipeline读取写入版本号，第二次在模拟的RedisOperations上执行回填
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(List.of("2", "2")))
+                .thenAnswer(invocation -> {
+                    invocation.<SessionCallback<Object>>getArgument(0).execute(redisOperations);
+                    return List.of();
+                });
+
+        assertEquals(Map.of(3L, 4L), commentService.getCommentCountByArticleList(List.of(3L)));
+
+        // 回填以统计之前的started为条件，计数器已存在时不覆盖
+        verify(redisOperations).execute(any(RedisScript.class),
+                eq(List.of("article:comment:count", "article:comment:count:version:3")),
+                eq("3"), eq("2"), eq("4"), eq(""));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcileSkipsCountsWithWritesInFlight() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("comment:count:reconciling"), eq("1"), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(hashOperations.scan(eq("article:comment:count"), any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenReturn(true, true, true, false);
+        when(cursor.next()).thenReturn(Map.entry("1", "4"), Map.entry("2", "5"), Map.entry("3", "7"));
+        // 博文1有一次写入已开始尚未结束，博文2、3没有进行中的写入
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(List.of(Arrays.asList("4", "3"), List.of("2", "2"), Arrays.asList(null, null)));
+        when(commentMapper.countCommentsByArticleIds(any()))
+                .thenReturn(List.of(commentCount(1, 6), commentCount(2, 6), commentCount(3, 7)));
+
+        commentService.reconcileCommentCounts();
+
+        // 进行中的写入使用不可能匹配的版本号，脚本不会覆盖计数器
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("article:comment:count", "article:comment:count:version:1")),
+                eq("1"), eq("-1"), eq("6"), eq("4"));
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("article:comment:count", "article:comment:count:version:2")),
+                eq("2"), eq("2"), eq("6"), eq("5"));
+        // 与数据库一致的计数器不执行脚本
+        verify(redisTemplate, never()).execute(any(RedisScript.class),
+                eq(List.of("article:comment:count", "article:comment:count:version:3")),
+                anyString(), anyString(), anyString(), anyString());
+        verify(redisTemplate).delete("comment:count:reconciling");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedInsertStillFinishesCountWrite() {
+        ReflectionTestUtils.setField(commentService, "baseMapper", commentMapper);
+        when(commentMapper.insert(any(Comment.class))).thenThrow(new IllegalStateException("insert failed"));
+        Comment comment = new Comment();
+        comment.setArticleId(3L);
+
+        assertThrows(IllegalStateException.class, () -> commentService.save(comment));
+
+        // started和finished都递增一次，计数器不变，之后的回填和对账不会被阻塞
+        InOrder inOrder = inOrder(redisTemplate, commentMapper);
+        inOrder.verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("article:comment:count:version:3")), eq("3600"));
+        inOrder.verify(commentMapper).insert(comment);
+        inOrder.verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("article:comment:count", "article:comment:count:version:3")),
+                eq("3"), eq("0"), eq("3600"));
+        verify(articleDetailCache, never()).invalidate(anyLong());
+    }
+
+    private static ArticleCommentDTO commentCount(Integer articleId, Integer count) {
+        ArticleCommentDTO dto = new ArticleCommentDTO();
+        dto.setArticle(articleId);
+        dto.setCommentCount(count);
+        return dto;
+    }
+}
@@ -0,0 +1,281 @@
+package com.app.backend.service.impl;
+
+import com.app.backend.cache.ArticleSuggestIndex;
+import com.app.backend.cache.ArticleTrendingRanker;
+import com.app.backend.cache.HotArticleLikeRegistry;
+import com.app.backend.config.properties.LikeProperties;
+import com.app.backend.dto.ArticleLikeDTO;
+import com.app.backend.dto.ArticleLikeDeltaDTO;
+import com.app.backend.entity.Like;
+import com.app.backend.mapper.ArticleMapper;
+import com.app.backend.mapper.LikeMapper;
+import com.app.backend.producer.LikeProducer;
+import com.app.backend.vo.LikeVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 验证点赞消息的合并落库、点赞数的批量读取与单飞加载、点赞数增量的记录与刷新
+ */
+@ExtendWith(MockitoExtension.class)
+class LikeServiceImplTests {
+
+    @Mock
+    private LikeMapper likeMapper;
+
+    @Mock
+    private LikeProducer likeProducer;
+
+    @Mock
+    private HotArticleLikeRegistry hotArticleLikeRegistry;
+
+    @Mock
+    private ArticleTrendingRanker articleTrendingRanker;
+
+    @Mock
+    private ArticleSuggestIndex articleSuggestIndex;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private LikeProperties likeProperties;
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private RedisOperations<String, Object> redisOperations;
+
+    @InjectMocks
+    private LikeServiceImpl likeService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void submitLikeMessagesKeepsFinalStatePerUserArticle() {
+        when(likeMapper.findByUserArticlePairs(anyList())).thenReturn(List.of());
+
+        likeService.submitLikeMessages(List.of(
+                likeVO(1L, 10, 1), likeVO(2L, 10, 0), likeVO(1L, 10, 0), likeVO(1L, 11, 1), likeVO(1L, 10, 1)));
+
+        // 按首次出现的顺序每个用户-博文只写一行，状态为最后一次操作
+        ArgumentCaptor<List<Like>> saved = ArgumentCaptor.forClass(List.class);
+        verify(likeMapper).batchUpsert(saved.capture());
+        assertEquals(List.of("1:10:1", "2:10:0", "1:11:1"), saved.getValue().stream()
+                .map(like -> like.getUserId() + ":" + like.getArticleId() + ":" + like.getStatus())
+                .toList());
+        // 缓存同步同一组最终状态，只有状态变化的记录计入增量
+        verify(hotArticleLikeRegistry).writeLikes(saved.getValue());
+        verify(articleMapper).insertLikeCountDeltas(Map.of(10L, 1L, 11L, 1L));
+    }
+
+    @Test
+    void cachedCountsAndMissingSetsResolveInBulk() {
+        when(hotArticleLikeRegistry.readCounts(List.of(1L, 2L, 3L))).thenReturn(Map.of(1L, 5L));
+        when(hotArticleLikeRegistry.readVersions(anyList())).thenReturn(Map.of(2L, "7", 3L, "0"));
+        when(likeMapper.findActiveLikesByArticleIds(Set.of(2L, 3L))).thenReturn(List.of(like(8L, 2, 1), like(9L, 2, 1)));
+        runPipelinedCallbacks();
+
+        Map<Long, Long> counts = likeService.getLikeCountByArticleList(Arrays.asList(1L, 2L, null, 2L, 3L));
+
+        assertEquals(Map.of(1L, 5L, 2L, 2L, 3L, 0L), counts);
+        verify(hotArticleLikeRegistry).loadLikes(redisOperations, 2L, "7", List.of("8", "9"));
+        // 没有点赞的博文同样写回，Set中只有占位成员，下次读取直接命中
+        verify(hotArticleLikeRegistry).loadLikes(redisOperations, 3L, "0", List.of());
+        verify(likeMapper, never()).countLikesByArticleIds(anyCollection());
+    }
+
+    @Test
+    void concurrentMissesLoadEachArticleOnce() throws Exception {
+        CountDownLatch querying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(likeProperties.getLoadTimeout()).thenReturn(5000L);
+        when(hotArticleLikeRegistry.readCounts(anyList())).thenReturn(Map.of());
+        when(hotArticleLikeRegistry.readVersions(anyList())).thenReturn(Map.of(5L, "3"));
+        when(likeMapper.findActiveLikesByArticleIds(anyCollection())).thenAnswer(invocation -> {
+            querying.countDown();
+            release.await();
+            return List.of(like(8L, 5, 1));
+        });
+        runPipelinedCallbacks();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<Long, Long>> loader = executor.submit(() -> likeService.getLikeCountByArticleList(List.of(5L)));
+            assertTrue(querying.await(5, TimeUnit.SECONDS));
+            // 第二个调用方在加载期间未命中，等待同一个Future而不是再次查询数据库
+            AtomicReference<Thread> waiterThread = new AtomicReference<>();
+            Future<Map<Long, Long>> waiter = executor.submit(() -> {
+                waiterThread.set(Thread.currentThread());
+                return likeService.getLikeCountByArticleList(List.of(5L));
+            });
+            long deadline = System.currentTimeMillis() + 5000;
+            while (waiterThread.get() == null || waiterThread.get().getState() != Thread.State.TIMED_WAITING) {
+                assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertEquals(Map.of(5L, 1L), loader.get(5, TimeUnit.SECONDS));
+            assertEquals(Map.of(5L, 1L), waiter.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        // 查询数据库之前读取版本号，写回时以该版本号为条件
+        InOrder inOrder = inOrder(hotArticleLikeRegistry, likeMapper);
+        inOrder.verify(hotArticleLikeRegistry).readVersions(List.of(5L));
+        inOrder.verify(likeMapper).findActiveLikesByArticleIds(anyCollection());
+        inOrder.verify(hotArticleLikeRegistry).loadLikes(redisOperations, 5L, "3", List.of("8"));
+        verify(likeMapper, times(1)).findActiveLikesByArticleIds(anyCollection());
+        verify(likeMapper, never()).countLikesByArticleIds(anyCollection());
+    }
+
+    @Test
+    void redisFailureFallsBackToOneGroupedCount() {
+        when(hotArticleLikeRegistry.readCounts(anyList())).thenThrow(new IllegalStateException("redis down"));
+        when(likeMapper.countLikesByArticleIds(List.of(1L, 2L))).thenReturn(List.of(likeCount(1, 3)));
+
+        assertEquals(Map.of(1L, 3L, 2L, 0L), likeService.getLikeCountByArticleList(List.of(1L, 2L)));
+        verify(likeMapper, never()).findActiveLikesByArticleIds(anyCollection());
+    }
+
+    @Test
+    void likeCountDeltasAreRecordedWithTheLikeRows() {
+        when(likeMapper.findByUserArticlePairs(anyList())).thenReturn(List.of(like(1L, 10, 1)));
+
+        likeService.submitLikeMessages(List.of(likeVO(1L, 10, 0), likeVO(2L, 10, 1), likeVO(3L, 11, 1)));
+
+        // 用户1取消、用户2新增点赞相互抵消，博文10不记录增量
+        verify(articleMapper).insertLikeCountDeltas(Map.of(11L, 1L));
+        verify(articleSuggestIndex).publishLikeCounts(Map.of(11L, 1L));
+    }
+
+    @Test
+    void flushAppliesLockedDeltasAndDeletesThem() {
+        when(articleMapper.lockLikeCountDeltas(anyInt())).thenReturn(List.of(
+                delta(1L, 10L, 1L), delta(2L, 10L, 1L), delta(3L, 11L, -1L), delta(4L, 12L, 1L), delta(5L, 12L, -1L)));
+
+        assertFalse(likeService.flushLikeCountDeltas());
+
+        verify(articleMapper).batchIncrLikeCount(Map.of(10L, 2L, 11L, -1L));
+        verify(articleMapper).deleteLikeCountDeltas(List.of(1L, 2L, 3L, 4L, 5L));
+    }
+
+    @Test
+    void flushReportsFullBatch() {
+        List<ArticleLikeDeltaDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            rows.add(delta(id, id, 1L));
+        }
+        when(articleMapper.lockLikeCountDeltas(500)).thenReturn(rows);
+
+        assertTrue(likeService.flushLikeCountDeltas());
+    }
+
+    @Test
+    void flushInterruptedMidBatchKeepsDeltaRows() {
+        when(articleMapper.lockLikeCountDeltas(anyInt())).thenReturn(List.of(delta(1L, 10L, 1L), delta(2L, 11L, 1L)));
+        when(articleMapper.batchIncrLikeCount(anyMap())).thenThrow(new IllegalStateException("connection reset"));
+
+        // 异常抛出后事务回滚，锁定的记录原样保留，下次刷新重新累加
+        assertThrows(IllegalStateException.class, () -> likeService.flushLikeCountDeltas());
+        verify(articleMapper, never()).deleteLikeCountDeltas(anyList());
+    }
+
+    @Test
+    void concurrentFlushesApplyOnlyTheRowsTheyLocked() {
+        // SKIP LOCKED使两个节点锁定互不相交的记录
+        when(articleMapper.lockLikeCountDeltas(anyInt()))
+                .thenReturn(List.of(delta(1L, 10L, 1L), delta(2L, 11L, 1L)))
+                .thenReturn(List.of(delta(3L, 10L, 1L)))
+                .thenReturn(List.of());
+
+        likeService.flushLikeCountDeltas();
+        likeService.flushLikeCountDeltas();
+        assertFalse(likeService.flushLikeCountDeltas());
+
+        verify(articleMapper).batchIncrLikeCount(Map.of(10L, 1L, 11L, 1L));
+        verify(articleMapper).batchIncrLikeCount(Map.of(10L, 1L));
+        verify(articleMapper).deleteLikeCountDeltas(List.of(1L, 2L));
+        verify(articleMapper).deleteLikeCountDeltas(List.of(3L));
+    }
+
+    /**
+     * 让pipeline回调在模拟的RedisOperations上执行，以便验证回调中写入的内容
+     */
+    @SuppressWarnings("unchecked")
+    private void runPipelinedCallbacks() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(redisOperations);
+            return List.of();
+        });
+    }
+
+    private static ArticleLikeDTO likeCount(Integer articleId, Integer count) {
+        ArticleLikeDTO dto = new ArticleLikeDTO();
+        dto.setArticle(articleId);
+        dto.setLikeCount(count);
+        return dto;
+    }
+
+    private static LikeVO likeVO(Long userId, Integer articleId, int operationType) {
+        LikeVO likeVO = new LikeVO();
+        likeVO.setUserId(userId);
+        likeVO.setArticleId(articleId);
+        likeVO.setOperationType(operationType);
+        return likeVO;
+    }
+
+    private static Like like(Long userId, Integer articleId, int status) {
+        Like like = new Like();
+        like.setUserId(userId);
+        like.setArticleId(articleId);
+        like.setStatus(status);
+        return like;
+    }
+
+    private static ArticleLikeDeltaDTO delta(Long id, Long articleId, Long delta) {
+        ArticleLikeDeltaDTO dto = new ArticleLikeDeltaDTO();
+        dto.setId(id);
+        dto.setArticleId(articleId);
+        dto.setDelta(delta);
+        return dto;
+    }
+}
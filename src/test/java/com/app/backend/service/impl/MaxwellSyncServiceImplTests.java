@@ -0,0 +1,166 @@
+package com.app.backend.service.impl;
+
+import com.alibaba.fastjson2.JSON;
+import com.app.backend.cache.ArticleClusterCache;
+import com.app.backend.cache.ArticleDetailCache;
+import com.app.backend.cache.ArticlePageCache;
+import com.app.backend.cache.ArticleSuggestIndex;
+import com.app.backend.dto.MaxwellEventDTO;
+import com.app.backend.entity.Article;
+import com.app.backend.entity.Collect;
+import com.app.backend.entity.Like;
+import com.app.backend.mapper.ArticleMapper;
+import com.app.backend.service.ArticleImageService;
+import com.app.backend.service.CollectService;
+import com.app.backend.service.CommentService;
+import com.app.backend.service.LikeService;
+import com.app.backend.strategy.context.SearchStrategyContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * 回放录制的Maxwell事件，验证派生数据的同步
+ */
+@ExtendWith(MockitoExtension.class)
+class MaxwellSyncServiceImplTests {
+
+    @Mock
+    private ArticleMapper articleMapper;
+
+    @Mock
+    private ArticlePageCache articlePageCache;
+
+    @Mock
+    private ArticleDetailCache articleDetailCache;
+
+    @Mock
+    private ArticleClusterCache articleClusterCache;
+
+    @Mock
+    private SearchStrategyContext searchStrategyContext;
+
+    @Mock
+    private ArticleSuggestIndex articleSuggestIndex;
+
+    @Mock
+    private ArticleImageService articleImageService;
+
+    @Mock
+    private LikeService likeService;
+
+    @Mock
+    private CollectService collectService;
+
+    @Mock
+    private CommentService commentService;
+
+    @InjectMocks
+    private MaxwellSyncServiceImpl maxwellSyncService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncArticleEvents() throws IOException {
+        maxwellSyncService.syncEvents(replay("article-events.jsonl"));
+
+        ArgumentCaptor<Collection<String>> types = ArgumentCaptor.forClass(Collection.class);
+        verify(articlePageCache).invalidate(types.capture());
+        assertEquals(Set.of("architecture", "street", "night", "portrait"), Set.copyOf(types.getValue()));
+
+        // 102的经纬度被直接修改，geohash需要按新位置补写
+        verify(articleMapper).updateGeohash(102L, "wtw3sjq6q2e8");
+        ArgumentCaptor<String[]> geohashes = ArgumentCaptor.forClass(String[].class);
+        verify(articleClusterCache).evict(geohashes.capture());
+        assertEquals(Set.of("wx4g0bm6c408", "wtw3sjq6q2e8"), Set.of(geohashes.getValue()));
+
+        verify(articleDetailCache).invalidate(101L);
+        verify(articleDetailCache).invalidate(102L);
+        verify(articleDetailCache).invalidate(103L);
+        verify(searchStrategyContext).saveArticle(argThat((Article article) -> article.getId() == 101L));
+        verify(searchStrategyContext).saveArticle(argThat((Article article) -> article.getId() == 102L
+                && "wtw3sjq6q2e8".equals(article.getGeohash())));
+        verify(searchStrategyContext).deleteArticle(103L);
+        verify(articleSuggestIndex).publishArticles(Set.of(101L, 102L, 103L));
+    }
+
+    @Test
+    void ignoreLikeCountOnlyUpdates() throws IOException {
+        maxwellSyncService.syncEvents(replay("like-count-events.jsonl"));
+
+        verifyNoInteractions(articleMapper, articlePageCache, articleDetailCache, articleClusterCache,
+                searchStrategyContext, articleSuggestIndex, likeService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncCollectEvents() throws IOException {
+        maxwellSyncService.syncEvents(replay("collect-events.jsonl"));
+
+        ArgumentCaptor<List<Collect>> collects = ArgumentCaptor.forClass(List.class);
+        verify(collectService).syncCollectCache(collects.capture());
+        assertEquals(1, collects.getValue().size());
+        assertEquals(7L, collects.getValue().get(0).getUserId());
+        assertEquals(101, collects.getValue().get(0).getArticleId());
+        assertEquals(1, collects.getValue().get(0).getStatus());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void syncLikeAndCommentEvents() throws IOException {
+        maxwellSyncService.syncEvents(replay("like-events.jsonl"));
+
+        ArgumentCaptor<List<Like>> likes = ArgumentCaptor.forClass(List.class);
+        verify(likeService).syncLikeCache(likes.capture());
+        List<Like> finalStates = likes.getValue();
+        assertEquals(3, finalStates.size());
+        // 同一用户先赞后取消，只保留取消后的状态；删除的记录视为未点赞
+        assertEquals(0, finalStates.get(0).getStatus());
+        assertEquals(0, finalStates.get(1).getStatus());
+        assertEquals(1, finalStates.get(2).getStatus());
+
+        verify(articleDetailCache).invalidate(102L);
+        verify(articleDetailCache, never()).invalidate(101L);
+        // 新增评论已写入最新评论缓存，无需清除
+        verify(commentService).evictRecentComments(Set.of());
+    }
+
+    @Test
+    void returnOnlyFailedTableEvents() throws IOException {
+        doThrow(new IllegalStateException("redis down")).when(likeService).syncLikeCache(anyList());
+
+        List<MaxwellEventDTO> events = replay("like-events.jsonl");
+        List<MaxwellEventDTO> failed = maxwellSyncService.syncEvents(events);
+
+        // pd_like同步失败不影响pd_comment，只有pd_like的事件交还消费者重试
+        assertEquals(events.subList(0, 4), failed);
+        verify(articleDetailCache).invalidate(102L);
+        verify(commentService).evictRecentComments(Set.of());
+    }
+
+    private List<MaxwellEventDTO> replay(String file) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/maxwell/" + file)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> JSON.parseObject(line, MaxwellEventDTO.class))
+                    .toList();
+        }
+    }
+}